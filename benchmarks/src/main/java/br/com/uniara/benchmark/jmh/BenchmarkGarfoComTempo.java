@@ -0,0 +1,62 @@
+package br.com.uniara.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.Garfo;
+
+/**
+ * Custo de pegaGarfo(long), o caminho com tempo limite usado para o segundo
+ * garfo, em um {@link Garfo} disputado. Com tempo limite zero  feita uma
+ * nica tentativa; com 1 ms a thread pode esperar pela entrega do garfo.<br/>
+ * <br/>
+ * O resultado de cada tentativa (pegou ou no)  devolvido ao JMH, portanto a
+ * vazo inclui as tentativas frustradas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGarfoComTempo {
+
+	@Param({ "MONITOR", "ATOMICO" })
+	public String tipoGarfo;
+
+	/**
+	 * Tempo limite de cada tentativa, em milisegundos.
+	 */
+	@Param({ "0", "1" })
+	public long tempoLimite;
+
+	private Garfo garfo;
+
+	@Setup
+	public void cria() {
+		this.garfo = TipoGarfo.valueOf(this.tipoGarfo).criaGarfo(null);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public boolean pegaComTempo() {
+		if (this.garfo.pegaGarfo(this.tempoLimite)) {
+			this.garfo.soltaGarfo();
+			return true;
+		}
+		return false;
+	}
+}
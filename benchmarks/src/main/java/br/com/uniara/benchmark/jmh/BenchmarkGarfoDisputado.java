@@ -0,0 +1,59 @@
+package br.com.uniara.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.Garfo;
+
+/**
+ * Custo de pegaGarfo() seguido de soltaGarfo() em um nico {@link Garfo}
+ * disputado por vrias threads, para cada {@link TipoGarfo}. A verso sem
+ * disputa serve de referncia.<br/>
+ * <br/>
+ * A quantidade de threads disputando pode ser alterada com a opo -t do JMH.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGarfoDisputado {
+
+	@Param({ "MONITOR", "ATOMICO", "TABELADO" })
+	public String tipoGarfo;
+
+	private Garfo garfo;
+
+	@Setup
+	public void cria() {
+		this.garfo = TipoGarfo.valueOf(this.tipoGarfo).criaGarfo(null);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void pegaSolta() {
+		this.garfo.pegaGarfo();
+		this.garfo.soltaGarfo();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void pegaSoltaSemDisputa() {
+		this.garfo.pegaGarfo();
+		this.garfo.soltaGarfo();
+	}
+}
@@ -0,0 +1,103 @@
+package br.com.uniara.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.Garfo;
+import br.com.uniara.entidade.TabelaGarfos;
+
+/**
+ * Mede o false sharing entre garfos vizinhos: cada thread pega e solta
+ * apenas o seu prprio garfo, em um anel criado de uma s vez como na
+ * {@link br.com.uniara.entidade.Mesa}. Como nenhum garfo  disputado,
+ * qualquer queda da vazo por thread com o aumento de threads vem de linhas
+ * de cache divididas entre garfos diferentes.<br/>
+ * <br/>
+ * ATOMICO cria um objeto por garfo, alocados lado a lado; TABELADO guarda os
+ * garfos em uma {@link TabelaGarfos}, uma faixa de 128 bytes por garfo. Com
+ * passo 1 as threads usam garfos vizinhos, o pior caso; com passo 16 cada
+ * thread fica longe das demais em qualquer disposio e serve de
+ * referncia.<br/>
+ * <br/>
+ * A diferena s aparece com muitos ncleos: execute com -t igual 
+ * quantidade de ncleos (64 ou mais), por exemplo java -jar
+ * target/benchmarks.jar BenchmarkLayoutGarfos -t 64. O resultado por thread
+ *  obtido dividindo a vazo total pelo -t.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class BenchmarkLayoutGarfos {
+
+	/**
+	 * Garfos do anel; deve ser pelo menos o passo vezes a quantidade de
+	 * threads para que nenhuma thread divida o garfo com outra.
+	 */
+	@Param({ "4096" })
+	public int quantidade;
+
+	@Param({ "ATOMICO", "TABELADO" })
+	public String tipoGarfo;
+
+	/**
+	 * Distncia, em garfos, entre os garfos de threads consecutivas.
+	 */
+	@Param({ "1", "16" })
+	public int passo;
+
+	private Garfo[] garfos;
+	private final AtomicInteger proximaThread = new AtomicInteger();
+
+	@Setup
+	public void cria() {
+		this.garfos = TipoGarfo.valueOf(this.tipoGarfo).criaGarfos(
+				this.quantidade, null);
+		this.proximaThread.set(0);
+	}
+
+	/**
+	 * Garfo exclusivo de cada thread.
+	 */
+	@State(Scope.Thread)
+	public static class GarfoDaThread {
+
+		private Garfo garfo;
+
+		@Setup
+		public void escolhe(BenchmarkLayoutGarfos benchmark) {
+			int thread = benchmark.proximaThread.getAndIncrement();
+			int indice = thread * benchmark.passo;
+			if (indice >= benchmark.quantidade) {
+				throw new IllegalStateException(String.format(
+						"Garfos insuficientes: a thread %d com passo %d "
+								+ "precisa de %d garfos.", thread,
+						benchmark.passo, indice + 1));
+			}
+			this.garfo = benchmark.garfos[indice];
+		}
+	}
+
+	@Benchmark
+	public void pegaSoltaProprio(GarfoDaThread estado) {
+		estado.garfo.pegaGarfo();
+		estado.garfo.soltaGarfo();
+	}
+}
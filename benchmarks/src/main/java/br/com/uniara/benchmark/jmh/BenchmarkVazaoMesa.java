@@ -0,0 +1,134 @@
+package br.com.uniara.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.uniara.constante.ModoExecucao;
+import br.com.uniara.constante.TipoEstrategia;
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.ConfiguracaoMesa;
+import br.com.uniara.entidade.Mesa;
+
+/**
+ * Refeies por segundo de uma {@link Mesa} inteira, com uma thread por
+ * filsofo, em vrios tamanhos de mesa. O resultado de interesse  a mtrica
+ * secundria "refeicoes".<br/>
+ * <br/>
+ * Os filsofos no pensam nem demoram comendo e esperam no mximo
+ * TEMPO_GARFO pelo segundo garfo, portanto a medio reflete o custo da
+ * sincronizao e no o das pausas.<br/>
+ * <br/>
+ * Threads virtuais exigem Java 21: -p modoExecucao=PLATAFORMA,VIRTUAL.<br/>
+ * As estratgias de aquisio so comparadas com -p
+ * estrategia=BACKOFF,ORDENACAO,CHANDY_MISRA,GARCOM,ARBITRO,PAR_ATOMICO.<br/>
+ * O recuo exponencial da estratgia BACKOFF (
+ * {@link ConfiguracaoMesa#setRecuoMaximo(long)} )  comparado com o tempo
+ * limite fixo com -p recuoMaximo=0,8,64,512; o tempo mdio e de cauda da
+ * fome, a justia e os recuos de cada limite so exibidos pela Simulacao com
+ * mesa.recuo.maximo.<br/>
+ * Os lotes de refeies ( {@link ConfiguracaoMesa#setLoteMaximo(int)} ) so
+ * comparados com -p loteMaximo=1,2,4,8,16 -p esperaLote=1,10,100; as
+ * refeies por posse dos garfos e a justia de cada combinao so exibidas
+ * pela Simulacao com mesa.lote.maximo e mesa.lote.espera.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class BenchmarkVazaoMesa {
+
+	static final long TEMPO_PENSANDO = 0L;
+	static final long TEMPO_COMENDO = 0L;
+	static final long TEMPO_GARFO = 1L;
+	/**
+	 * Durao, em milisegundos, de cada janela de medio.
+	 */
+	static final long JANELA = 100L;
+
+	@Param({ "5", "64", "512" })
+	public int quantidade;
+
+	@Param({ "MONITOR", "ATOMICO", "TABELADO" })
+	public String tipoGarfo;
+
+	@Param({ "PLATAFORMA" })
+	public String modoExecucao;
+
+	@Param({ "BACKOFF" })
+	public String estrategia;
+
+	/**
+	 * Recuo mximo em milisegundos, zero para o tempo limite fixo.
+	 */
+	@Param({ "0" })
+	public long recuoMaximo;
+
+	/**
+	 * Refeies seguidas sem soltar os garfos, 1 para a mesa sem lotes.
+	 */
+	@Param({ "1" })
+	public int loteMaximo;
+
+	/**
+	 * Espera tolerada dos vizinhos de um lote, em milisegundos.
+	 */
+	@Param({ "20" })
+	public long esperaLote;
+
+	private Mesa mesa;
+
+	/**
+	 * Cria a configurao com os tempos do benchmark, sem a vigia.
+	 */
+	static ConfiguracaoMesa configuracao(int quantidade, String tipoGarfo) {
+		ConfiguracaoMesa configuracao = new ConfiguracaoMesa(quantidade,
+				TipoGarfo.valueOf(tipoGarfo));
+		configuracao.setTempoPensando(TEMPO_PENSANDO);
+		configuracao.setTempoComendo(TEMPO_COMENDO);
+		configuracao.setTempoPegarGarfoSecundario(TEMPO_GARFO);
+		// A vigia no participa da medio.
+		configuracao.setIntervaloVigia(0L);
+		return configuracao;
+	}
+
+	@Setup
+	public void inicia() {
+		ConfiguracaoMesa configuracao = configuracao(this.quantidade,
+				this.tipoGarfo);
+		configuracao.setModoExecucao(ModoExecucao.valueOf(this.modoExecucao));
+		configuracao.setTipoEstrategia(TipoEstrategia.valueOf(this.estrategia));
+		configuracao.setRecuoMaximo(this.recuoMaximo);
+		configuracao.setLoteMaximo(this.loteMaximo);
+		configuracao.setEsperaLote(this.esperaLote);
+		this.mesa = new Mesa(configuracao);
+		this.mesa.inicia();
+	}
+
+	@TearDown
+	public void encerra() throws InterruptedException {
+		this.mesa.encerra();
+	}
+
+	@Benchmark
+	public void janela(Refeicoes contador) throws InterruptedException {
+		long antes = this.mesa.getTotalRefeicoes();
+		Thread.sleep(JANELA);
+		contador.refeicoes += this.mesa.getTotalRefeicoes() - antes;
+	}
+}
@@ -0,0 +1,66 @@
+package br.com.uniara.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.uniara.entidade.MesaEventos;
+
+/**
+ * Refeies por segundo de uma {@link MesaEventos}, variando o tamanho da mesa
+ * e a quantidade de threads do pool. O resultado de interesse  a mtrica
+ * secundria "refeicoes".<br/>
+ * <br/>
+ * Usa os mesmos tempos reduzidos de {@link BenchmarkVazaoMesa}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class BenchmarkVazaoMesaEventos {
+
+	@Param({ "5", "64", "512" })
+	public int quantidade;
+
+	@Param({ "1", "2", "4" })
+	public int threads;
+
+	@Param({ "ATOMICO" })
+	public String tipoGarfo;
+
+	private MesaEventos mesa;
+
+	@Setup
+	public void inicia() {
+		this.mesa = new MesaEventos(BenchmarkVazaoMesa.configuracao(
+				this.quantidade, this.tipoGarfo), this.threads);
+		this.mesa.inicia();
+	}
+
+	@TearDown
+	public void encerra() throws InterruptedException {
+		this.mesa.encerra();
+	}
+
+	@Benchmark
+	public void janela(Refeicoes contador) throws InterruptedException {
+		long antes = this.mesa.getTotalRefeicoes();
+		Thread.sleep(BenchmarkVazaoMesa.JANELA);
+		contador.refeicoes += this.mesa.getTotalRefeicoes() - antes;
+	}
+}
@@ -0,0 +1,26 @@
+package br.com.uniara.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Contador de refeies exibido pelo JMH como uma mtrica secundria, em
+ * refeies por unidade de tempo.<br/>
+ * <br/>
+ * As mesas rodam em threads prprias; o mtodo medido apenas aguarda uma
+ * janela de tempo e soma aqui as refeies feitas durante ela.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Refeicoes {
+
+	public long refeicoes;
+
+	@Setup(Level.Iteration)
+	public void zera() {
+		this.refeicoes = 0L;
+	}
+}
@@ -0,0 +1,241 @@
+package br.com.uniara.analise;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+import br.com.uniara.registro.DiarioEventos;
+import br.com.uniara.registro.LeitorDiario;
+
+/**
+ * Analisa offline um dirio gravado ( {@link DiarioEventos} ): tempo de cada
+ * filsofo em cada estado, disputa por garfo com um mapa de calor ao longo
+ * do tempo, cadeias de espera e ciclos (deadlocks potenciais) e a vazo de
+ * refeies por faixa de tempo.<br/>
+ * <br/>
+ * O dirio  dividido em trechos processados em paralelo por um
+ * {@link ForkJoinPool}, em duas passadas. A primeira resume o que cada trecho
+ * altera na mesa ( {@link Fronteira} ); os resumos, aplicados em ordem, do o
+ * estado no incio de cada trecho. A segunda processa cada trecho a partir
+ * desse estado ( {@link ProcessadorTrecho} ) e soma os resultados. Os
+ * registros so lidos do arquivo mapeado sem serem guardados, portanto a
+ * memria usada depende apenas da quantidade de filsofos e de trechos, no
+ * do tamanho do dirio.<br/>
+ * <br/>
+ * Uso: AnalisadorDiario arquivo [faixa em milisegundos] [threads]
+ */
+public class AnalisadorDiario {
+
+	/**
+	 * Maior trecho, em registros: quatro segmentos do dirio.
+	 */
+	private static final long TRECHO_MAXIMO = 4L * DiarioEventos.TAMANHO_SEGMENTO
+			/ DiarioEventos.TAMANHO_REGISTRO;
+	/**
+	 * Menor trecho, em registros, para que a diviso compense.
+	 */
+	private static final long TRECHO_MINIMO = 1L << 16;
+	/**
+	 * Trechos por thread, para equilibrar trechos com custos diferentes.
+	 */
+	private static final int TRECHOS_POR_THREAD = 4;
+
+	private final LeitorDiario leitor;
+	private final long larguraFaixa;
+	private final ForkJoinPool pool;
+
+	private long tamanhoTrecho;
+	private int trechos;
+	private Fronteira[] resumos;
+	private Fronteira[] iniciais;
+	private long duracao;
+
+	/**
+	 * Cria o analisador.
+	 *
+	 * @param leitor
+	 *            {@link LeitorDiario} - Dirio analisado.
+	 * @param larguraFaixa
+	 *            long - Largura das faixas de vazo, em milisegundos.
+	 * @param pool
+	 *            {@link ForkJoinPool} - Pool que processa os trechos.
+	 */
+	public AnalisadorDiario(LeitorDiario leitor, long larguraFaixa,
+			ForkJoinPool pool) {
+		if (larguraFaixa < 1L) {
+			throw new IllegalArgumentException("Faixa invlida: "
+					+ larguraFaixa);
+		}
+		this.leitor = leitor;
+		this.larguraFaixa = TimeUnit.MILLISECONDS.toNanos(larguraFaixa);
+		this.pool = pool;
+	}
+
+	/**
+	 * Executa as duas passadas sobre o dirio.
+	 *
+	 * @return {@link ResultadoAnalise} - Resultado da anlise.
+	 */
+	public ResultadoAnalise analisa() {
+		long registros = this.leitor.getRegistros();
+		this.tamanhoTrecho = Math.max(TRECHO_MINIMO, Math.min(TRECHO_MAXIMO,
+				registros / (this.pool.getParallelism() * TRECHOS_POR_THREAD)
+						+ 1));
+		this.trechos = (int) Math.max(1L, (registros + this.tamanhoTrecho - 1)
+				/ this.tamanhoTrecho);
+
+		this.resumos = new Fronteira[this.trechos];
+		this.pool.invoke(new ResumeTrechos(0, this.trechos));
+
+		// Um dirio que no foi fechado termina no primeiro trecho vazio.
+		int validos = 0;
+		while (validos < this.trechos && this.resumos[validos].registros > 0L) {
+			this.duracao = Math.max(this.duracao,
+					this.resumos[validos].ultimoInstante);
+			validos++;
+		}
+		this.trechos = validos;
+		this.iniciais = new Fronteira[this.trechos];
+		Fronteira atual = new Fronteira(this.leitor.getQuantidade(), false);
+		for (int i = 0; i < this.trechos; i++) {
+			this.iniciais[i] = atual;
+			atual = atual.seguinte(this.resumos[i]);
+		}
+
+		if (this.trechos == 0) {
+			return novoResultado();
+		}
+		return this.pool.invoke(new AnalisaTrechos(0, this.trechos));
+	}
+
+	/**
+	 * Retorna a quantidade de trechos da ltima anlise.
+	 *
+	 * @return int - Trechos processados.
+	 */
+	public int getTrechos() {
+		return this.trechos;
+	}
+
+	private ResultadoAnalise novoResultado() {
+		return new ResultadoAnalise(this.leitor.getQuantidade(), this.duracao,
+				this.larguraFaixa);
+	}
+
+	private long percorre(LeitorDiario.Consumidor consumidor, int trecho) {
+		try {
+			return this.leitor.percorre(consumidor, trecho * this.tamanhoTrecho,
+					(trecho + 1) * this.tamanhoTrecho);
+		} catch (IOException excecao) {
+			throw new UncheckedIOException(excecao);
+		}
+	}
+
+	/**
+	 * Primeira passada: resume os trechos [de, ate).
+	 */
+	private class ResumeTrechos extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int de;
+		private final int ate;
+
+		ResumeTrechos(int de, int ate) {
+			this.de = de;
+			this.ate = ate;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.ate - this.de > 1) {
+				int meio = (this.de + this.ate) >>> 1;
+				invokeAll(new ResumeTrechos(this.de, meio), new ResumeTrechos(
+						meio, this.ate));
+				return;
+			}
+			Fronteira resumo = new Fronteira(
+					AnalisadorDiario.this.leitor.getQuantidade(), true);
+			percorre(resumo, this.de);
+			AnalisadorDiario.this.resumos[this.de] = resumo;
+		}
+	}
+
+	/**
+	 * Segunda passada: processa os trechos [de, ate) e soma os resultados.
+	 */
+	private class AnalisaTrechos extends RecursiveTask<ResultadoAnalise> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int de;
+		private final int ate;
+
+		AnalisaTrechos(int de, int ate) {
+			this.de = de;
+			this.ate = ate;
+		}
+
+		@Override
+		protected ResultadoAnalise compute() {
+			if (this.ate - this.de > 1) {
+				int meio = (this.de + this.ate) >>> 1;
+				AnalisaTrechos esquerda = new AnalisaTrechos(this.de, meio);
+				esquerda.fork();
+				ResultadoAnalise direita = new AnalisaTrechos(meio, this.ate)
+						.compute();
+				return esquerda.join().combina(direita);
+			}
+			AnalisadorDiario analisador = AnalisadorDiario.this;
+			long fim = this.de + 1 < analisador.trechos ? analisador.resumos[this.de + 1].primeiroInstante
+					: analisador.duracao;
+			ProcessadorTrecho processador = new ProcessadorTrecho(
+					analisador.iniciais[this.de],
+					analisador.resumos[this.de].primeiroInstante, fim,
+					analisador.novoResultado());
+			percorre(processador, this.de);
+			return processador.finaliza();
+		}
+	}
+
+	/**
+	 * Mtodo principal do analisador.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Uso: AnalisadorDiario arquivo "
+					+ "[faixa em milisegundos] [threads]");
+			System.exit(1);
+		}
+		long faixa = args.length > 1 ? Long.parseLong(args[1]) : 1000L;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime
+				.getRuntime().availableProcessors();
+		File arquivo = new File(args[0]);
+		LeitorDiario leitor = new LeitorDiario(arquivo);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			long inicio = System.nanoTime();
+			AnalisadorDiario analisador = new AnalisadorDiario(leitor, faixa,
+					pool);
+			ResultadoAnalise resultado = analisador.analisa();
+			long tempo = System.nanoTime() - inicio;
+			System.out.println(String.format(
+					"Dirio: %s | %d filsofos | %s", arquivo,
+					leitor.getQuantidade(), leitor.isCompleto() ? "completo"
+							: "no fechado"));
+			System.out.println(String.format(
+					"Analisado em %d ms com %d threads e %d trechos "
+							+ "(%.1f MB/s)", TimeUnit.NANOSECONDS
+							.toMillis(tempo), threads, analisador.getTrechos(),
+					arquivo.length() / 1e6 / (tempo / 1e9)));
+			resultado.exibe(System.out);
+		} finally {
+			pool.shutdown();
+			leitor.close();
+		}
+	}
+}
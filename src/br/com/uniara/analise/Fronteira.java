@@ -0,0 +1,105 @@
+package br.com.uniara.analise;
+
+import java.util.Arrays;
+
+import br.com.uniara.constante.TipoRegistro;
+import br.com.uniara.registro.LeitorDiario;
+
+/**
+ * Estado da mesa na fronteira entre dois trechos do dirio: o estado de cada
+ * filsofo e o dono de cada garfo.<br/>
+ * <br/>
+ * Na primeira passada cada trecho produz um resumo com apenas o que mudou
+ * nele (o ltimo estado e o ltimo dono); aplicando os resumos em ordem
+ * obtm-se o estado no incio de cada trecho, o que permite que a segunda
+ * passada processe todos os trechos em paralelo com o mesmo resultado de uma
+ * leitura sequencial.
+ */
+final class Fronteira implements LeitorDiario.Consumidor {
+
+	static final int DESCONHECIDO = -1;
+	static final int LIVRE = -1;
+	static final int INALTERADO = -2;
+
+	/**
+	 * Ordinal do estado de cada filsofo, ou DESCONHECIDO.
+	 */
+	final int[] estados;
+	/**
+	 * Filsofo que segura cada garfo, LIVRE ou, nos resumos, INALTERADO.
+	 */
+	final int[] donos;
+	long registros = 0L;
+	long primeiroInstante = -1L;
+	long ultimoInstante = -1L;
+
+	/**
+	 * Cria uma fronteira vazia.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de filsofos (e de garfos).
+	 * @param resumo
+	 *            boolean - "true" para o resumo de um trecho, em que os garfos
+	 *            comeam inalterados; "false" para o incio do dirio, com
+	 *            todos os garfos livres.
+	 */
+	Fronteira(int quantidade, boolean resumo) {
+		this.estados = new int[quantidade];
+		Arrays.fill(this.estados, DESCONHECIDO);
+		this.donos = new int[quantidade];
+		Arrays.fill(this.donos, resumo ? INALTERADO : LIVRE);
+	}
+
+	private Fronteira(Fronteira origem) {
+		this.estados = origem.estados.clone();
+		this.donos = origem.donos.clone();
+	}
+
+	/**
+	 * Retorna o estado depois deste, aplicando as mudanas do resumo do
+	 * trecho seguinte.
+	 *
+	 * @param resumo
+	 *            {@link Fronteira} - Resumo do trecho que comea nesta
+	 *            fronteira.
+	 * @return {@link Fronteira} - Estado no fim do trecho.
+	 */
+	Fronteira seguinte(Fronteira resumo) {
+		Fronteira seguinte = new Fronteira(this);
+		for (int i = 0; i < this.estados.length; i++) {
+			if (resumo.estados[i] != DESCONHECIDO) {
+				seguinte.estados[i] = resumo.estados[i];
+			}
+			if (resumo.donos[i] != INALTERADO) {
+				seguinte.donos[i] = resumo.donos[i];
+			}
+		}
+		return seguinte;
+	}
+
+	/**
+	 * Primeira passada: guarda apenas o ltimo estado e o ltimo dono.
+	 */
+	@Override
+	public boolean consome(TipoRegistro tipo, int filosofo, int valor,
+			long instante) {
+		if (this.registros++ == 0L) {
+			this.primeiroInstante = instante;
+		}
+		this.ultimoInstante = Math.max(this.ultimoInstante, instante);
+		switch (tipo) {
+		case ESTADO:
+			this.estados[filosofo] = valor;
+			break;
+		case GARFO_PEGO:
+			this.donos[valor] = filosofo;
+			break;
+		case GARFO_SOLTO:
+			this.donos[valor] = LIVRE;
+			break;
+		default:
+			break;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,295 @@
+package br.com.uniara.analise;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoRegistro;
+import br.com.uniara.registro.LeitorDiario;
+
+/**
+ * Segunda passada sobre um trecho do dirio: parte do estado da mesa no
+ * incio do trecho ( {@link Fronteira} ) e acumula, em um
+ * {@link ResultadoAnalise}, o tempo gasto at o incio do trecho seguinte.<br/>
+ * <br/>
+ * Um garfo est disputado enquanto est ocupado e o outro filsofo que o
+ * compartilha est faminto. Uma cadeia de espera liga um filsofo faminto
+ * com um garfo ao filsofo que segura o outro; ela s muda quando uma
+ * ligao  criada, e  medida nesse momento. Uma cadeia que volta ao
+ * filsofo de origem  um ciclo: todos seguram um garfo e esperam o prximo,
+ * o deadlock que as estratgias precisam evitar ou desfazer.
+ */
+final class ProcessadorTrecho implements LeitorDiario.Consumidor {
+
+	private static final int ESTADOS = Estado.values().length;
+	private static final int COMENDO = Estado.COMENDO.ordinal();
+	private static final int FAMINTO_SEM_GARFOS = Estado.FAMINTO_SEM_GARFOS
+			.ordinal();
+	private static final int FAMINTO_COM_GARFO = Estado.FAMINTO_COM_GARFO
+			.ordinal();
+
+	private final int quantidade;
+	private final long fim;
+	private final ResultadoAnalise resultado;
+
+	private final int[] estados;
+	private final long[] desdeEstado;
+	private final int[] donos;
+	private final long[] desdeDono;
+	private final boolean[] disputados;
+	private final long[] desdeDisputa;
+	private long ultimoInstante;
+
+	/**
+	 * Cria o processador de um trecho.
+	 *
+	 * @param inicial
+	 *            {@link Fronteira} - Estado da mesa no incio do trecho.
+	 * @param inicio
+	 *            long - Instante do primeiro registro do trecho.
+	 * @param fim
+	 *            long - Instante do incio do trecho seguinte, ou o ltimo
+	 *            instante do dirio.
+	 * @param resultado
+	 *            {@link ResultadoAnalise} - Resultado zerado que recebe os
+	 *            totais do trecho.
+	 */
+	ProcessadorTrecho(Fronteira inicial, long inicio, long fim,
+			ResultadoAnalise resultado) {
+		this.quantidade = inicial.estados.length;
+		this.fim = fim;
+		this.resultado = resultado;
+		this.estados = inicial.estados.clone();
+		this.donos = inicial.donos.clone();
+		this.desdeEstado = new long[this.quantidade];
+		this.desdeDono = new long[this.quantidade];
+		this.disputados = new boolean[this.quantidade];
+		this.desdeDisputa = new long[this.quantidade];
+		this.ultimoInstante = inicio;
+		for (int i = 0; i < this.quantidade; i++) {
+			this.desdeEstado[i] = inicio;
+			this.desdeDono[i] = inicio;
+			this.desdeDisputa[i] = inicio;
+			this.disputados[i] = isDisputado(i);
+		}
+	}
+
+	@Override
+	public boolean consome(TipoRegistro tipo, int filosofo, int valor,
+			long instante) {
+		// Registros reservados fora de ordem por poucos nanossegundos no
+		// voltam no tempo.
+		instante = Math.max(instante, this.ultimoInstante);
+		this.ultimoInstante = instante;
+		this.resultado.registros++;
+		switch (tipo) {
+		case ESTADO:
+			alteraEstado(filosofo, valor, instante);
+			break;
+		case GARFO_PEGO:
+			if (this.donos[valor] >= 0) {
+				encerraOcupacao(valor, instante);
+			}
+			this.donos[valor] = filosofo;
+			this.desdeDono[valor] = instante;
+			this.resultado.aquisicoes[valor]++;
+			atualizaDisputa(valor, instante);
+			// O filsofo pode ter passado a segurar o garfo que um vizinho
+			// espera.
+			avaliaCadeia(filosofo, instante);
+			break;
+		case GARFO_SOLTO:
+			if (this.donos[valor] >= 0) {
+				encerraOcupacao(valor, instante);
+			}
+			this.donos[valor] = Fronteira.LIVRE;
+			atualizaDisputa(valor, instante);
+			break;
+		default:
+			break;
+		}
+		return true;
+	}
+
+	private void alteraEstado(int filosofo, int estado, long instante) {
+		if (this.estados[filosofo] != Fronteira.DESCONHECIDO) {
+			this.resultado.tempoEstados[filosofo * ESTADOS
+					+ this.estados[filosofo]] += Math.max(0L, instante
+					- this.desdeEstado[filosofo]);
+		}
+		this.estados[filosofo] = estado;
+		this.desdeEstado[filosofo] = instante;
+		if (estado == COMENDO) {
+			this.resultado.refeicoes[filosofo]++;
+			this.resultado.refeicoesFaixa[(int) Math.min(
+					this.resultado.refeicoesFaixa.length - 1, instante
+							/ this.resultado.larguraFaixa)]++;
+		}
+		atualizaDisputa(filosofo, instante);
+		atualizaDisputa(direito(filosofo), instante);
+		if (estado == FAMINTO_COM_GARFO) {
+			avaliaCadeia(filosofo, instante);
+		}
+	}
+
+	/**
+	 * ndice do garfo direito de um filsofo; o esquerdo tem o mesmo ndice
+	 * do filsofo.
+	 */
+	private int direito(int filosofo) {
+		return (filosofo + this.quantidade - 1) % this.quantidade;
+	}
+
+	private void encerraOcupacao(int garfo, long instante) {
+		this.resultado.tempoOcupado[garfo] += Math.max(0L, instante
+				- this.desdeDono[garfo]);
+	}
+
+	/**
+	 * O garfo i  o esquerdo do filsofo i e o direito do filsofo i + 1.
+	 */
+	private boolean isDisputado(int garfo) {
+		int dono = this.donos[garfo];
+		if (dono < 0) {
+			return false;
+		}
+		int outro = dono == garfo ? (garfo + 1) % this.quantidade : garfo;
+		int estado = this.estados[outro];
+		return outro != dono
+				&& (estado == FAMINTO_SEM_GARFOS || estado == FAMINTO_COM_GARFO);
+	}
+
+	private void atualizaDisputa(int garfo, long instante) {
+		boolean disputado = isDisputado(garfo);
+		if (disputado == this.disputados[garfo]) {
+			return;
+		}
+		if (disputado) {
+			this.desdeDisputa[garfo] = instante;
+		} else {
+			acumulaDisputa(garfo, this.desdeDisputa[garfo], instante);
+		}
+		this.disputados[garfo] = disputado;
+	}
+
+	/**
+	 * Soma o intervalo disputado ao total do garfo e s colunas do mapa de
+	 * calor que ele atravessa.
+	 */
+	private void acumulaDisputa(int garfo, long de, long ate) {
+		if (ate <= de) {
+			return;
+		}
+		this.resultado.tempoDisputado[garfo] += ate - de;
+		int linha = (int) ((long) garfo * this.resultado.getLinhasMapa() / this.quantidade);
+		long duracao = this.resultado.duracao;
+		int colunas = ResultadoAnalise.COLUNAS_MAPA;
+		int coluna = (int) Math.min(colunas - 1, de * colunas / duracao);
+		while (de < ate) {
+			long fimColuna = coluna == colunas - 1 ? ate : Math.min(ate,
+					(coluna + 1) * duracao / colunas);
+			this.resultado.mapa[linha * colunas + coluna] += Math.max(0L,
+					fimColuna - de);
+			de = Math.max(de, fimColuna);
+			coluna++;
+		}
+	}
+
+	/**
+	 * Retorna quem o filsofo espera: o dono do outro garfo quando ele est
+	 * faminto segurando apenas um; caso contrrio -1.
+	 */
+	private int aguardado(int filosofo) {
+		if (this.estados[filosofo] != FAMINTO_COM_GARFO) {
+			return -1;
+		}
+		boolean temEsquerdo = this.donos[filosofo] == filosofo;
+		int direito = direito(filosofo);
+		boolean temDireito = this.donos[direito] == filosofo;
+		if (temEsquerdo == temDireito) {
+			return -1;
+		}
+		int dono = this.donos[temEsquerdo ? direito : filosofo];
+		return dono == filosofo ? -1 : dono;
+	}
+
+	/**
+	 * Mede a cadeia que passa pelo filsofo: segue quem ele espera e, para
+	 * trs, os vizinhos que esperam por ele. Como cada filsofo s disputa
+	 * garfos com os dois vizinhos, a cadeia anda sempre no mesmo sentido da
+	 * mesa e o custo  limitado pelo seu comprimento.
+	 */
+	private void avaliaCadeia(int filosofo, long instante) {
+		int comprimento = 1;
+		int atual = filosofo;
+		boolean ciclo = false;
+		while (comprimento <= this.quantidade) {
+			int proximo = aguardado(atual);
+			if (proximo < 0) {
+				break;
+			}
+			if (proximo == filosofo) {
+				ciclo = true;
+				break;
+			}
+			comprimento++;
+			atual = proximo;
+		}
+		if (!ciclo) {
+			comprimento += Math.max(antecessores(filosofo, 1),
+					antecessores(filosofo, this.quantidade - 1));
+		}
+		if (comprimento < 2) {
+			return;
+		}
+		comprimento = Math.min(comprimento, this.quantidade);
+		this.resultado.cadeias[comprimento]++;
+		if (comprimento > this.resultado.maiorCadeia) {
+			this.resultado.maiorCadeia = comprimento;
+			this.resultado.instanteMaiorCadeia = instante;
+		}
+		if (ciclo) {
+			this.resultado.ciclos++;
+			if (this.resultado.primeiroCiclo < 0L) {
+				this.resultado.primeiroCiclo = instante;
+			}
+		}
+	}
+
+	/**
+	 * Conta os filsofos que esperam, em sequncia, a partir do vizinho no
+	 * sentido informado.
+	 */
+	private int antecessores(int filosofo, int sentido) {
+		int contagem = 0;
+		int atual = filosofo;
+		while (contagem < this.quantidade) {
+			int anterior = (atual + sentido) % this.quantidade;
+			if (aguardado(anterior) != atual) {
+				break;
+			}
+			contagem++;
+			atual = anterior;
+		}
+		return contagem;
+	}
+
+	/**
+	 * Fecha os intervalos ainda abertos no fim do trecho.
+	 *
+	 * @return {@link ResultadoAnalise} - Totais do trecho.
+	 */
+	ResultadoAnalise finaliza() {
+		long fimTrecho = this.fim;
+		for (int i = 0; i < this.quantidade; i++) {
+			if (this.estados[i] != Fronteira.DESCONHECIDO) {
+				this.resultado.tempoEstados[i * ESTADOS + this.estados[i]] += Math
+						.max(0L, fimTrecho - this.desdeEstado[i]);
+			}
+			if (this.donos[i] >= 0) {
+				encerraOcupacao(i, fimTrecho);
+			}
+			if (this.disputados[i]) {
+				acumulaDisputa(i, this.desdeDisputa[i], fimTrecho);
+			}
+		}
+		return this.resultado;
+	}
+}
@@ -0,0 +1,221 @@
+package br.com.uniara.analise;
+
+import java.io.PrintStream;
+
+import br.com.uniara.constante.Estado;
+
+/**
+ * Totais da anlise de um dirio. Cada trecho produz o seu resultado e os
+ * resultados so somados ( {@link #combina(ResultadoAnalise)} ), portanto a
+ * ordem da soma no altera o total.<br/>
+ * <br/>
+ * O tamanho no depende da quantidade de registros: tempos por filsofo e
+ * por garfo, um mapa de calor com no mximo {@link #LINHAS_MAPA} linhas e
+ * {@link #COLUNAS_MAPA} colunas e uma contagem de refeies por faixa de
+ * tempo.
+ */
+public class ResultadoAnalise {
+
+	static final int LINHAS_MAPA = 64;
+	static final int COLUNAS_MAPA = 24;
+	private static final String TONS = " .:-=+*#%@";
+	private static final Estado[] ESTADOS = Estado.values();
+
+	final int quantidade;
+	final long duracao;
+	final long larguraFaixa;
+
+	long registros = 0L;
+	/**
+	 * Tempo de cada filsofo em cada estado: [filosofo * estados + estado].
+	 */
+	final long[] tempoEstados;
+	final long[] refeicoes;
+	final long[] aquisicoes;
+	final long[] tempoOcupado;
+	final long[] tempoDisputado;
+	/**
+	 * Tempo disputado por grupo de garfos e coluna de tempo.
+	 */
+	final long[] mapa;
+	final long[] refeicoesFaixa;
+	/**
+	 * Quantas vezes cada comprimento de cadeia de espera foi formado.
+	 */
+	final long[] cadeias;
+	int maiorCadeia = 0;
+	long instanteMaiorCadeia = -1L;
+	long ciclos = 0L;
+	long primeiroCiclo = -1L;
+
+	/**
+	 * Cria um resultado zerado.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de filsofos.
+	 * @param duracao
+	 *            long - Durao do dirio em nanossegundos.
+	 * @param larguraFaixa
+	 *            long - Largura das faixas de vazo em nanossegundos.
+	 */
+	ResultadoAnalise(int quantidade, long duracao, long larguraFaixa) {
+		this.quantidade = quantidade;
+		this.duracao = Math.max(1L, duracao);
+		this.larguraFaixa = larguraFaixa;
+		this.tempoEstados = new long[quantidade * ESTADOS.length];
+		this.refeicoes = new long[quantidade];
+		this.aquisicoes = new long[quantidade];
+		this.tempoOcupado = new long[quantidade];
+		this.tempoDisputado = new long[quantidade];
+		this.mapa = new long[getLinhasMapa() * COLUNAS_MAPA];
+		this.refeicoesFaixa = new long[(int) (this.duracao / larguraFaixa) + 1];
+		this.cadeias = new long[quantidade + 1];
+	}
+
+	/**
+	 * Retorna a quantidade de linhas do mapa de calor: um garfo por linha ou,
+	 * em mesas grandes, grupos de garfos vizinhos.
+	 */
+	int getLinhasMapa() {
+		return Math.min(this.quantidade, LINHAS_MAPA);
+	}
+
+	/**
+	 * Soma o resultado de outro trecho a este.
+	 *
+	 * @param outro
+	 *            {@link ResultadoAnalise} - Resultado de outro trecho.
+	 * @return {@link ResultadoAnalise} - Este resultado, com a soma.
+	 */
+	ResultadoAnalise combina(ResultadoAnalise outro) {
+		this.registros += outro.registros;
+		soma(this.tempoEstados, outro.tempoEstados);
+		soma(this.refeicoes, outro.refeicoes);
+		soma(this.aquisicoes, outro.aquisicoes);
+		soma(this.tempoOcupado, outro.tempoOcupado);
+		soma(this.tempoDisputado, outro.tempoDisputado);
+		soma(this.mapa, outro.mapa);
+		soma(this.refeicoesFaixa, outro.refeicoesFaixa);
+		soma(this.cadeias, outro.cadeias);
+		if (outro.maiorCadeia > this.maiorCadeia) {
+			this.maiorCadeia = outro.maiorCadeia;
+			this.instanteMaiorCadeia = outro.instanteMaiorCadeia;
+		}
+		this.ciclos += outro.ciclos;
+		if (outro.primeiroCiclo >= 0L
+				&& (this.primeiroCiclo < 0L || outro.primeiroCiclo < this.primeiroCiclo)) {
+			this.primeiroCiclo = outro.primeiroCiclo;
+		}
+		return this;
+	}
+
+	private static void soma(long[] destino, long[] origem) {
+		for (int i = 0; i < destino.length; i++) {
+			destino[i] += origem[i];
+		}
+	}
+
+	/**
+	 * Exibe o relatrio da anlise.
+	 *
+	 * @param saida
+	 *            {@link PrintStream} - Destino do relatrio.
+	 */
+	public void exibe(PrintStream saida) {
+		double segundos = this.duracao / 1e9;
+		long totalRefeicoes = 0L;
+		for (long refeicoesFilosofo : this.refeicoes) {
+			totalRefeicoes += refeicoesFilosofo;
+		}
+		saida.println(String.format(
+				"Registros: %d | durao: %.3f s | refeies: %d (%.1f/s)",
+				this.registros, segundos, totalRefeicoes, totalRefeicoes
+						/ segundos));
+
+		saida.println();
+		saida.println("Tempo em cada estado (% da durao):");
+		StringBuilder titulo = new StringBuilder(String.format("%-9s",
+				"Filsofo"));
+		for (Estado estado : ESTADOS) {
+			titulo.append(String.format(" %18s", estado.name()));
+		}
+		saida.println(titulo.append(String.format(" %10s", "refeies")));
+		for (int i = 0; i < this.quantidade; i++) {
+			StringBuilder linha = new StringBuilder(String.format("%-9d",
+					i + 1));
+			for (int e = 0; e < ESTADOS.length; e++) {
+				linha.append(String.format(" %18.1f", 100.0
+						* this.tempoEstados[i * ESTADOS.length + e]
+						/ this.duracao));
+			}
+			saida.println(linha.append(String.format(" %10d",
+					this.refeicoes[i])));
+		}
+
+		saida.println();
+		saida.println("Disputa por garfo (ocupado e disputado em % da durao; "
+				+ "disputado = ocupado com o outro vizinho faminto):");
+		saida.println(String.format("%-6s %10s %9s %11s", "Garfo",
+				"aquisies", "ocupado", "disputado"));
+		for (int i = 0; i < this.quantidade; i++) {
+			saida.println(String.format("%-6d %10d %9.1f %11.1f", i,
+					this.aquisicoes[i], 100.0 * this.tempoOcupado[i]
+							/ this.duracao, 100.0 * this.tempoDisputado[i]
+							/ this.duracao));
+		}
+
+		int linhas = getLinhasMapa();
+		saida.println();
+		saida.println(String.format(
+				"Mapa de calor da disputa (linhas: garfos, colunas: %.3f s "
+						+ "cada, escala \"%s\" de 0 a 100%%):", segundos
+						/ COLUNAS_MAPA, TONS));
+		double larguraColuna = (double) this.duracao / COLUNAS_MAPA;
+		for (int linha = 0; linha < linhas; linha++) {
+			int primeiro = linha * this.quantidade / linhas;
+			int ultimo = (linha + 1) * this.quantidade / linhas - 1;
+			StringBuilder texto = new StringBuilder(primeiro == ultimo ? String
+					.format("%11d |", primeiro) : String.format("%5d-%-5d |",
+					primeiro, ultimo));
+			for (int coluna = 0; coluna < COLUNAS_MAPA; coluna++) {
+				double fracao = this.mapa[linha * COLUNAS_MAPA + coluna]
+						/ (larguraColuna * (ultimo - primeiro + 1));
+				int tom = (int) Math.round(Math.min(1.0, fracao)
+						* (TONS.length() - 1));
+				texto.append(TONS.charAt(tom));
+			}
+			saida.println(texto.append('|'));
+		}
+
+		saida.println();
+		saida.println(String.format(
+				"Cadeias de espera (filsofo com um garfo esperando o outro, "
+						+ "segurado por outro filsofo): maior com %d "
+						+ "filsofos%s", this.maiorCadeia,
+				this.instanteMaiorCadeia < 0L ? "" : String.format(
+						" em %.3f s", this.instanteMaiorCadeia / 1e9)));
+		saida.println(String.format(
+				"Ciclos (deadlock potencial): %d%s", this.ciclos,
+				this.primeiroCiclo < 0L ? "" : String.format(
+						", o primeiro em %.3f s", this.primeiroCiclo / 1e9)));
+		for (int i = 2; i < this.cadeias.length; i++) {
+			if (this.cadeias[i] > 0L) {
+				saida.println(String.format("  %4d filsofos: %d", i,
+						this.cadeias[i]));
+			}
+		}
+
+		saida.println();
+		saida.println(String.format("Vazo por faixa de %.3f s:",
+				this.larguraFaixa / 1e9));
+		saida.println(String.format("%10s %10s %12s", "incio s",
+				"refeies", "refeies/s"));
+		for (int i = 0; i < this.refeicoesFaixa.length; i++) {
+			long inicio = i * this.larguraFaixa;
+			double largura = Math.min(this.larguraFaixa, this.duracao - inicio) / 1e9;
+			saida.println(String.format("%10.3f %10d %12.1f", inicio / 1e9,
+					this.refeicoesFaixa[i], largura <= 0.0 ? 0.0
+							: this.refeicoesFaixa[i] / largura));
+		}
+	}
+}
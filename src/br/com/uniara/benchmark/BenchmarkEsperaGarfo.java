@@ -0,0 +1,193 @@
+package br.com.uniara.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.uniara.entidade.Garfo;
+import br.com.uniara.entidade.GarfoMonitor;
+
+/**
+ * Compara o custo de CPU por refeio da espera temporizada do {@link Garfo}
+ * com a antiga espera ativa (busy-spin) que segurava o monitor do garfo.<br/>
+ * <br/>
+ * Cinco threads executam o mesmo algoritmo do filsofo (garfo direito
+ * bloqueante, garfo esquerdo com tempo limite) durante alguns segundos, sem
+ * interface grfica. Ao final  exibido o total de refeies, o tempo de CPU
+ * consumido pelas threads e a razo entre os dois.<br/>
+ * <br/>
+ * Uso: java br.com.uniara.benchmark.BenchmarkEsperaGarfo [segundos]
+ */
+public class BenchmarkEsperaGarfo {
+
+	private static final int QUANTIDADE_FILOSOFOS = 5;
+	private static final long TEMPO_PEGAR_GARFO_SECUNDARIO = 20;
+	private static final long TEMPO_COMENDO = 2;
+	private static final long TEMPO_PENSANDO = 1;
+
+	/**
+	 * Abstrao mnima dos dois garfos comparados.
+	 */
+	private interface Talher {
+		void pega();
+
+		boolean pega(long tempoLimite);
+
+		void solta();
+	}
+
+	/**
+	 * Cpia fiel da implementao anterior do {@link Garfo}, mantida aqui
+	 * apenas para servir de referncia na comparao.
+	 */
+	private static class GarfoEsperaAtiva implements Talher {
+
+		private boolean ocupado = false;
+
+		@Override
+		public synchronized void pega() {
+			while (this.ocupado) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			this.ocupado = true;
+			notifyAll();
+		}
+
+		@Override
+		public synchronized boolean pega(long tempoLimite) {
+			long tempoInicial = System.currentTimeMillis();
+			while (System.currentTimeMillis() - tempoInicial < tempoLimite) {
+				if (!this.ocupado) {
+					this.ocupado = true;
+					notifyAll();
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public synchronized void solta() {
+			this.ocupado = false;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Adaptador do {@link Garfo} atual.
+	 */
+	private static class GarfoAtual implements Talher {
+
+		private final Garfo garfo = new GarfoMonitor(null);
+
+		@Override
+		public void pega() {
+			this.garfo.pegaGarfo();
+		}
+
+		@Override
+		public boolean pega(long tempoLimite) {
+			return this.garfo.pegaGarfo(tempoLimite);
+		}
+
+		@Override
+		public void solta() {
+			this.garfo.soltaGarfo();
+		}
+	}
+
+	/**
+	 * Executa a mesa com os talheres informados e exibe o resultado.
+	 *
+	 * @param descricao
+	 *            {@link String} - Nome da implementao medida.
+	 * @param talheres
+	 *            {@link Talher}[] - Garfos da mesa.
+	 * @param duracao
+	 *            long - Durao da medio em milisegundos.
+	 */
+	private static void executa(String descricao, final Talher[] talheres,
+			long duracao) throws InterruptedException {
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		final AtomicLong refeicoes = new AtomicLong();
+		final AtomicLong tempoCpu = new AtomicLong();
+		final AtomicLong falhas = new AtomicLong();
+		final long prazo = System.currentTimeMillis() + duracao;
+
+		Thread[] threads = new Thread[QUANTIDADE_FILOSOFOS];
+		for (int i = 0; i < threads.length; i++) {
+			final Talher direito = talheres[(i + talheres.length - 1)
+					% talheres.length];
+			final Talher esquerdo = talheres[i];
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						while (System.currentTimeMillis() < prazo) {
+							Thread.sleep(TEMPO_PENSANDO);
+							boolean comeu = false;
+							/*
+							 * O prazo tambm  verificado aqui, pois a espera
+							 * ativa costuma prender a mesa em livelock.
+							 */
+							while (!comeu && System.currentTimeMillis() < prazo) {
+								direito.pega();
+								comeu = esquerdo.pega(TEMPO_PEGAR_GARFO_SECUNDARIO);
+								if (!comeu) {
+									direito.solta();
+									falhas.incrementAndGet();
+								}
+							}
+							if (!comeu) {
+								break;
+							}
+							Thread.sleep(TEMPO_COMENDO);
+							direito.solta();
+							esquerdo.solta();
+							refeicoes.incrementAndGet();
+						}
+					} catch (InterruptedException excecao) {
+						Thread.currentThread().interrupt();
+					}
+					tempoCpu.addAndGet(threadMXBean.getCurrentThreadCpuTime());
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		long cpuMs = tempoCpu.get() / 1000000L;
+		System.out.println(String.format(
+				"%-18s refeies: %6d | falhas: %6d | CPU: %7d ms | "
+						+ "CPU/refeio: %8.3f ms", descricao, refeicoes.get(),
+				falhas.get(), cpuMs,
+				refeicoes.get() == 0 ? Double.NaN : (double) cpuMs
+						/ refeicoes.get()));
+	}
+
+	/**
+	 * Mtodo principal do benchmark.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		long duracao = (args.length > 0 ? Long.parseLong(args[0]) : 5) * 1000L;
+
+		Talher[] esperaAtiva = new Talher[QUANTIDADE_FILOSOFOS];
+		Talher[] atual = new Talher[QUANTIDADE_FILOSOFOS];
+		for (int i = 0; i < QUANTIDADE_FILOSOFOS; i++) {
+			esperaAtiva[i] = new GarfoEsperaAtiva();
+			atual[i] = new GarfoAtual();
+		}
+
+		executa("espera ativa", esperaAtiva, duracao);
+		executa("espera estacionada", atual, duracao);
+	}
+}
@@ -0,0 +1,91 @@
+package br.com.uniara.benchmark;
+
+import br.com.uniara.constante.Distribuicao;
+import br.com.uniara.constante.TipoEstrategia;
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.constante.TipoTempo;
+import br.com.uniara.entidade.ConfiguracaoMesa;
+import br.com.uniara.entidade.EstrategiaAquisicao;
+import br.com.uniara.entidade.Mesa;
+import br.com.uniara.entidade.PerfilTempo;
+import br.com.uniara.registro.HistogramaLatencia;
+
+/**
+ * Compara as estratgias de aquisio dos garfos ( {@link TipoEstrategia} )
+ * na mesma mesa disputada: refeies por segundo, tempo mdio e de cauda
+ * entre ficar faminto e comer, maior fome, falhas de aquisio e ndice de
+ * justia de Jain.<br/>
+ * <br/>
+ * Os filsofos pensam pouco, com tempos exponenciais, para que quase sempre
+ * haja vizinhos famintos disputando os garfos.<br/>
+ * <br/>
+ * Uso: java br.com.uniara.benchmark.BenchmarkEstrategia [segundos]
+ * [filosofos]
+ */
+public class BenchmarkEstrategia {
+
+	/**
+	 * Executa uma mesa com a estratgia informada e exibe o resultado.
+	 *
+	 * @param tipo
+	 *            {@link TipoEstrategia} - Estratgia medida.
+	 * @param quantidade
+	 *            int - Quantidade de filsofos da mesa.
+	 * @param duracao
+	 *            long - Durao da medio em milisegundos.
+	 */
+	private static void executa(TipoEstrategia tipo, int quantidade,
+			long duracao) throws InterruptedException {
+		ConfiguracaoMesa configuracao = new ConfiguracaoMesa(quantidade,
+				TipoGarfo.ATOMICO);
+		configuracao.setTipoEstrategia(tipo);
+		configuracao.setPerfil(TipoTempo.PENSANDO, new PerfilTempo(
+				Distribuicao.EXPONENCIAL, 2, 0));
+		configuracao.setPerfil(TipoTempo.COMENDO, new PerfilTempo(
+				Distribuicao.UNIFORME, 1, 3));
+		configuracao.setPerfil(TipoTempo.GARFO, PerfilTempo.fixo(1));
+		// A vigia no participa da medio.
+		configuracao.setIntervaloVigia(0L);
+
+		Mesa mesa = new Mesa(configuracao);
+
+		long inicio = System.nanoTime();
+		mesa.inicia();
+		long fim;
+		try {
+			Thread.sleep(duracao);
+		} finally {
+			fim = System.nanoTime();
+			mesa.encerra();
+		}
+
+		EstrategiaAquisicao estrategia = mesa.getEstrategia();
+		HistogramaLatencia esperas = mesa.getEsperas();
+		long refeicoes = mesa.getTotalRefeicoes();
+		System.out.println(String.format(
+				"%-13s %10.1f %10.2f %10.2f %10.2f %10d %10.3f %8.4f", tipo,
+				refeicoes / ((fim - inicio) / 1000000000.0),
+				esperas.getMedia() / 1000000.0,
+				esperas.getPercentil(99.0) / 1000000.0,
+				mesa.getMaiorFome(fim) / 1000000.0, estrategia.getFalhas(),
+				refeicoes == 0L ? 0.0 : (double) estrategia.getFalhas()
+						/ refeicoes, mesa.getIndiceJustica()));
+	}
+
+	/**
+	 * Mtodo principal do benchmark.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		long duracao = (args.length > 0 ? Long.parseLong(args[0]) : 5) * 1000L;
+		int quantidade = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		System.out.println(String.format("Mesa: %d filsofos, %d s por estratgia",
+				quantidade, duracao / 1000L));
+		System.out.println(String.format(
+				"%-13s %10s %10s %10s %10s %10s %10s %8s", "Estratgia",
+				"ref/s", "mdia ms", "p99 ms", "fome ms", "falhas",
+				"falha/ref", "Jain"));
+		for (TipoEstrategia tipo : TipoEstrategia.values()) {
+			executa(tipo, quantidade, duracao);
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package br.com.uniara.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import br.com.uniara.constante.ModoExecucao;
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.ConfiguracaoMesa;
+import br.com.uniara.entidade.Mesa;
+import br.com.uniara.entidade.MesaEventos;
+
+/**
+ * Compara as threads de plataforma com as threads virtuais (
+ * {@link ModoExecucao} ) e com a {@link MesaEventos}, que usa um pool fixo de
+ * threads, em mesas grandes: memria ocupada com a mesa em execuo e
+ * refeies por segundo.<br/>
+ * <br/>
+ * A memria  medida como a diferena, antes e depois de iniciar a mesa, do
+ * heap utilizado e da memria residente do processo (VmRSS, apenas no Linux),
+ * que inclui as pilhas das threads de plataforma.<br/>
+ * <br/>
+ * Uso: java br.com.uniara.benchmark.BenchmarkModoExecucao [segundos]
+ * [filosofos...]
+ */
+public class BenchmarkModoExecucao {
+
+	/**
+	 * Executa uma mesa com o modo e a quantidade de filsofos informados e
+	 * exibe o resultado.
+	 *
+	 * @param modo
+	 *            {@link ModoExecucao} - Tipo das threads medido.
+	 * @param quantidade
+	 *            int - Quantidade de filsofos da mesa.
+	 * @param duracao
+	 *            long - Durao da medio em milisegundos.
+	 */
+	private static void executa(ModoExecucao modo, int quantidade, long duracao)
+			throws InterruptedException {
+		ConfiguracaoMesa configuracao = new ConfiguracaoMesa(quantidade,
+				TipoGarfo.ATOMICO);
+		configuracao.setModoExecucao(modo);
+		// A vigia no participa da medio.
+		configuracao.setIntervaloVigia(0L);
+		Mesa mesa = new Mesa(configuracao);
+
+		long heapAntes = heapUtilizado();
+		long residenteAntes = memoriaResidente();
+		long inicio = System.nanoTime();
+		try {
+			mesa.inicia();
+		} catch (OutOfMemoryError erro) {
+			mesa.encerra();
+			System.out.println(String.format("%-10s filsofos: %7d | falhou: %s",
+					modo, quantidade, erro.getMessage()));
+			return;
+		}
+		long tempoInicio = System.nanoTime() - inicio;
+
+		long refeicoesAntes = mesa.getTotalRefeicoes();
+		Thread.sleep(duracao);
+		long refeicoes = mesa.getTotalRefeicoes() - refeicoesAntes;
+		long heap = heapUtilizado() - heapAntes;
+		long residente = memoriaResidente() - residenteAntes;
+		mesa.encerra();
+
+		System.out.println(String.format(
+				"%-10s filsofos: %7d | incio: %7d ms | heap: %8d KiB | "
+						+ "residente: %8s KiB | refeies/s: %10.1f", modo,
+				quantidade, tempoInicio / 1000000L, heap / 1024L,
+				residente < 0 ? "-" : String.valueOf(residente / 1024L),
+				refeicoes * 1000.0 / duracao));
+	}
+
+	/**
+	 * Executa uma {@link MesaEventos} com a quantidade de filsofos informada
+	 * e exibe o resultado.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de filsofos da mesa.
+	 * @param duracao
+	 *            long - Durao da medio em milisegundos.
+	 */
+	private static void executaEventos(int quantidade, long duracao)
+			throws InterruptedException {
+		MesaEventos mesa = new MesaEventos(new ConfiguracaoMesa(quantidade,
+				TipoGarfo.ATOMICO));
+
+		long heapAntes = heapUtilizado();
+		long residenteAntes = memoriaResidente();
+		long inicio = System.nanoTime();
+		mesa.inicia();
+		long tempoInicio = System.nanoTime() - inicio;
+
+		long refeicoesAntes = mesa.getTotalRefeicoes();
+		Thread.sleep(duracao);
+		long refeicoes = mesa.getTotalRefeicoes() - refeicoesAntes;
+		long heap = heapUtilizado() - heapAntes;
+		long residente = memoriaResidente() - residenteAntes;
+		mesa.encerra();
+
+		System.out.println(String.format(
+				"%-10s filsofos: %7d | incio: %7d ms | heap: %8d KiB | "
+						+ "residente: %8s KiB | refeies/s: %10.1f | "
+						+ "threads: %d", "EVENTOS", quantidade,
+				tempoInicio / 1000000L, heap / 1024L, residente < 0 ? "-"
+						: String.valueOf(residente / 1024L), refeicoes
+						* 1000.0 / duracao, mesa.getQuantidadeThreads()));
+	}
+
+	/**
+	 * Retorna o heap utilizado aps uma coleta de lixo.
+	 *
+	 * @return long - Bytes utilizados do heap.
+	 */
+	private static long heapUtilizado() {
+		MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+		memoria.gc();
+		return memoria.getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * L a memria residente do processo em /proc/self/status.
+	 *
+	 * @return long - Bytes residentes, ou -1 caso a informao no exista.
+	 */
+	private static long memoriaResidente() {
+		BufferedReader leitor = null;
+		try {
+			leitor = new BufferedReader(new FileReader("/proc/self/status"));
+			String linha;
+			while ((linha = leitor.readLine()) != null) {
+				if (linha.startsWith("VmRSS:")) {
+					String[] partes = linha.trim().split("\\s+");
+					return Long.parseLong(partes[1]) * 1024L;
+				}
+			}
+		} catch (IOException excecao) {
+			// Sistema sem /proc, a memria residente no  exibida.
+		} finally {
+			if (leitor != null) {
+				try {
+					leitor.close();
+				} catch (IOException excecao) {
+					// Nada a fazer.
+				}
+			}
+		}
+		return -1L;
+	}
+
+	/**
+	 * Mtodo principal do benchmark.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		long duracao = (args.length > 0 ? Long.parseLong(args[0]) : 10) * 1000L;
+		int[] quantidades = { 1000, 10000, 100000 };
+		if (args.length > 1) {
+			quantidades = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				quantidades[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+
+		for (int quantidade : quantidades) {
+			for (ModoExecucao modo : ModoExecucao.values()) {
+				if (modo.isSuportado()) {
+					executa(modo, quantidade, duracao);
+				} else {
+					System.out.println(String.format(
+							"%-10s no suportado pela verso %s do Java.", modo,
+							System.getProperty("java.version")));
+				}
+			}
+			executaEventos(quantidade, duracao);
+		}
+	}
+}
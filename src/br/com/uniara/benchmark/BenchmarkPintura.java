@@ -0,0 +1,156 @@
+package br.com.uniara.benchmark;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+
+import javax.swing.ImageIcon;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.ui.componente.JFilosofo;
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Mede o tempo e a memria alocada por pintura dos componentes
+ * {@link JFilosofo} e {@link JGarfo}, comparando a forma anterior (leitura do
+ * classpath e decodificao do PNG a cada pintura) com o cache de imagens
+ * atual.<br/>
+ * <br/>
+ * A pintura  feita em uma imagem fora da tela, portanto o benchmark pode ser
+ * executado com -Djava.awt.headless=true. As imagens precisam estar no
+ * classpath.<br/>
+ * <br/>
+ * Uso: java br.com.uniara.benchmark.BenchmarkPintura [pinturas]
+ */
+public class BenchmarkPintura {
+
+	/**
+	 * Uma forma de pintar os componentes.
+	 */
+	private interface Pintor {
+		void pinta(Graphics grafico, int iteracao);
+	}
+
+	/**
+	 * Reproduz o paintComponent anterior do {@link JFilosofo}.
+	 */
+	private static void pintaFilosofoAnterior(Graphics grafico,
+			String caminho, String nome, String estado) {
+		URL caminhoImagem = BenchmarkPintura.class.getClassLoader()
+				.getResource(caminho);
+		grafico.clearRect(0, 0, 75, 100);
+		ImageIcon icon = new ImageIcon(caminhoImagem);
+		grafico.drawImage(icon.getImage(), 0, 0, 70, 50, null);
+		grafico.drawChars(nome.toCharArray(), 0, nome.length(), 5, 70);
+		grafico.drawChars(estado.toCharArray(), 0, estado.length(),
+				estado.equals("FAMINTO") ? 10 : 3, 85);
+	}
+
+	/**
+	 * Reproduz o paintComponent anterior do {@link JGarfo}.
+	 */
+	private static void pintaGarfoAnterior(Graphics grafico, String caminho) {
+		URL res = BenchmarkPintura.class.getClassLoader().getResource(caminho);
+		grafico.clearRect(0, 0, 70, 60);
+		ImageIcon icon = new ImageIcon(res);
+		grafico.drawImage(icon.getImage(), 15, 20, 50, 31, null);
+	}
+
+	/**
+	 * Executa a quantidade de pinturas informada e exibe o tempo e a memria
+	 * alocada por pintura.
+	 */
+	private static void mede(String descricao, Pintor pintor, int pinturas) {
+		BufferedImage destino = new BufferedImage(75, 100,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D grafico = destino.createGraphics();
+		try {
+			// Aquecimento, para que a medio no inclua o carregamento.
+			for (int i = 0; i < pinturas / 10 + 1; i++) {
+				pintor.pinta(grafico, i);
+			}
+			long alocadoAntes = bytesAlocados();
+			long inicio = System.nanoTime();
+			for (int i = 0; i < pinturas; i++) {
+				pintor.pinta(grafico, i);
+			}
+			long tempo = System.nanoTime() - inicio;
+			long alocado = bytesAlocados() - alocadoAntes;
+			System.out.println(String.format(
+					"%-20s %10.1f s/pintura | %10d bytes/pintura", descricao,
+					tempo / 1000.0 / pinturas, alocado < 0 ? -1L : alocado
+							/ pinturas));
+		} finally {
+			grafico.dispose();
+		}
+	}
+
+	/**
+	 * Retorna a memria alocada pela thread atual, quando a JVM disponibiliza
+	 * essa informao.
+	 *
+	 * @return long - Bytes alocados, ou -1 caso no seja suportado.
+	 */
+	private static long bytesAlocados() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadMXBean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1L;
+	}
+
+	/**
+	 * Mtodo principal do benchmark.
+	 */
+	public static void main(String[] args) {
+		int pinturas = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		final Estado[] estados = Estado.values();
+		final String[] caminhos = { "imagens/filosofo-pensando.png",
+				"imagens/filosofo-comendo.png",
+				"imagens/filosofo-faminto.png",
+				"imagens/filosofo-faminto-garfo.png" };
+
+		final JFilosofo jFilosofo = new JFilosofo(Estado.PENSANDO,
+				"  Scrates ");
+		jFilosofo.setSize(75, 100);
+		final JGarfo jGarfo = new JGarfo();
+		jGarfo.setSize(70, 60);
+
+		mede("filsofo anterior", new Pintor() {
+			@Override
+			public void pinta(Graphics grafico, int iteracao) {
+				Estado estado = estados[iteracao % estados.length];
+				pintaFilosofoAnterior(grafico, caminhos[estado.ordinal()],
+						"  Scrates ", estado.toString());
+			}
+		}, pinturas);
+		mede("filsofo com cache", new Pintor() {
+			@Override
+			public void pinta(Graphics grafico, int iteracao) {
+				jFilosofo.setEstado(estados[iteracao % estados.length]);
+				jFilosofo.atualizaQuadro();
+				jFilosofo.paint(grafico);
+			}
+		}, pinturas);
+		mede("garfo anterior", new Pintor() {
+			@Override
+			public void pinta(Graphics grafico, int iteracao) {
+				pintaGarfoAnterior(grafico,
+						iteracao % 2 == 0 ? "imagens/prato.png"
+								: "imagens/prato-garfo.png");
+			}
+		}, pinturas);
+		mede("garfo com cache", new Pintor() {
+			@Override
+			public void pinta(Graphics grafico, int iteracao) {
+				jGarfo.setOcupado(iteracao % 2 == 0);
+				jGarfo.atualizaQuadro();
+				jGarfo.paint(grafico);
+			}
+		}, pinturas);
+	}
+}
@@ -0,0 +1,161 @@
+package br.com.uniara.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoEvento;
+import br.com.uniara.entidade.Filosofo;
+import br.com.uniara.registro.RegistroEventos;
+
+/**
+ * Mede o tempo e a memria alocada por alterao de estado de um
+ * {@link Filosofo}, comparando a formatao anterior (String.format a cada
+ * alterao) com o {@link RegistroEventos}, com e sem quem leia o
+ * buffer.<br/>
+ * <br/>
+ * Sem consumidor, ou com um consumidor que no monta texto, a alterao de
+ * estado no deve alocar nada.<br/>
+ * <br/>
+ * Uso: java br.com.uniara.benchmark.BenchmarkRegistroEventos [alteracoes]
+ */
+public class BenchmarkRegistroEventos {
+
+	private static final int CAPACIDADE = 1024;
+	private static final Estado[] ESTADOS = Estado.values();
+
+	/**
+	 * Uma forma de registrar as alteraes de estado.
+	 */
+	private interface Cenario {
+		void altera(int iteracao);
+	}
+
+	/**
+	 * Consumidor que apenas conta os eventos, sem montar texto.
+	 */
+	private static class Contador implements RegistroEventos.Consumidor {
+		private long eventos = 0L;
+
+		@Override
+		public void consome(TipoEvento tipo, int filosofo, Estado estado,
+				long instante) {
+			this.eventos++;
+		}
+	}
+
+	/**
+	 * Consumidor que monta o texto do log em um {@link StringBuilder}
+	 * reaproveitado, como faz a interface.
+	 */
+	private static class Formatador implements RegistroEventos.Consumidor {
+		private final StringBuilder texto = new StringBuilder(64 * CAPACIDADE);
+
+		@Override
+		public void consome(TipoEvento tipo, int filosofo, Estado estado,
+				long instante) {
+			tipo.exibeEvento("Scrates", estado, this.texto);
+		}
+	}
+
+	/**
+	 * Executa a quantidade de alteraes informada e exibe o tempo e a memria
+	 * alocada por alterao.
+	 */
+	private static void mede(String descricao, Cenario cenario, int alteracoes) {
+		for (int i = 0; i < alteracoes / 10 + 1; i++) {
+			cenario.altera(i);
+		}
+		long alocadoAntes = bytesAlocados();
+		long inicio = System.nanoTime();
+		for (int i = 0; i < alteracoes; i++) {
+			cenario.altera(i);
+		}
+		long tempo = System.nanoTime() - inicio;
+		long alocado = bytesAlocados() - alocadoAntes;
+		System.out.println(String.format(
+				"%-28s %8.1f ns/alterao | %8.2f bytes/alterao", descricao,
+				(double) tempo / alteracoes, alocadoAntes < 0 ? -1.0
+						: (double) alocado / alteracoes));
+	}
+
+	/**
+	 * Retorna a memria alocada pela thread atual, quando a JVM disponibiliza
+	 * essa informao.
+	 *
+	 * @return long - Bytes alocados, ou -1 caso no seja suportado.
+	 */
+	private static long bytesAlocados() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadMXBean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1L;
+	}
+
+	/**
+	 * Mtodo principal do benchmark.
+	 */
+	public static void main(String[] args) {
+		int alteracoes = args.length > 0 ? Integer.parseInt(args[0]) : 5000000;
+
+		final StringBuilder descarte = new StringBuilder();
+		mede("String.format anterior", new Cenario() {
+			@Override
+			public void altera(int iteracao) {
+				descarte.setLength(0);
+				descarte.append(String.format("    %s est %s. \n",
+						" Scrates ".trim(), ESTADOS[iteracao & 3]));
+			}
+		}, alteracoes);
+
+		final Filosofo semRegistro = new Filosofo(0, "Scrates", null, null,
+				null, null);
+		mede("sem registro", new Cenario() {
+			@Override
+			public void altera(int iteracao) {
+				semRegistro.alteraEstado(ESTADOS[iteracao & 3]);
+			}
+		}, alteracoes);
+
+		final Filosofo semConsumidor = new Filosofo(0, "Scrates", null, null,
+				null, new RegistroEventos(CAPACIDADE));
+		mede("registro sem consumidor", new Cenario() {
+			@Override
+			public void altera(int iteracao) {
+				semConsumidor.alteraEstado(ESTADOS[iteracao & 3]);
+			}
+		}, alteracoes);
+
+		final RegistroEventos registroContado = new RegistroEventos(CAPACIDADE);
+		final Filosofo contado = new Filosofo(0, "Scrates", null, null, null,
+				registroContado);
+		final Contador contador = new Contador();
+		mede("registro lido sem texto", new Cenario() {
+			@Override
+			public void altera(int iteracao) {
+				contado.alteraEstado(ESTADOS[iteracao & 3]);
+				if ((iteracao & (CAPACIDADE - 1)) == 0) {
+					registroContado.consome(contador, CAPACIDADE);
+				}
+			}
+		}, alteracoes);
+
+		final RegistroEventos registroFormatado = new RegistroEventos(
+				CAPACIDADE);
+		final Filosofo formatado = new Filosofo(0, "Scrates", null, null,
+				null, registroFormatado);
+		final Formatador formatador = new Formatador();
+		mede("registro lido com texto", new Cenario() {
+			@Override
+			public void altera(int iteracao) {
+				formatado.alteraEstado(ESTADOS[iteracao & 3]);
+				if ((iteracao & (CAPACIDADE - 1)) == 0) {
+					formatador.texto.setLength(0);
+					registroFormatado.consome(formatador, CAPACIDADE);
+				}
+			}
+		}, alteracoes);
+	}
+}
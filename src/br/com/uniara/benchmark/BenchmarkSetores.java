@@ -0,0 +1,124 @@
+package br.com.uniara.benchmark;
+
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.ConfiguracaoMesa;
+import br.com.uniara.entidade.MesaEventos;
+import br.com.uniara.entidade.MesaSetorizada;
+
+/**
+ * Mede como a {@link MesaSetorizada} escala com a quantidade de setores (uma
+ * thread por setor) em uma mesa grande: refeies por segundo, ganho em
+ * relao a um nico setor e a frao das tentativas de pegar garfo que
+ * precisaram de sincronizao entre threads. A {@link MesaEventos} com o
+ * mesmo nmero de threads serve de comparao, j que nela qualquer thread
+ * avana qualquer filsofo.<br/>
+ * <br/>
+ * Os tempos de pensar e comer so zero e o segundo garfo no  aguardado,
+ * portanto o resultado mede apenas o custo da sincronizao. Por padro so
+ * medidos 1, 2, 4, ... setores at a quantidade de ncleos.<br/>
+ * <br/>
+ * Uso: java br.com.uniara.benchmark.BenchmarkSetores [segundos] [filosofos]
+ * [setores...]
+ */
+public class BenchmarkSetores {
+
+	/**
+	 * Cria a configurao da mesa medida.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de filsofos.
+	 * @return {@link ConfiguracaoMesa} - Mesa sem pausas, com garfos
+	 *         tabelados nas fronteiras.
+	 */
+	private static ConfiguracaoMesa configuracao(int quantidade) {
+		ConfiguracaoMesa configuracao = new ConfiguracaoMesa(quantidade,
+				TipoGarfo.TABELADO);
+		configuracao.setTempoPensando(0L);
+		configuracao.setTempoComendo(0L);
+		configuracao.setTempoPegarGarfoSecundario(0L);
+		return configuracao;
+	}
+
+	/**
+	 * Executa a mesa setorizada e exibe o resultado.
+	 *
+	 * @return double - Refeies por segundo.
+	 */
+	private static double executa(int quantidade, int setores, long duracao,
+			double referencia) throws InterruptedException {
+		MesaSetorizada mesa = new MesaSetorizada(configuracao(quantidade),
+				setores);
+		mesa.inicia();
+		Thread.sleep(duracao / 5);
+		long antes = mesa.getTotalRefeicoes();
+		Thread.sleep(duracao);
+		long refeicoes = mesa.getTotalRefeicoes() - antes;
+		mesa.encerra();
+
+		double vazao = refeicoes * 1000.0 / duracao;
+		long locais = mesa.getOperacoesLocais();
+		long fronteira = mesa.getOperacoesFronteira();
+		System.out.println(String.format(
+				"%-10s filsofos: %7d | setores: %3d | refeies/s: %12.1f | "
+						+ "ganho: %5.2f | tentativas na fronteira: %6.3f%%",
+				"SETORES", quantidade, setores, vazao, referencia <= 0.0 ? 1.0
+						: vazao / referencia, 100.0 * fronteira
+						/ Math.max(1L, locais + fronteira)));
+		return vazao;
+	}
+
+	/**
+	 * Executa a mesa por eventos com a mesma quantidade de threads e exibe o
+	 * resultado.
+	 */
+	private static void executaEventos(int quantidade, int threads,
+			long duracao) throws InterruptedException {
+		MesaEventos mesa = new MesaEventos(configuracao(quantidade), threads);
+		mesa.inicia();
+		Thread.sleep(duracao / 5);
+		long antes = mesa.getTotalRefeicoes();
+		Thread.sleep(duracao);
+		long refeicoes = mesa.getTotalRefeicoes() - antes;
+		mesa.encerra();
+
+		System.out.println(String.format(
+				"%-10s filsofos: %7d | threads: %3d | refeies/s: %12.1f",
+				"EVENTOS", quantidade, threads, refeicoes * 1000.0 / duracao));
+	}
+
+	/**
+	 * Mtodo principal do benchmark.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		long duracao = (args.length > 0 ? Long.parseLong(args[0]) : 5) * 1000L;
+		int quantidade = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+		int[] setores;
+		if (args.length > 2) {
+			setores = new int[args.length - 2];
+			for (int i = 2; i < args.length; i++) {
+				setores[i - 2] = Integer.parseInt(args[i]);
+			}
+		} else {
+			// Potncias de dois menores que a quantidade de ncleos e ela.
+			int nucleos = Runtime.getRuntime().availableProcessors();
+			int medidas = 1;
+			while ((1 << medidas) < nucleos) {
+				medidas++;
+			}
+			setores = new int[nucleos == 1 ? 1 : medidas + 1];
+			for (int i = 0; i < setores.length; i++) {
+				setores[i] = Math.min(1 << i, nucleos);
+			}
+		}
+
+		double referencia = 0.0;
+		for (int quantidadeSetores : setores) {
+			double vazao = executa(quantidade, quantidadeSetores, duracao,
+					referencia);
+			if (referencia <= 0.0) {
+				referencia = vazao;
+			}
+			executaEventos(quantidade, quantidadeSetores, duracao);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package br.com.uniara.benchmark;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.Garfo;
+
+/**
+ * Compara as implementaes de {@link Garfo} disponveis em {@link TipoGarfo}
+ * em mesas grandes: refeies por segundo e latncia mdia de aquisio de
+ * cada garfo, alm dos contadores de despertares, despertares esprios e
+ * entregas diretas de cada implementao.<br/>
+ * <br/>
+ * Os tempos de pensar e comer so zero, portanto o resultado mede apenas o
+ * custo da sincronizao.<br/>
+ * <br/>
+ * Uso: java br.com.uniara.benchmark.BenchmarkTipoGarfo [segundos]
+ * [filosofos...]
+ */
+public class BenchmarkTipoGarfo {
+
+	private static final long TEMPO_PEGAR_GARFO_SECUNDARIO = 1;
+
+	/**
+	 * Executa uma mesa com o tipo de garfo e a quantidade de filsofos
+	 * informados e exibe o resultado.
+	 *
+	 * @param tipoGarfo
+	 *            {@link TipoGarfo} - Implementao medida.
+	 * @param quantidade
+	 *            int - Quantidade de filsofos (e de garfos) da mesa.
+	 * @param duracao
+	 *            long - Durao da medio em milisegundos.
+	 */
+	private static void executa(TipoGarfo tipoGarfo, int quantidade,
+			long duracao) throws InterruptedException {
+		final Garfo[] garfos = tipoGarfo.criaGarfos(quantidade, null);
+		final LongAdder refeicoes = new LongAdder();
+		final LongAdder aquisicoes = new LongAdder();
+		final LongAdder tempoAquisicao = new LongAdder();
+		final long prazo = System.currentTimeMillis() + duracao;
+
+		Thread[] threads = new Thread[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			final Garfo direito = garfos[(i + quantidade - 1) % quantidade];
+			final Garfo esquerdo = garfos[i];
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (System.currentTimeMillis() < prazo) {
+						long inicio = System.nanoTime();
+						direito.pegaGarfo();
+						long meio = System.nanoTime();
+						boolean pegou = esquerdo
+								.pegaGarfo(TEMPO_PEGAR_GARFO_SECUNDARIO);
+						long fim = System.nanoTime();
+						if (pegou) {
+							aquisicoes.add(2);
+							tempoAquisicao.add(fim - inicio);
+							refeicoes.increment();
+							esquerdo.soltaGarfo();
+						} else {
+							// A espera que falhou no  contada na latncia.
+							aquisicoes.add(1);
+							tempoAquisicao.add(meio - inicio);
+						}
+						direito.soltaGarfo();
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		long despertares = 0L;
+		long espurios = 0L;
+		long entregas = 0L;
+		for (Garfo garfo : garfos) {
+			despertares += garfo.getDespertares();
+			espurios += garfo.getDespertaresEspurios();
+			entregas += garfo.getEntregas();
+		}
+
+		System.out.println(String.format(
+				"%-8s filsofos: %6d | refeies/s: %12.1f | "
+						+ "aquisio mdia: %10.1f ns | despertares: %10d | "
+						+ "esprios: %10d | entregas: %10d", tipoGarfo,
+				quantidade, refeicoes.sum() * 1000.0 / duracao,
+				aquisicoes.sum() == 0 ? 0.0 : (double) tempoAquisicao.sum()
+						/ aquisicoes.sum(), despertares, espurios, entregas));
+	}
+
+	/**
+	 * Mtodo principal do benchmark.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		long duracao = (args.length > 0 ? Long.parseLong(args[0]) : 5) * 1000L;
+		int[] quantidades = { 5, 100, 1000 };
+		if (args.length > 1) {
+			quantidades = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				quantidades[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+
+		for (int quantidade : quantidades) {
+			for (TipoGarfo tipoGarfo : TipoGarfo.values()) {
+				executa(tipoGarfo, quantidade, duracao);
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package br.com.uniara.constante;
+
+import java.util.Random;
+
+/**
+ * Esse enum foi criado para representar as distribuies de probabilidade
+ * usadas no sorteio dos tempos de um filsofo (pensando, comendo e tempo
+ * limite do segundo garfo).
+ */
+public enum Distribuicao {
+
+	/**
+	 * Sempre o mesmo valor: o primeiro parmetro.
+	 */
+	FIXA {
+		@Override
+		public double sorteia(double primeiro, double segundo, Random aleatorio) {
+			return primeiro;
+		}
+	},
+	/**
+	 * Valor uniforme entre o primeiro (mnimo) e o segundo (mximo)
+	 * parmetro.
+	 */
+	UNIFORME {
+		@Override
+		public double sorteia(double primeiro, double segundo, Random aleatorio) {
+			return primeiro + (segundo - primeiro) * aleatorio.nextDouble();
+		}
+	},
+	/**
+	 * Valor exponencial com mdia igual ao primeiro parmetro, limitado ao
+	 * segundo quando ele for positivo. Gera rajadas: muitos tempos curtos e
+	 * alguns bem longos.
+	 */
+	EXPONENCIAL {
+		@Override
+		public double sorteia(double primeiro, double segundo, Random aleatorio) {
+			double valor = -primeiro * Math.log(1.0 - aleatorio.nextDouble());
+			return segundo > 0.0 ? Math.min(valor, segundo) : valor;
+		}
+	};
+
+	/**
+	 * Sorteia um valor da distribuio.
+	 *
+	 * @param primeiro
+	 *            double - Valor fixo, mnimo ou mdia, conforme a distribuio.
+	 * @param segundo
+	 *            double - Mximo (UNIFORME) ou limite (EXPONENCIAL).
+	 * @param aleatorio
+	 *            {@link Random} - Gerador usado no sorteio.
+	 * @return double - Valor sorteado.
+	 */
+	public abstract double sorteia(double primeiro, double segundo,
+			Random aleatorio);
+}
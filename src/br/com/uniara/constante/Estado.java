@@ -1,7 +1,5 @@
 package br.com.uniara.constante;
 
-import javax.swing.JTextArea;
-
 import br.com.uniara.entidade.Filosofo;
 
 /**
@@ -27,17 +25,18 @@ public enum Estado {
 	}
 
 	/**
-	 * Registra uma mensagem utilizando os dois parmetros.
+	 * Registra uma mensagem utilizando os dois parmetros. A mensagem 
+	 * montada diretamente no {@link StringBuilder}, sem String.format.
 	 * 
 	 * @param nomeFilosofo
 	 *            {@link String} - Nome da thread que representa um Filosofo,
 	 *            esse parmetro ser usado na mensagem.
-	 * @param txtLog
-	 *            {@link JTextArea} - Componente em que a mensagem ser escrita.
+	 * @param log
+	 *            {@link StringBuilder} - Texto em que a mensagem ser escrita.
 	 */
-	public void exibeEstado(String nomeFilosofo, JTextArea txtLog) {
-		txtLog.append(String.format("    %s est %s. \n", nomeFilosofo,
-				this.estado));
+	public void exibeEstado(String nomeFilosofo, StringBuilder log) {
+		log.append("    ").append(nomeFilosofo).append(" est ")
+				.append(this.estado).append(". \n");
 	}
 
 	/**
@@ -0,0 +1,114 @@
+package br.com.uniara.constante;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import br.com.uniara.entidade.Filosofo;
+import br.com.uniara.entidade.Garfo;
+import br.com.uniara.entidade.GarfoMonitor;
+
+/**
+ * Esse enum foi criado para representar os tipos de thread que podem executar
+ * os filsofos ( {@link Filosofo} ).<br/>
+ * <br/>
+ * As threads virtuais s existem a partir do Java 21, por isso so criadas
+ * por reflexo: o sistema continua compilando e executando em verses
+ * anteriores, onde o modo VIRTUAL no  suportado.<br/>
+ * <br/>
+ * Nenhuma espera do filsofo acontece dentro de um monitor, portanto nenhuma
+ * delas prende a thread portadora: as implementaes de {@link Garfo} usam
+ * LockSupport.park fora do bloco synchronized (o {@link GarfoMonitor} s
+ * entra no monitor para trechos curtos, sem espera), e as estratgias de
+ * aquisio ( {@link TipoEstrategia} ) esperam com LockSupport.park,
+ * {@link java.util.concurrent.locks.ReentrantLock} e
+ * {@link java.util.concurrent.Semaphore}, nunca com Object.wait().
+ */
+public enum ModoExecucao {
+
+	/**
+	 * Uma thread de plataforma (do sistema operacional) por filsofo.
+	 */
+	PLATAFORMA {
+		@Override
+		public boolean isSuportado() {
+			return true;
+		}
+
+		@Override
+		public Thread criaThread(Runnable tarefa, String nome) {
+			return new Thread(tarefa, nome);
+		}
+	},
+	/**
+	 * Uma thread virtual por filsofo.
+	 */
+	VIRTUAL {
+		@Override
+		public boolean isSuportado() {
+			return OF_VIRTUAL != null;
+		}
+
+		@Override
+		public Thread criaThread(Runnable tarefa, String nome) {
+			if (OF_VIRTUAL == null) {
+				throw new UnsupportedOperationException(
+						"Threads virtuais exigem Java 21 ou superior, verso atual: "
+								+ System.getProperty("java.version"));
+			}
+			try {
+				// Thread.ofVirtual().name(nome).unstarted(tarefa)
+				Object construtor = OF_VIRTUAL.invoke(null);
+				construtor = NAME.invoke(construtor, nome);
+				return (Thread) UNSTARTED.invoke(construtor, tarefa);
+			} catch (InvocationTargetException excecao) {
+				throw new IllegalStateException(excecao.getCause());
+			} catch (IllegalAccessException excecao) {
+				throw new IllegalStateException(excecao);
+			}
+		}
+	};
+
+	/**
+	 * Mtodos Thread.ofVirtual(), Thread.Builder.name(String) e
+	 * Thread.Builder.unstarted(Runnable), nulos caso a verso do Java no
+	 * tenha threads virtuais.
+	 */
+	private static final Method OF_VIRTUAL;
+	private static final Method NAME;
+	private static final Method UNSTARTED;
+
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method unstarted = null;
+		try {
+			Class<?> construtor = Class.forName("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = construtor.getMethod("name", String.class);
+			unstarted = construtor.getMethod("unstarted", Runnable.class);
+		} catch (ReflectiveOperationException excecao) {
+			ofVirtual = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		UNSTARTED = unstarted;
+	}
+
+	/**
+	 * Indica se o modo pode ser usado na verso atual do Java.
+	 *
+	 * @return boolean - "true" caso o modo seja suportado.
+	 */
+	public abstract boolean isSuportado();
+
+	/**
+	 * Cria uma thread, ainda no iniciada, do tipo em questo.
+	 *
+	 * @param tarefa
+	 *            {@link Runnable} - Cdigo executado pela thread.
+	 * @param nome
+	 *            {@link String} - Nome da thread.
+	 * @return {@link Thread} - A thread criada.
+	 */
+	public abstract Thread criaThread(Runnable tarefa, String nome);
+}
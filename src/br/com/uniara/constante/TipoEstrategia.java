@@ -0,0 +1,89 @@
+package br.com.uniara.constante;
+
+import br.com.uniara.entidade.EstrategiaAquisicao;
+import br.com.uniara.entidade.EstrategiaArbitro;
+import br.com.uniara.entidade.EstrategiaBackoff;
+import br.com.uniara.entidade.EstrategiaChandyMisra;
+import br.com.uniara.entidade.EstrategiaGarcom;
+import br.com.uniara.entidade.EstrategiaOrdenacao;
+import br.com.uniara.entidade.EstrategiaParAtomico;
+
+/**
+ * Esse enum foi criado para representar as estratgias disponveis para que
+ * os filsofos obtenham os garfos sem deadlock ( {@link EstrategiaAquisicao}
+ * ), permitindo escolher uma delas na montagem da mesa.
+ */
+public enum TipoEstrategia {
+
+	/**
+	 * Pega o garfo direito e tenta o esquerdo com tempo limite, soltando o
+	 * direito quando no consegue ( {@link EstrategiaBackoff} ).  o
+	 * comportamento original do sistema.
+	 */
+	BACKOFF {
+		@Override
+		public EstrategiaAquisicao criaEstrategia(int quantidade) {
+			return new EstrategiaBackoff();
+		}
+	},
+	/**
+	 * Pega sempre o garfo de menor ndice primeiro ( {@link EstrategiaOrdenacao}
+	 * ).
+	 */
+	ORDENACAO {
+		@Override
+		public EstrategiaAquisicao criaEstrategia(int quantidade) {
+			return new EstrategiaOrdenacao(quantidade);
+		}
+	},
+	/**
+	 * Garfos limpos e sujos de Chandy e Misra ( {@link EstrategiaChandyMisra}
+	 * ).
+	 */
+	CHANDY_MISRA {
+		@Override
+		public EstrategiaAquisicao criaEstrategia(int quantidade) {
+			return new EstrategiaChandyMisra(quantidade);
+		}
+	},
+	/**
+	 * Garom que deixa no mximo N - 1 filsofos disputarem os garfos (
+	 * {@link EstrategiaGarcom} ).
+	 */
+	GARCOM {
+		@Override
+		public EstrategiaAquisicao criaEstrategia(int quantidade) {
+			return new EstrategiaGarcom(quantidade);
+		}
+	},
+	/**
+	 * rbitro central que concede os dois garfos de uma s vez (
+	 * {@link EstrategiaArbitro} ).
+	 */
+	ARBITRO {
+		@Override
+		public EstrategiaAquisicao criaEstrategia(int quantidade) {
+			return new EstrategiaArbitro(quantidade);
+		}
+	},
+	/**
+	 * Pega os dois garfos de uma s vez ou nenhum, sem rbitro, dormindo at
+	 * que um vizinho solte algum garfo ( {@link EstrategiaParAtomico} ).
+	 */
+	PAR_ATOMICO {
+		@Override
+		public EstrategiaAquisicao criaEstrategia(int quantidade) {
+			return new EstrategiaParAtomico(quantidade);
+		}
+	};
+
+	/**
+	 * Cria uma nova estratgia do tipo em questo, compartilhada por todos os
+	 * filsofos de uma mesa.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 * @return {@link EstrategiaAquisicao} - A estratgia criada.
+	 */
+	public abstract EstrategiaAquisicao criaEstrategia(int quantidade);
+}
@@ -0,0 +1,50 @@
+package br.com.uniara.constante;
+
+import br.com.uniara.entidade.Filosofo;
+
+/**
+ * Esse enum foi criado para representar os eventos de um {@link Filosofo}
+ * exibidos no log.
+ */
+public enum TipoEvento {
+
+	NOVA_ITERACAO(" - Nova iterao disparada! \n"),
+	ALTERACAO_ESTADO(null),
+	DEADLOCK_EVITADO(" evitou um deadlock soltando seu garfo! \n"),
+	DEADLOCK_DETECTADO(" est em um ciclo de espera (deadlock)! \n"),
+	LIVELOCK_DETECTADO(" tenta pegar os garfos sem conseguir comer (livelock)! \n");
+
+	private String mensagem;
+
+	/**
+	 * Construtor do enum {@link TipoEvento}.
+	 *
+	 * @param mensagem
+	 *            {@link String} - Texto exibido aps o nome do filsofo. Nulo
+	 *            para as alteraes de estado, cuja mensagem  montada pelo
+	 *            prprio {@link Estado}.
+	 */
+	private TipoEvento(String mensagem) {
+		this.mensagem = mensagem;
+	}
+
+	/**
+	 * Registra a mensagem do evento.
+	 *
+	 * @param nomeFilosofo
+	 *            {@link String} - Nome do filsofo que gerou o evento.
+	 * @param estado
+	 *            {@link Estado} - Novo estado, usado apenas em
+	 *            ALTERACAO_ESTADO.
+	 * @param log
+	 *            {@link StringBuilder} - Destino da mensagem.
+	 */
+	public void exibeEvento(String nomeFilosofo, Estado estado,
+			StringBuilder log) {
+		if (this.mensagem == null) {
+			estado.exibeEstado(nomeFilosofo, log);
+		} else {
+			log.append(' ').append(nomeFilosofo).append(this.mensagem);
+		}
+	}
+}
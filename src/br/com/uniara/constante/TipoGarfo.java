@@ -0,0 +1,83 @@
+package br.com.uniara.constante;
+
+import br.com.uniara.entidade.Garfo;
+import br.com.uniara.entidade.GarfoAtomico;
+import br.com.uniara.entidade.GarfoMonitor;
+import br.com.uniara.entidade.GarfoTabelado;
+import br.com.uniara.entidade.TabelaGarfos;
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Esse enum foi criado para representar as implementaes disponveis de
+ * {@link Garfo}, permitindo escolher uma delas na montagem da mesa.
+ */
+public enum TipoGarfo {
+
+	/**
+	 * Garfo sincronizado pelo monitor do objeto ( {@link GarfoMonitor} ).
+	 */
+	MONITOR {
+		@Override
+		public Garfo criaGarfo(JGarfo jGarfo) {
+			return new GarfoMonitor(jGarfo);
+		}
+	},
+	/**
+	 * Garfo sem monitor, baseado em CAS ( {@link GarfoAtomico} ).
+	 */
+	ATOMICO {
+		@Override
+		public Garfo criaGarfo(JGarfo jGarfo) {
+			return new GarfoAtomico(jGarfo);
+		}
+	},
+	/**
+	 * Garfo baseado em CAS com o estado em uma {@link TabelaGarfos} espaada,
+	 * uma faixa de cache por garfo ( {@link GarfoTabelado} ).
+	 */
+	TABELADO {
+		@Override
+		public Garfo criaGarfo(JGarfo jGarfo) {
+			return new GarfoTabelado(new TabelaGarfos(1), 0, jGarfo);
+		}
+
+		@Override
+		public Garfo[] criaGarfos(int quantidade, JGarfo[] jGarfos) {
+			TabelaGarfos tabela = new TabelaGarfos(quantidade);
+			Garfo[] garfos = new Garfo[quantidade];
+			for (int i = 0; i < quantidade; i++) {
+				garfos[i] = new GarfoTabelado(tabela, i, jGarfos == null ? null
+						: jGarfos[i]);
+			}
+			return garfos;
+		}
+	};
+
+	/**
+	 * Cria um novo {@link Garfo} do tipo em questo.
+	 *
+	 * @param jGarfo
+	 *            {@link JGarfo} - Componente com a imagem, pode ser nulo.
+	 * @return {@link Garfo} - O recurso criado.
+	 */
+	public abstract Garfo criaGarfo(JGarfo jGarfo);
+
+	/**
+	 * Cria todos os garfos de uma mesa. Por padro cada garfo  criado por
+	 * {@link #criaGarfo(JGarfo)}; tipos que guardam o estado em uma estrutura
+	 * da mesa inteira a criam aqui.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de garfos.
+	 * @param jGarfos
+	 *            {@link JGarfo}[] - Componentes dos garfos, pode ser nulo.
+	 * @return {@link Garfo}[] - Os garfos, na ordem da mesa.
+	 */
+	public Garfo[] criaGarfos(int quantidade, JGarfo[] jGarfos) {
+		Garfo[] garfos = new Garfo[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			garfos[i] = criaGarfo(jGarfos == null ? null : jGarfos[i]);
+		}
+		return garfos;
+	}
+}
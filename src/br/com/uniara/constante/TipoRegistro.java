@@ -0,0 +1,48 @@
+package br.com.uniara.constante;
+
+import br.com.uniara.registro.DiarioEventos;
+
+/**
+ * Esse enum foi criado para representar os tipos de registro gravados no
+ * {@link DiarioEventos}. O cdigo gravado no arquivo  o ordinal mais um, o
+ * zero indica uma posio ainda no escrita.
+ */
+public enum TipoRegistro {
+
+	/**
+	 * Alterao de estado de um filsofo; o valor  o ordinal do
+	 * {@link Estado}.
+	 */
+	ESTADO,
+	/**
+	 * Um filsofo pegou um garfo; o valor  o ndice do garfo.
+	 */
+	GARFO_PEGO,
+	/**
+	 * Um filsofo vai soltar um garfo; o valor  o ndice do garfo.
+	 */
+	GARFO_SOLTO;
+
+	private static final TipoRegistro[] TIPOS = values();
+
+	/**
+	 * Retorna o cdigo gravado no arquivo.
+	 *
+	 * @return int - Cdigo do tipo, a partir de 1.
+	 */
+	public int getCodigo() {
+		return ordinal() + 1;
+	}
+
+	/**
+	 * Retorna o tipo do cdigo gravado no arquivo.
+	 *
+	 * @param codigo
+	 *            int - Cdigo lido.
+	 * @return {@link TipoRegistro} - O tipo, ou nulo caso o cdigo seja zero
+	 *         (posio no escrita) ou desconhecido.
+	 */
+	public static TipoRegistro doCodigo(int codigo) {
+		return codigo < 1 || codigo > TIPOS.length ? null : TIPOS[codigo - 1];
+	}
+}
@@ -0,0 +1,49 @@
+package br.com.uniara.constante;
+
+import br.com.uniara.entidade.Filosofo;
+
+/**
+ * Esse enum foi criado para representar os tempos do ciclo de um
+ * {@link Filosofo} que podem ser configurados, e as chaves com que so lidos
+ * das propriedades da mesa.
+ */
+public enum TipoTempo {
+
+	PENSANDO("pensando"), COMENDO("comendo"), GARFO("garfo");
+
+	private String sufixo;
+
+	/**
+	 * Construtor do enum {@link TipoTempo}.
+	 *
+	 * @param sufixo
+	 *            {@link String} - Final das chaves de propriedade do tempo.
+	 */
+	private TipoTempo(String sufixo) {
+		this.sufixo = sufixo;
+	}
+
+	/**
+	 * Retorna a chave do tempo para toda a mesa, por exemplo
+	 * "mesa.tempo.pensando".
+	 *
+	 * @return {@link String} - Chave de propriedade.
+	 */
+	public String getChave() {
+		return "mesa.tempo." + this.sufixo;
+	}
+
+	/**
+	 * Retorna a chave do tempo para um nico filsofo, por exemplo
+	 * "mesa.filosofo.1.tempo.pensando" para o primeiro filsofo.
+	 *
+	 * @param indiceFilosofo
+	 *            int - Posio do filsofo na mesa, a partir de zero.
+	 * @return {@link String} - Chave de propriedade, numerada a partir de um
+	 *         como os nomes dos filsofos.
+	 */
+	public String getChave(int indiceFilosofo) {
+		return "mesa.filosofo." + (indiceFilosofo + 1) + ".tempo."
+				+ this.sufixo;
+	}
+}
@@ -0,0 +1,515 @@
+package br.com.uniara.entidade;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import br.com.uniara.constante.ModoExecucao;
+import br.com.uniara.constante.TipoEstrategia;
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.constante.TipoTempo;
+
+/**
+ * Essa classe rene os parmetros usados na montagem de uma {@link Mesa}.<br/>
+ * <br/>
+ * Os valores podem ser atribudos diretamente ou carregados de um
+ * {@link Properties} com as chaves abaixo:<br/>
+ * mesa.filosofos - Quantidade de filsofos (e de garfos), padro 5.<br/>
+ * mesa.garfo - Nome de um {@link TipoGarfo}, padro MONITOR.<br/>
+ * mesa.execucao - Nome de um {@link ModoExecucao}, padro PLATAFORMA.<br/>
+ * mesa.estrategia - Nome de uma {@link TipoEstrategia}, padro BACKOFF.<br/>
+ * mesa.tempo.pensando - {@link PerfilTempo} pensando, padro 750.<br/>
+ * mesa.tempo.comendo - {@link PerfilTempo} comendo, padro 250.<br/>
+ * mesa.tempo.garfo - {@link PerfilTempo} do tempo limite para pegar o
+ * segundo garfo, padro 500.<br/>
+ * mesa.filosofo.N.tempo.pensando (comendo, garfo) - Perfil de um nico
+ * filsofo, numerado a partir de 1; os demais usam o perfil da mesa.<br/>
+ * mesa.vigia.intervalo - Intervalo em milisegundos entre as verificaes da
+ * {@link VigiaMesa}, padro 100; zero desativa a vigia.<br/>
+ * mesa.vigia.janela - Janela em milisegundos da deteco de livelock, padro
+ * 5000.<br/>
+ * mesa.lote.maximo - Mximo de refeies seguidas de um filsofo sem soltar
+ * os garfos ( {@link LoteAdaptativo} ), padro 1 (sem lotes).<br/>
+ * mesa.lote.espera - Maior espera em milisegundos de um vizinho faminto
+ * tolerada durante um lote, padro 20.<br/>
+ * mesa.recuo.maximo - Maior limite em milisegundos do recuo exponencial da
+ * estratgia BACKOFF ( {@link RecuoAdaptativo} ), padro 0: sem recuo, com o
+ * tempo limite de mesa.tempo.garfo e a nova tentativa imediata.<br/>
+ * mesa.recuo.minimo - Menor limite em milisegundos do recuo, padro 1.<br/>
+ * <br/>
+ * Por exemplo, "mesa.tempo.pensando=EXPONENCIAL:750" faz os filsofos pensarem
+ * em rajadas, sem a necessidade de recompilar o sistema.
+ */
+public class ConfiguracaoMesa {
+
+	public static final String CHAVE_FILOSOFOS = "mesa.filosofos";
+	public static final String CHAVE_GARFO = "mesa.garfo";
+	public static final String CHAVE_EXECUCAO = "mesa.execucao";
+	public static final String CHAVE_ESTRATEGIA = "mesa.estrategia";
+	public static final String CHAVE_VIGIA_INTERVALO = "mesa.vigia.intervalo";
+	public static final String CHAVE_VIGIA_JANELA = "mesa.vigia.janela";
+	public static final String CHAVE_LOTE_MAXIMO = "mesa.lote.maximo";
+	public static final String CHAVE_LOTE_ESPERA = "mesa.lote.espera";
+	public static final String CHAVE_RECUO_MINIMO = "mesa.recuo.minimo";
+	public static final String CHAVE_RECUO_MAXIMO = "mesa.recuo.maximo";
+
+	private int quantidadeFilosofos = 5;
+	private TipoGarfo tipoGarfo = TipoGarfo.MONITOR;
+	private ModoExecucao modoExecucao = ModoExecucao.PLATAFORMA;
+	private TipoEstrategia tipoEstrategia = TipoEstrategia.BACKOFF;
+	private long intervaloVigia = 100L;
+	private long janelaVigia = 5000L;
+	private int loteMaximo = 1;
+	private long esperaLote = 20L;
+	private long recuoMinimo = 1L;
+	private long recuoMaximo = 0L;
+	private final Map<TipoTempo, PerfilTempo> perfis = new EnumMap<TipoTempo, PerfilTempo>(
+			TipoTempo.class);
+	/**
+	 * Perfis de filsofos especficos, por ndice do filsofo.
+	 */
+	private final Map<Integer, Map<TipoTempo, PerfilTempo>> perfisFilosofos = new HashMap<Integer, Map<TipoTempo, PerfilTempo>>();
+
+	/**
+	 * Construtor padro, com cinco filsofos, garfos do tipo
+	 * {@link TipoGarfo#MONITOR}, threads de plataforma e os tempos fixos das
+	 * constantes do {@link Filosofo}.
+	 */
+	public ConfiguracaoMesa() {
+		this.perfis.put(TipoTempo.PENSANDO,
+				PerfilTempo.fixo(Filosofo.TEMPO_PENSANDO));
+		this.perfis.put(TipoTempo.COMENDO,
+				PerfilTempo.fixo(Filosofo.TEMPO_COMENDO));
+		this.perfis.put(TipoTempo.GARFO,
+				PerfilTempo.fixo(Filosofo.TEMPO_PEGAR_GARFO_SECUNDARIO));
+	}
+
+	/**
+	 * Construtor que recebe os parmetros da mesa.
+	 *
+	 * @param quantidadeFilosofos
+	 *            int - Quantidade de filsofos (e de garfos) da mesa.
+	 * @param tipoGarfo
+	 *            {@link TipoGarfo} - Implementao dos garfos.
+	 */
+	public ConfiguracaoMesa(int quantidadeFilosofos, TipoGarfo tipoGarfo) {
+		this();
+		this.setQuantidadeFilosofos(quantidadeFilosofos);
+		this.setTipoGarfo(tipoGarfo);
+	}
+
+	/**
+	 * Cria uma configurao a partir das propriedades informadas. As chaves
+	 * ausentes mantm o valor padro.
+	 *
+	 * @param propriedades
+	 *            {@link Properties} - Propriedades com as chaves da mesa.
+	 * @return {@link ConfiguracaoMesa} - A configurao carregada.
+	 */
+	public static ConfiguracaoMesa carrega(Properties propriedades) {
+		ConfiguracaoMesa configuracao = new ConfiguracaoMesa();
+		String valor = propriedades.getProperty(CHAVE_FILOSOFOS);
+		if (valor != null) {
+			configuracao.setQuantidadeFilosofos(Integer.parseInt(valor.trim()));
+		}
+		valor = propriedades.getProperty(CHAVE_GARFO);
+		if (valor != null) {
+			configuracao.setTipoGarfo(TipoGarfo.valueOf(valor.trim()
+					.toUpperCase()));
+		}
+		valor = propriedades.getProperty(CHAVE_EXECUCAO);
+		if (valor != null) {
+			configuracao.setModoExecucao(ModoExecucao.valueOf(valor.trim()
+					.toUpperCase()));
+		}
+		valor = propriedades.getProperty(CHAVE_ESTRATEGIA);
+		if (valor != null) {
+			configuracao.setTipoEstrategia(TipoEstrategia.valueOf(valor.trim()
+					.toUpperCase()));
+		}
+		valor = propriedades.getProperty(CHAVE_VIGIA_INTERVALO);
+		if (valor != null) {
+			configuracao.setIntervaloVigia(Long.parseLong(valor.trim()));
+		}
+		valor = propriedades.getProperty(CHAVE_VIGIA_JANELA);
+		if (valor != null) {
+			configuracao.setJanelaVigia(Long.parseLong(valor.trim()));
+		}
+		valor = propriedades.getProperty(CHAVE_LOTE_MAXIMO);
+		if (valor != null) {
+			configuracao.setLoteMaximo(Integer.parseInt(valor.trim()));
+		}
+		valor = propriedades.getProperty(CHAVE_LOTE_ESPERA);
+		if (valor != null) {
+			configuracao.setEsperaLote(Long.parseLong(valor.trim()));
+		}
+		valor = propriedades.getProperty(CHAVE_RECUO_MINIMO);
+		if (valor != null) {
+			configuracao.setRecuoMinimo(Long.parseLong(valor.trim()));
+		}
+		valor = propriedades.getProperty(CHAVE_RECUO_MAXIMO);
+		if (valor != null) {
+			configuracao.setRecuoMaximo(Long.parseLong(valor.trim()));
+		}
+		for (TipoTempo tipo : TipoTempo.values()) {
+			valor = propriedades.getProperty(tipo.getChave());
+			if (valor != null) {
+				configuracao.setPerfil(tipo, PerfilTempo.interpreta(valor));
+			}
+			for (int i = 0; i < configuracao.getQuantidadeFilosofos(); i++) {
+				valor = propriedades.getProperty(tipo.getChave(i));
+				if (valor != null) {
+					configuracao.setPerfil(tipo, i,
+							PerfilTempo.interpreta(valor));
+				}
+			}
+		}
+		return configuracao;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de filsofos.
+	 *
+	 * @return int - Quantidade de filsofos (e de garfos) da mesa.
+	 */
+	public int getQuantidadeFilosofos() {
+		return quantidadeFilosofos;
+	}
+
+	/**
+	 * Mtodo acessor que modifica a quantidade de filsofos.
+	 *
+	 * @param quantidadeFilosofos
+	 *            int - Quantidade de filsofos, no mnimo dois, j que com um
+	 *            nico garfo o filsofo nunca conseguiria comer.
+	 */
+	public void setQuantidadeFilosofos(int quantidadeFilosofos) {
+		if (quantidadeFilosofos < 2) {
+			throw new IllegalArgumentException(
+					"A mesa precisa de pelo menos dois filsofos: "
+							+ quantidadeFilosofos);
+		}
+		this.quantidadeFilosofos = quantidadeFilosofos;
+	}
+
+	/**
+	 * Mtodo acessor do tipo de garfo.
+	 *
+	 * @return {@link TipoGarfo} - Implementao dos garfos.
+	 */
+	public TipoGarfo getTipoGarfo() {
+		return tipoGarfo;
+	}
+
+	/**
+	 * Mtodo acessor que modifica o tipo de garfo.
+	 *
+	 * @param tipoGarfo
+	 *            {@link TipoGarfo} - Implementao dos garfos.
+	 */
+	public void setTipoGarfo(TipoGarfo tipoGarfo) {
+		if (tipoGarfo == null) {
+			throw new IllegalArgumentException("O tipo de garfo  obrigatrio.");
+		}
+		this.tipoGarfo = tipoGarfo;
+	}
+
+	/**
+	 * Mtodo acessor do modo de execuo.
+	 *
+	 * @return {@link ModoExecucao} - Tipo das threads dos filsofos.
+	 */
+	public ModoExecucao getModoExecucao() {
+		return modoExecucao;
+	}
+
+	/**
+	 * Mtodo acessor que modifica o modo de execuo.
+	 *
+	 * @param modoExecucao
+	 *            {@link ModoExecucao} - Tipo das threads dos filsofos.
+	 */
+	public void setModoExecucao(ModoExecucao modoExecucao) {
+		if (modoExecucao == null) {
+			throw new IllegalArgumentException(
+					"O modo de execuo  obrigatrio.");
+		}
+		this.modoExecucao = modoExecucao;
+	}
+
+	/**
+	 * Mtodo acessor da estratgia de aquisio dos garfos.
+	 *
+	 * @return {@link TipoEstrategia} - Estratgia usada pelos filsofos.
+	 */
+	public TipoEstrategia getTipoEstrategia() {
+		return tipoEstrategia;
+	}
+
+	/**
+	 * Mtodo acessor que modifica a estratgia de aquisio dos garfos.
+	 *
+	 * @param tipoEstrategia
+	 *            {@link TipoEstrategia} - Estratgia usada pelos filsofos.
+	 */
+	public void setTipoEstrategia(TipoEstrategia tipoEstrategia) {
+		if (tipoEstrategia == null) {
+			throw new IllegalArgumentException(
+					"A estratgia de aquisio  obrigatria.");
+		}
+		this.tipoEstrategia = tipoEstrategia;
+	}
+
+	/**
+	 * Mtodo acessor do intervalo entre as verificaes da vigia.
+	 *
+	 * @return long - Intervalo em milisegundos, zero quando a vigia est
+	 *         desativada.
+	 */
+	public long getIntervaloVigia() {
+		return intervaloVigia;
+	}
+
+	/**
+	 * Mtodo acessor que modifica o intervalo entre as verificaes da vigia.
+	 *
+	 * @param intervaloVigia
+	 *            long - Intervalo em milisegundos, zero para desativar a
+	 *            vigia.
+	 */
+	public void setIntervaloVigia(long intervaloVigia) {
+		if (intervaloVigia < 0L) {
+			throw new IllegalArgumentException(
+					"Intervalo da vigia invlido: " + intervaloVigia);
+		}
+		this.intervaloVigia = intervaloVigia;
+	}
+
+	/**
+	 * Mtodo acessor da janela da deteco de livelock.
+	 *
+	 * @return long - Janela em milisegundos.
+	 */
+	public long getJanelaVigia() {
+		return janelaVigia;
+	}
+
+	/**
+	 * Mtodo acessor que modifica a janela da deteco de livelock.
+	 *
+	 * @param janelaVigia
+	 *            long - Janela em milisegundos, maior que zero.
+	 */
+	public void setJanelaVigia(long janelaVigia) {
+		if (janelaVigia < 1L) {
+			throw new IllegalArgumentException("Janela da vigia invlida: "
+					+ janelaVigia);
+		}
+		this.janelaVigia = janelaVigia;
+	}
+
+	/**
+	 * Mtodo acessor do tamanho mximo dos lotes de refeies.
+	 *
+	 * @return int - Refeies seguidas sem soltar os garfos, 1 quando os
+	 *         lotes esto desativados.
+	 */
+	public int getLoteMaximo() {
+		return loteMaximo;
+	}
+
+	/**
+	 * Mtodo acessor que modifica o tamanho mximo dos lotes de refeies.
+	 *
+	 * @param loteMaximo
+	 *            int - Refeies seguidas sem soltar os garfos, 1 para
+	 *            desativar os lotes.
+	 */
+	public void setLoteMaximo(int loteMaximo) {
+		if (loteMaximo < 1) {
+			throw new IllegalArgumentException("Lote mximo invlido: "
+					+ loteMaximo);
+		}
+		this.loteMaximo = loteMaximo;
+	}
+
+	/**
+	 * Mtodo acessor da maior espera de um vizinho tolerada em um lote.
+	 *
+	 * @return long - Espera em milisegundos.
+	 */
+	public long getEsperaLote() {
+		return esperaLote;
+	}
+
+	/**
+	 * Mtodo acessor que modifica a maior espera de um vizinho tolerada em um
+	 * lote.
+	 *
+	 * @param esperaLote
+	 *            long - Espera em milisegundos; zero encerra o lote assim que
+	 *            um vizinho fica faminto.
+	 */
+	public void setEsperaLote(long esperaLote) {
+		if (esperaLote < 0L) {
+			throw new IllegalArgumentException("Espera do lote invlida: "
+					+ esperaLote);
+		}
+		this.esperaLote = esperaLote;
+	}
+
+	/**
+	 * Mtodo acessor do menor limite do recuo exponencial.
+	 *
+	 * @return long - Limite em milisegundos.
+	 */
+	public long getRecuoMinimo() {
+		return recuoMinimo;
+	}
+
+	/**
+	 * Mtodo acessor que modifica o menor limite do recuo exponencial.
+	 *
+	 * @param recuoMinimo
+	 *            long - Limite em milisegundos, no mnimo 1.
+	 */
+	public void setRecuoMinimo(long recuoMinimo) {
+		if (recuoMinimo < 1L) {
+			throw new IllegalArgumentException("Recuo mnimo invlido: "
+					+ recuoMinimo);
+		}
+		this.recuoMinimo = recuoMinimo;
+	}
+
+	/**
+	 * Mtodo acessor do maior limite do recuo exponencial.
+	 *
+	 * @return long - Limite em milisegundos, zero quando o recuo est
+	 *         desativado.
+	 */
+	public long getRecuoMaximo() {
+		return recuoMaximo;
+	}
+
+	/**
+	 * Mtodo acessor que modifica o maior limite do recuo exponencial. Com o
+	 * recuo ativo, o perfil de tempo do garfo ( {@link TipoTempo#GARFO} ) no
+	 *  usado pela estratgia BACKOFF.
+	 *
+	 * @param recuoMaximo
+	 *            long - Limite em milisegundos, zero para desativar o recuo.
+	 *            Um valor abaixo do recuo mnimo equivale a ele.
+	 */
+	public void setRecuoMaximo(long recuoMaximo) {
+		if (recuoMaximo < 0L) {
+			throw new IllegalArgumentException("Recuo mximo invlido: "
+					+ recuoMaximo);
+		}
+		this.recuoMaximo = recuoMaximo;
+	}
+
+	/**
+	 * Mtodo acessor do perfil de tempo da mesa.
+	 *
+	 * @param tipo
+	 *            {@link TipoTempo} - Tempo desejado.
+	 * @return {@link PerfilTempo} - Perfil usado pelos filsofos sem perfil
+	 *         prprio.
+	 */
+	public PerfilTempo getPerfil(TipoTempo tipo) {
+		return this.perfis.get(tipo);
+	}
+
+	/**
+	 * Mtodo acessor que modifica o perfil de tempo de toda a mesa.
+	 *
+	 * @param tipo
+	 *            {@link TipoTempo} - Tempo modificado.
+	 * @param perfil
+	 *            {@link PerfilTempo} - Novo perfil.
+	 */
+	public void setPerfil(TipoTempo tipo, PerfilTempo perfil) {
+		if (tipo == null || perfil == null) {
+			throw new IllegalArgumentException(
+					"O tipo de tempo e o perfil so obrigatrios.");
+		}
+		this.perfis.put(tipo, perfil);
+	}
+
+	/**
+	 * Retorna o perfil de tempo de um filsofo: o seu perfil prprio, quando
+	 * existir, ou o da mesa.
+	 *
+	 * @param tipo
+	 *            {@link TipoTempo} - Tempo desejado.
+	 * @param indiceFilosofo
+	 *            int - Posio do filsofo na mesa.
+	 * @return {@link PerfilTempo} - Perfil usado pelo filsofo.
+	 */
+	public PerfilTempo getPerfil(TipoTempo tipo, int indiceFilosofo) {
+		Map<TipoTempo, PerfilTempo> proprios = this.perfisFilosofos
+				.get(indiceFilosofo);
+		if (proprios != null && proprios.containsKey(tipo)) {
+			return proprios.get(tipo);
+		}
+		return this.getPerfil(tipo);
+	}
+
+	/**
+	 * Mtodo acessor que modifica o perfil de tempo de um nico filsofo.
+	 *
+	 * @param tipo
+	 *            {@link TipoTempo} - Tempo modificado.
+	 * @param indiceFilosofo
+	 *            int - Posio do filsofo na mesa.
+	 * @param perfil
+	 *            {@link PerfilTempo} - Novo perfil.
+	 */
+	public void setPerfil(TipoTempo tipo, int indiceFilosofo,
+			PerfilTempo perfil) {
+		if (tipo == null || perfil == null || indiceFilosofo < 0) {
+			throw new IllegalArgumentException(String.format(
+					"Perfil invlido para o filsofo %d.", indiceFilosofo));
+		}
+		Map<TipoTempo, PerfilTempo> proprios = this.perfisFilosofos
+				.get(indiceFilosofo);
+		if (proprios == null) {
+			proprios = new EnumMap<TipoTempo, PerfilTempo>(TipoTempo.class);
+			this.perfisFilosofos.put(indiceFilosofo, proprios);
+		}
+		proprios.put(tipo, perfil);
+	}
+
+	/**
+	 * Define um tempo fixo para cada filsofo passar pensando.
+	 *
+	 * @param tempoPensando
+	 *            long - Tempo em milisegundos, zero para no pensar.
+	 */
+	public void setTempoPensando(long tempoPensando) {
+		this.setPerfil(TipoTempo.PENSANDO, PerfilTempo.fixo(tempoPensando));
+	}
+
+	/**
+	 * Define um tempo fixo para cada filsofo passar comendo.
+	 *
+	 * @param tempoComendo
+	 *            long - Tempo em milisegundos, zero para comer e soltar os
+	 *            garfos imediatamente.
+	 */
+	public void setTempoComendo(long tempoComendo) {
+		this.setPerfil(TipoTempo.COMENDO, PerfilTempo.fixo(tempoComendo));
+	}
+
+	/**
+	 * Define um tempo limite fixo para pegar o segundo garfo.
+	 *
+	 * @param tempoPegarGarfoSecundario
+	 *            long - Tempo em milisegundos, zero para uma nica tentativa.
+	 */
+	public void setTempoPegarGarfoSecundario(long tempoPegarGarfoSecundario) {
+		this.setPerfil(TipoTempo.GARFO,
+				PerfilTempo.fixo(tempoPegarGarfoSecundario));
+	}
+}
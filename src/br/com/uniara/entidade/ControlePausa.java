@@ -0,0 +1,262 @@
+package br.com.uniara.entidade;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Controle de pausa cooperativa dos filsofos de uma {@link Mesa}.<br/>
+ * <br/>
+ * Diferente de Thread.suspend(), que congela a thread em qualquer ponto
+ * (inclusive segurando um {@link Garfo}), aqui cada filsofo s para em
+ * pontos seguros, em que no segura nenhum garfo: enquanto pensa e aps
+ * soltar o garfo em uma tentativa frustrada. Quem est comendo termina a
+ * refeio, solta os garfos e ento para.<br/>
+ * <br/>
+ * A latncia da pausa  o tempo entre a chamada de pausa() e o momento em
+ * que o ltimo filsofo parou. Em retoma() todos so liberados juntos: uma
+ * nica escrita no indicador de pausa seguida do unpark de cada thread.<br/>
+ * <br/>
+ * O caminho comum (mesa no pausada)  apenas a leitura de um campo volatile,
+ * sem locks, e funciona com threads virtuais sem prender a thread portadora.
+ */
+public class ControlePausa {
+
+	private final int participantes;
+
+	private volatile boolean pausado = false;
+	private volatile Thread[] threads = new Thread[0];
+
+	/**
+	 * Quantidade de filsofos parados em um ponto seguro.
+	 */
+	private final AtomicInteger parados = new AtomicInteger();
+	/**
+	 * Instante, em System.nanoTime(), da ltima chamada de pausa().
+	 */
+	private volatile long inicioPausa;
+	/**
+	 * Latncia da ltima pausa em nanossegundos, -1 enquanto no concluda.
+	 */
+	private final AtomicLong latencia = new AtomicLong(-1L);
+	/**
+	 * Thread aguardando em aguardaPausa(), acordada quando a pausa conclui.
+	 */
+	private volatile Thread aguardando;
+
+	/**
+	 * Construtor do controle.
+	 *
+	 * @param participantes
+	 *            int - Quantidade de filsofos que precisam parar para que a
+	 *            pausa seja considerada concluda.
+	 */
+	public ControlePausa(int participantes) {
+		if (participantes < 1) {
+			throw new IllegalArgumentException("Quantidade invlida: "
+					+ participantes);
+		}
+		this.participantes = participantes;
+	}
+
+	/**
+	 * Informa as threads dos filsofos, acordadas na pausa (para que parem
+	 * sem terminar de pensar) e na retomada.
+	 *
+	 * @param threads
+	 *            {@link List}<{@link Thread}> - Threads dos filsofos.
+	 */
+	void defineThreads(List<Thread> threads) {
+		this.threads = threads.toArray(new Thread[threads.size()]);
+	}
+
+	/**
+	 * Mtodo acessor que indica se a pausa foi solicitada.
+	 *
+	 * @return boolean - "true" entre pausa() e retoma().
+	 */
+	public boolean isPausado() {
+		return pausado;
+	}
+
+	/**
+	 * Retorna quantos filsofos esto parados neste momento.
+	 *
+	 * @return int - Filsofos parados em um ponto seguro.
+	 */
+	public int getParados() {
+		return this.parados.get();
+	}
+
+	/**
+	 * Retorna a latncia da ltima pausa.
+	 *
+	 * @return long - Nanossegundos at o ltimo filsofo parar, ou -1 caso a
+	 *         pausa ainda no tenha sido concluda.
+	 */
+	public long getLatenciaPausa() {
+		return this.latencia.get();
+	}
+
+	/**
+	 * Solicita que os filsofos parem no prximo ponto seguro. No bloqueia;
+	 * use aguardaPausa() para esperar que todos parem.
+	 */
+	public synchronized void pausa() {
+		if (this.pausado) {
+			return;
+		}
+		this.latencia.set(-1L);
+		this.inicioPausa = System.nanoTime();
+		this.pausado = true;
+		// Quem est pensando  acordado para parar sem terminar de pensar.
+		for (Thread thread : this.threads) {
+			LockSupport.unpark(thread);
+		}
+		verificaConclusao();
+	}
+
+	/**
+	 * Libera todos os filsofos parados ao mesmo tempo.
+	 */
+	public synchronized void retoma() {
+		if (!this.pausado) {
+			return;
+		}
+		this.pausado = false;
+		for (Thread thread : this.threads) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Aguarda at que todos os filsofos estejam parados.
+	 *
+	 * @param tempoLimite
+	 *            long - Tempo mximo de espera.
+	 * @param unidade
+	 *            {@link TimeUnit} - Unidade do tempo limite.
+	 * @return long - Latncia da pausa em nanossegundos, ou -1 caso o tempo
+	 *         limite tenha acabado antes (ou a mesa no esteja pausada).
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida enquanto aguarda.
+	 */
+	public long aguardaPausa(long tempoLimite, TimeUnit unidade)
+			throws InterruptedException {
+		long prazo = System.nanoTime() + unidade.toNanos(tempoLimite);
+		this.aguardando = Thread.currentThread();
+		try {
+			while (this.pausado && this.latencia.get() < 0L) {
+				long restante = prazo - System.nanoTime();
+				if (restante <= 0L) {
+					break;
+				}
+				LockSupport.parkNanos(this, restante);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		} finally {
+			this.aguardando = null;
+		}
+		return this.pausado ? this.latencia.get() : -1L;
+	}
+
+	/**
+	 * Ponto seguro: caso a pausa tenha sido solicitada, o filsofo para aqui
+	 * at a retomada. S deve ser chamado por um filsofo que no segura
+	 * nenhum garfo.
+	 *
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida enquanto parada.
+	 */
+	public void pontoSeguro() throws InterruptedException {
+		if (this.pausado) {
+			aguardaRetomada();
+		}
+	}
+
+	/**
+	 * Substitui Thread.sleep() nos trechos em que o filsofo no segura
+	 * garfos. Caso a pausa seja solicitada durante a espera, o filsofo para
+	 * imediatamente e, ao ser retomado, cumpre o tempo que faltava.
+	 *
+	 * @param milissegundos
+	 *            long - Tempo de espera.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida.
+	 */
+	public void dorme(long milissegundos) throws InterruptedException {
+		dorme(milissegundos, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Variao de dorme(long) com a unidade de tempo informada.
+	 *
+	 * @param tempo
+	 *            long - Tempo de espera.
+	 * @param unidade
+	 *            {@link TimeUnit} - Unidade do tempo de espera.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida.
+	 */
+	public void dorme(long tempo, TimeUnit unidade) throws InterruptedException {
+		long prazo = System.nanoTime() + unidade.toNanos(tempo);
+		while (true) {
+			if (this.pausado) {
+				// O tempo parado no conta como tempo pensando.
+				prazo += aguardaRetomada();
+			}
+			long restante = prazo - System.nanoTime();
+			if (restante <= 0L) {
+				return;
+			}
+			LockSupport.parkNanos(this, restante);
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+	}
+
+	/**
+	 * Para a thread atual at a retomada.
+	 *
+	 * @return long - Tempo parado, em nanossegundos.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida enquanto parada.
+	 */
+	private long aguardaRetomada() throws InterruptedException {
+		long inicio = System.nanoTime();
+		this.parados.incrementAndGet();
+		try {
+			verificaConclusao();
+			while (this.pausado) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		} finally {
+			this.parados.decrementAndGet();
+		}
+		return System.nanoTime() - inicio;
+	}
+
+	/**
+	 * Registra a latncia e acorda quem aguarda a pausa quando todos os
+	 * filsofos esto parados. Pode ser chamado por mais de uma thread; s a
+	 * primeira registra a latncia.
+	 */
+	private void verificaConclusao() {
+		if (this.pausado && this.parados.get() >= this.participantes
+				&& this.latencia.compareAndSet(-1L, System.nanoTime()
+						- this.inicioPausa)) {
+			Thread thread = this.aguardando;
+			if (thread != null) {
+				LockSupport.unpark(thread);
+			}
+		}
+	}
+}
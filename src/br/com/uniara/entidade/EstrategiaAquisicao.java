@@ -0,0 +1,233 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoEstrategia;
+
+/**
+ * Essa classe representa a forma como um {@link Filosofo} faminto obtm os
+ * seus dois garfos sem que a mesa entre em deadlock.<br/>
+ * <br/>
+ * A estratgia  escolhida na montagem da mesa atravs do enum
+ * {@link TipoEstrategia} e  compartilhada por todos os filsofos da mesa,
+ * portanto as implementaes precisam ser seguras para vrias threads.<br/>
+ * <br/>
+ * Uma falha de aquisio  uma tentativa que termina sem os dois garfos: o
+ * filsofo solta o que tinha (ou tem o pedido negado) e tenta novamente.
+ */
+public abstract class EstrategiaAquisicao {
+
+	private final LongAdder falhas = new LongAdder();
+
+	/**
+	 * Obtm os dois garfos do filsofo, aguardando o tempo que for
+	 * necessrio. O filsofo chama este mtodo no estado FAMINTO_SEM_GARFOS;
+	 * as estratgias podem alterar o estado durante a espera.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo faminto.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida. Nesse caso nenhum garfo
+	 *             permanece com o filsofo.
+	 */
+	public abstract void pegaGarfos(Filosofo filosofo)
+			throws InterruptedException;
+
+	/**
+	 * Solta os dois garfos do filsofo, aps a refeio.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo que terminou de comer.
+	 */
+	public abstract void soltaGarfos(Filosofo filosofo);
+
+	/**
+	 * Mtodo acessor do contador de falhas de aquisio.
+	 *
+	 * @return long - Tentativas encerradas sem os dois garfos.
+	 */
+	public long getFalhas() {
+		return this.falhas.sum();
+	}
+
+	/**
+	 * Contabiliza uma tentativa encerrada sem os dois garfos, na mesa e no
+	 * filsofo.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo que falhou, que chama este mtodo
+	 *            na sua prpria thread.
+	 */
+	protected void registraFalha(Filosofo filosofo) {
+		this.falhas.increment();
+		filosofo.registraFalha();
+	}
+
+	/**
+	 * Retorna o ndice, na mesa, do garfo da "mo" direita do filsofo. O
+	 * garfo da "mo" esquerda tem o mesmo ndice do filsofo.
+	 *
+	 * @param indiceFilosofo
+	 *            int - Posio do filsofo na mesa.
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 * @return int - ndice do garfo anterior ao filsofo no anel.
+	 */
+	protected static int indiceGarfoDireito(int indiceFilosofo, int quantidade) {
+		return (indiceFilosofo + quantidade - 1) % quantidade;
+	}
+
+	/**
+	 * Pega os dois garfos na ordem informada, aguardando cada um o tempo que
+	 * for necessrio. Caso a thread tenha sido interrompida durante a espera,
+	 * os garfos so soltos e a interrupo  lanada.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo faminto.
+	 * @param primeiro
+	 *            {@link Garfo} - Garfo pego primeiro.
+	 * @param segundo
+	 *            {@link Garfo} - Garfo pego em seguida.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida.
+	 */
+	protected static void pegaEmOrdem(Filosofo filosofo, Garfo primeiro,
+			Garfo segundo) throws InterruptedException {
+		pega(filosofo, primeiro);
+		if (Thread.interrupted()) {
+			solta(filosofo, primeiro);
+			throw new InterruptedException();
+		}
+		filosofo.alteraEstado(Estado.FAMINTO_COM_GARFO);
+		pega(filosofo, segundo);
+		if (Thread.interrupted()) {
+			solta(filosofo, segundo);
+			solta(filosofo, primeiro);
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * Pega os dois garfos de uma s vez ou nenhum deles: cada garfo  tentado
+	 * uma nica vez, sem espera e na ordem informada, e o primeiro  devolvido
+	 * na hora caso o segundo esteja ocupado. O filsofo nunca espera segurando
+	 * um garfo. O segundo garfo  consultado antes de tudo, para no ocupar o
+	 * primeiro  toa quando ele j est visivelmente ocupado.<br/>
+	 * <br/>
+	 * Apenas a aquisio completa  registrada no dirio do filsofo e
+	 * publicada como dono dos garfos; a posse momentnea do primeiro garfo,
+	 * desfeita em seguida, no aparece para a {@link VigiaMesa}.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo faminto, sem garfos.
+	 * @param primeiro
+	 *            {@link Garfo} - Garfo tentado primeiro.
+	 * @param segundo
+	 *            {@link Garfo} - Garfo tentado em seguida.
+	 * @return {@link Garfo} - Nulo caso os dois garfos tenham sido pegos, ou o
+	 *         garfo que estava ocupado.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida. Nesse caso nenhum garfo
+	 *             permanece com o filsofo.
+	 */
+	protected static Garfo tentaPegarAmbos(Filosofo filosofo, Garfo primeiro,
+			Garfo segundo) throws InterruptedException {
+		if (segundo.isOcupado()) {
+			return segundo;
+		}
+		if (!primeiro.tentaPegarGarfo(0L, TimeUnit.NANOSECONDS)) {
+			return primeiro;
+		}
+		boolean pegou;
+		try {
+			pegou = segundo.tentaPegarGarfo(0L, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException excecao) {
+			primeiro.soltaGarfo();
+			throw excecao;
+		}
+		if (!pegou) {
+			primeiro.soltaGarfo();
+			return segundo;
+		}
+		primeiro.defineDono(filosofo);
+		segundo.defineDono(filosofo);
+		filosofo.registraGarfo(primeiro, true);
+		filosofo.registraGarfo(segundo, true);
+		return null;
+	}
+
+	/**
+	 * Solta os dois garfos do filsofo.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo que segura os garfos.
+	 */
+	protected static void soltaAmbos(Filosofo filosofo) {
+		solta(filosofo, filosofo.getGarfoDireito());
+		solta(filosofo, filosofo.getGarfoEsquerdo());
+	}
+
+	/**
+	 * Pega o garfo, aguardando o tempo que for necessrio, e registra a posse
+	 * no dirio do filsofo. As estratgias pegam e soltam os garfos apenas
+	 * por estes mtodos, que tambm publicam o grafo de espera lido pela
+	 * {@link VigiaMesa}: o garfo aguardado pelo filsofo e o dono do garfo.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo que pega o garfo.
+	 * @param garfo
+	 *            {@link Garfo} - Um dos garfos do filsofo.
+	 */
+	protected static void pega(Filosofo filosofo, Garfo garfo) {
+		filosofo.defineGarfoAguardado(garfo);
+		garfo.pegaGarfo();
+		garfo.defineDono(filosofo);
+		filosofo.defineGarfoAguardado(null);
+		filosofo.registraGarfo(garfo, true);
+	}
+
+	/**
+	 * Tenta pegar o garfo dentro do tempo limite e, caso consiga, registra a
+	 * posse no dirio do filsofo. A espera  publicada com tempo limite (
+	 * {@link Filosofo#isEsperaComPrazo()} ): quem chama solta os garfos que
+	 * segura caso o tempo se esgote, portanto um ciclo de espera que passa
+	 * por ela se desfaz sozinho.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo que pega o garfo.
+	 * @param garfo
+	 *            {@link Garfo} - Um dos garfos do filsofo.
+	 * @param tempoLimite
+	 *            long - Tempo mximo de espera em milisegundos.
+	 * @return boolean - "true" caso o garfo tenha sido pego.
+	 */
+	protected static boolean tentaPegar(Filosofo filosofo, Garfo garfo,
+			long tempoLimite) {
+		filosofo.defineGarfoAguardado(garfo, true);
+		if (garfo.pegaGarfo(tempoLimite)) {
+			garfo.defineDono(filosofo);
+			filosofo.defineGarfoAguardado(null);
+			filosofo.registraGarfo(garfo, true);
+			return true;
+		}
+		filosofo.defineGarfoAguardado(null);
+		return false;
+	}
+
+	/**
+	 * Registra a liberao no dirio do filsofo e solta o garfo. O registro
+	 * vem antes para que fique antes da posse de quem recebe o garfo.
+	 *
+	 * @param filosofo
+	 *            {@link Filosofo} - Filsofo que segura o garfo.
+	 * @param garfo
+	 *            {@link Garfo} - Garfo solto.
+	 */
+	protected static void solta(Filosofo filosofo, Garfo garfo) {
+		filosofo.registraGarfo(garfo, false);
+		garfo.defineDono(null);
+		garfo.soltaGarfo();
+	}
+}
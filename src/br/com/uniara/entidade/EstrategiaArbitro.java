@@ -0,0 +1,171 @@
+package br.com.uniara.entidade;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * rbitro central: o filsofo pede os dois garfos a um nico rbitro, que s
+ * os concede quando ambos esto livres. Como os dois garfos so concedidos
+ * de uma s vez, nunca h um filsofo segurando um garfo e esperando pelo
+ * outro.<br/>
+ * <br/>
+ * Os pedidos que no podem ser atendidos na hora entram em uma fila, na
+ * ordem de chegada. A cada devoluo, o rbitro percorre a fila e concede os
+ * garfos aos pedidos que j podem ser atendidos; os garfos de um pedido que
+ * ainda espera ficam reservados para ele, portanto um pedido mais novo nunca
+ * passa na frente de um mais antigo que disputa o mesmo garfo. Um pedido
+ * novo s  atendido na hora quando nenhum pedido da fila disputa os seus
+ * garfos.<br/>
+ * <br/>
+ * Cada pedido que entra na fila conta como uma falha. O estado do rbitro 
+ * protegido por um {@link ReentrantLock}, e quem espera fica estacionado
+ * (LockSupport.park) fora dele, o que no prende a thread portadora de uma
+ * thread virtual.
+ */
+public class EstrategiaArbitro extends EstrategiaAquisicao {
+
+	/**
+	 * Pedido de um filsofo que aguarda os garfos na fila.
+	 */
+	private static final class Pedido {
+
+		private final Thread thread = Thread.currentThread();
+		private final int direito;
+		private final int esquerdo;
+		/**
+		 * Indica que os garfos j foram concedidos a este pedido.
+		 */
+		private volatile boolean concedido = false;
+
+		private Pedido(int direito, int esquerdo) {
+			this.direito = direito;
+			this.esquerdo = esquerdo;
+		}
+	}
+
+	private final int quantidade;
+	private final ReentrantLock trava = new ReentrantLock();
+	/**
+	 * Garfos concedidos, por ndice. Protegido pela trava.
+	 */
+	private final boolean[] concedidos;
+	/**
+	 * Pedidos aguardando, em ordem de chegada. Protegido pela trava.
+	 */
+	private final ArrayDeque<Pedido> fila = new ArrayDeque<Pedido>();
+	/**
+	 * Garfos reservados a pedidos da fila durante uma varredura: o garfo g
+	 * est reservado quando reservas[g]  igual  varredura atual. Protegido
+	 * pela trava.
+	 */
+	private final int[] reservas;
+	private int varredura = 0;
+
+	/**
+	 * Construtor da estratgia.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 */
+	public EstrategiaArbitro(int quantidade) {
+		this.quantidade = quantidade;
+		this.concedidos = new boolean[quantidade];
+		this.reservas = new int[quantidade];
+	}
+
+	@Override
+	public void pegaGarfos(Filosofo filosofo) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		Pedido pedido = new Pedido(indiceGarfoDireito(filosofo.getIndice(),
+				this.quantidade), filosofo.getIndice());
+		this.trava.lock();
+		try {
+			this.fila.addLast(pedido);
+			concede();
+		} finally {
+			this.trava.unlock();
+		}
+		if (!pedido.concedido) {
+			registraFalha(filosofo);
+			boolean interrompida = false;
+			while (!pedido.concedido && !interrompida) {
+				LockSupport.park(this);
+				interrompida = Thread.interrupted();
+			}
+			if (interrompida) {
+				desiste(pedido);
+				throw new InterruptedException();
+			}
+		}
+		// Os garfos j so do filsofo: as chamadas abaixo no esperam.
+		pega(filosofo, filosofo.getGarfoDireito());
+		pega(filosofo, filosofo.getGarfoEsquerdo());
+	}
+
+	@Override
+	public void soltaGarfos(Filosofo filosofo) {
+		soltaAmbos(filosofo);
+		this.trava.lock();
+		try {
+			this.concedidos[indiceGarfoDireito(filosofo.getIndice(),
+					this.quantidade)] = false;
+			this.concedidos[filosofo.getIndice()] = false;
+			concede();
+		} finally {
+			this.trava.unlock();
+		}
+	}
+
+	/**
+	 * Retira da fila o pedido de uma thread interrompida ou, caso os garfos
+	 * j tenham sido concedidos, devolve-os ao rbitro.
+	 */
+	private void desiste(Pedido pedido) {
+		this.trava.lock();
+		try {
+			if (pedido.concedido) {
+				this.concedidos[pedido.direito] = false;
+				this.concedidos[pedido.esquerdo] = false;
+			} else {
+				this.fila.remove(pedido);
+			}
+			concede();
+		} finally {
+			this.trava.unlock();
+		}
+	}
+
+	/**
+	 * Percorre a fila em ordem de chegada, concedendo os garfos aos pedidos
+	 * que podem ser atendidos e reservando os garfos dos demais. Deve ser
+	 * chamado com a trava.
+	 */
+	private void concede() {
+		int atual = ++this.varredura;
+		Iterator<Pedido> pedidos = this.fila.iterator();
+		while (pedidos.hasNext()) {
+			Pedido pedido = pedidos.next();
+			if (livre(pedido.direito, atual) && livre(pedido.esquerdo, atual)) {
+				this.concedidos[pedido.direito] = true;
+				this.concedidos[pedido.esquerdo] = true;
+				pedidos.remove();
+				pedido.concedido = true;
+				LockSupport.unpark(pedido.thread);
+			} else {
+				this.reservas[pedido.direito] = atual;
+				this.reservas[pedido.esquerdo] = atual;
+			}
+		}
+	}
+
+	/**
+	 * Indica se o garfo no est concedido nem reservado na varredura atual.
+	 */
+	private boolean livre(int garfo, int atual) {
+		return !this.concedidos[garfo] && this.reservas[garfo] != atual;
+	}
+}
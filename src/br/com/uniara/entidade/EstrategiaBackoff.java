@@ -0,0 +1,114 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoEvento;
+
+/**
+ * Estratgia original do sistema: pega o garfo direito sem tempo limite e
+ * tenta pegar o esquerdo dentro do tempo limite do filsofo; caso no
+ * consiga, solta o direito e recomea.<br/>
+ * <br/>
+ * Evita o deadlock, mas com a mesa disputada os filsofos ficam pegando e
+ * soltando garfos sem comer (livelock). Cada garfo solto conta como uma
+ * falha, portanto as falhas desta estratgia so exatamente as esperas pelo
+ * segundo garfo encerradas pelo tempo limite.<br/>
+ * <br/>
+ * Com o recuo exponencial ativo na mesa (mesa.recuo.maximo), o tempo limite
+ * do segundo garfo e um recuo sem garfos antes da nova tentativa so
+ * sorteados pelo {@link RecuoAdaptativo} de cada filsofo, no lugar do tempo
+ * fixo e da nova tentativa imediata.
+ */
+public class EstrategiaBackoff extends EstrategiaAquisicao {
+
+	private final LongAdder recuos = new LongAdder();
+	private final LongAdder tempoRecuos = new LongAdder();
+
+	@Override
+	public void pegaGarfos(Filosofo filosofo) throws InterruptedException {
+		RecuoAdaptativo recuo = filosofo.getRecuo();
+		while (true) {
+			/*
+			 * Chama o mtodo pegaGarfo que no contm parametro, ele tentar
+			 * pegar o garfo at conseguir, independente do tempo que isso
+			 * leve.
+			 */
+			pega(filosofo, filosofo.getGarfoDireito());
+			// Define o estado como faminto com garfo
+			filosofo.alteraEstado(Estado.FAMINTO_COM_GARFO);
+			/*
+			 * Chama o mtodo pegaGarfo que contm parametro, ele tentar pegar
+			 * o garfo pelo tempo limite sorteado do perfil (ou do recuo) do
+			 * filsofo, caso consiga retorna verdadeiro e o filsofo pode
+			 * comer.
+			 */
+			if (tentaPegar(filosofo, filosofo.getGarfoEsquerdo(),
+					recuo == null ? filosofo.sorteiaTempoGarfo() : recuo
+							.sorteiaEspera())) {
+				if (Thread.interrupted()) {
+					soltaAmbos(filosofo);
+					throw new InterruptedException();
+				}
+				if (recuo != null) {
+					recuo.conseguiu();
+				}
+				return;
+			}
+			/*
+			 * Caso contrrio, o filsofo soltar o garfo que est segurando na
+			 * mo direita usando o mtodo soltaGarfo, que notifica os outros
+			 * filsofos sobre a disponibilidade do garfo.
+			 */
+			solta(filosofo, filosofo.getGarfoDireito());
+			/*
+			 * A tentativa com tempo limite falha imediatamente quando a thread
+			 *  interrompida, portanto a interrupo precisa ser verificada
+			 * aqui para encerrar o lao, antes de contar a falha.
+			 */
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			registraFalha(filosofo);
+			// Define o estado como faminto sem garfos
+			filosofo.alteraEstado(Estado.FAMINTO_SEM_GARFOS);
+			/*
+			 * Adiciona uma notificao no componente de log sobre a no
+			 * ocorrncia do deadlock.
+			 */
+			filosofo.registra(TipoEvento.DEADLOCK_EVITADO, null);
+			// Sem garfos em mos: ponto seguro para a pausa.
+			filosofo.pontoSeguro();
+			if (recuo != null) {
+				long pausa = recuo.falhou();
+				this.recuos.increment();
+				this.tempoRecuos.add(pausa);
+				filosofo.recua(pausa);
+			}
+		}
+	}
+
+	@Override
+	public void soltaGarfos(Filosofo filosofo) {
+		soltaAmbos(filosofo);
+	}
+
+	/**
+	 * Mtodo acessor do contador de recuos.
+	 *
+	 * @return long - Novas tentativas feitas aps um recuo sem garfos; zero
+	 *         sem o recuo exponencial.
+	 */
+	public long getRecuos() {
+		return this.recuos.sum();
+	}
+
+	/**
+	 * Mtodo acessor do tempo total de recuo.
+	 *
+	 * @return long - Soma dos recuos sorteados, em nanossegundos.
+	 */
+	public long getTempoRecuos() {
+		return this.tempoRecuos.sum();
+	}
+}
@@ -0,0 +1,176 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import br.com.uniara.constante.Estado;
+
+/**
+ * Protocolo de Chandy e Misra com garfos limpos e sujos, adaptado para
+ * memria compartilhada.<br/>
+ * <br/>
+ * Cada garfo sempre tem um dono e est limpo ou sujo. No incio todos esto
+ * sujos e pertencem ao filsofo de menor ndice do par. Um filsofo faminto
+ * toma para si, limpo, o garfo do vizinho quando ele est sujo e o vizinho
+ * no est comendo; um garfo limpo fica com o dono at ele comer. Ao terminar
+ * a refeio, os dois garfos do filsofo ficam sujos, o que d prioridade aos
+ * vizinhos. Isso evita o deadlock e tambm a fome de um filsofo.<br/>
+ * <br/>
+ * A posse segundo o protocolo  separada do {@link Garfo} em si: o
+ * {@link Garfo} s  pego quando o filsofo j  dono dos dois, portanto
+ * nunca h espera nele. Uma falha  contada quando o filsofo perde um garfo
+ * sujo para o vizinho enquanto esperava o outro.<br/>
+ * <br/>
+ * Cada garfo do protocolo  protegido por um {@link ReentrantLock}, e a
+ * espera usa a sua {@link Condition}, que estaciona a thread sem prender a
+ * thread portadora de uma thread virtual.
+ */
+public class EstrategiaChandyMisra extends EstrategiaAquisicao {
+
+	/**
+	 * Estado de um garfo no protocolo. Protegido pela sua prpria trava.
+	 */
+	private static final class Posse {
+		private final ReentrantLock trava = new ReentrantLock();
+		/**
+		 * Sinalizada quando o garfo fica sujo.
+		 */
+		private final Condition sujou = this.trava.newCondition();
+		private int dono;
+		private boolean sujo = true;
+	}
+
+	private final int quantidade;
+	private final Posse[] posses;
+	/**
+	 * Filsofos comendo. Alterado com as travas dos dois garfos do filsofo
+	 * e lido com a trava de um deles.
+	 */
+	private final boolean[] comendo;
+
+	/**
+	 * Construtor da estratgia.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 */
+	public EstrategiaChandyMisra(int quantidade) {
+		this.quantidade = quantidade;
+		this.posses = new Posse[quantidade];
+		this.comendo = new boolean[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			// O garfo i fica entre os filsofos i e i + 1.
+			this.posses[i] = new Posse();
+			this.posses[i].dono = Math.min(i, (i + 1) % quantidade);
+		}
+	}
+
+	@Override
+	public void pegaGarfos(Filosofo filosofo) throws InterruptedException {
+		int indice = filosofo.getIndice();
+		int direito = indiceGarfoDireito(indice, this.quantidade);
+		int esquerdo = indice;
+		try {
+			while (true) {
+				obtem(direito, indice);
+				filosofo.alteraEstado(Estado.FAMINTO_COM_GARFO);
+				obtem(esquerdo, indice);
+				if (comecaRefeicao(indice, direito, esquerdo)) {
+					break;
+				}
+				// Um garfo sujo foi tomado pelo vizinho durante a espera.
+				registraFalha(filosofo);
+				filosofo.alteraEstado(Estado.FAMINTO_SEM_GARFOS);
+			}
+		} catch (InterruptedException excecao) {
+			abandona(direito, indice);
+			abandona(esquerdo, indice);
+			throw excecao;
+		}
+		// O filsofo  dono dos dois garfos: as chamadas abaixo no esperam.
+		pega(filosofo, filosofo.getGarfoDireito());
+		pega(filosofo, filosofo.getGarfoEsquerdo());
+	}
+
+	@Override
+	public void soltaGarfos(Filosofo filosofo) {
+		int indice = filosofo.getIndice();
+		int direito = indiceGarfoDireito(indice, this.quantidade);
+		soltaAmbos(filosofo);
+		Posse menor = this.posses[Math.min(direito, indice)];
+		Posse maior = this.posses[Math.max(direito, indice)];
+		menor.trava.lock();
+		maior.trava.lock();
+		try {
+			this.comendo[indice] = false;
+			menor.sujo = true;
+			maior.sujo = true;
+			menor.sujou.signalAll();
+			maior.sujou.signalAll();
+		} finally {
+			maior.trava.unlock();
+			menor.trava.unlock();
+		}
+	}
+
+	/**
+	 * Aguarda at que o filsofo seja dono do garfo, tomando-o do vizinho
+	 * quando ele estiver sujo e o vizinho no estiver comendo.
+	 */
+	private void obtem(int garfo, int indice) throws InterruptedException {
+		Posse posse = this.posses[garfo];
+		posse.trava.lock();
+		try {
+			while (posse.dono != indice) {
+				if (posse.sujo && !this.comendo[posse.dono]) {
+					posse.dono = indice;
+					posse.sujo = false;
+				} else {
+					posse.sujou.await();
+				}
+			}
+		} finally {
+			posse.trava.unlock();
+		}
+	}
+
+	/**
+	 * Comea a refeio caso o filsofo ainda seja dono dos dois garfos. A
+	 * verificao  feita com as duas travas, na ordem dos ndices.
+	 *
+	 * @return boolean - "true" caso o filsofo possa comer.
+	 */
+	private boolean comecaRefeicao(int indice, int direito, int esquerdo) {
+		Posse menor = this.posses[Math.min(direito, esquerdo)];
+		Posse maior = this.posses[Math.max(direito, esquerdo)];
+		menor.trava.lock();
+		maior.trava.lock();
+		try {
+			if (menor.dono == indice && maior.dono == indice) {
+				this.comendo[indice] = true;
+				return true;
+			}
+			return false;
+		} finally {
+			maior.trava.unlock();
+			menor.trava.unlock();
+		}
+	}
+
+	/**
+	 * Suja o garfo de um filsofo interrompido, para que o vizinho possa
+	 * tom-lo.
+	 */
+	private void abandona(int garfo, int indice) {
+		Posse posse = this.posses[garfo];
+		posse.trava.lock();
+		try {
+			if (posse.dono == indice) {
+				posse.sujo = true;
+				posse.sujou.signalAll();
+			}
+		} finally {
+			posse.trava.unlock();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Soluo do garom: um semforo com N - 1 lugares limita quantos filsofos
+ * podem disputar os garfos ao mesmo tempo. Com pelo menos um lugar vazio,
+ * algum filsofo sempre consegue os dois garfos, portanto no h deadlock.<br/>
+ * <br/>
+ * O semforo  justo (ordem de chegada) e, uma vez sentado, o filsofo pega
+ * o garfo direito e depois o esquerdo sem tempo limite. Nunca h falhas.
+ */
+public class EstrategiaGarcom extends EstrategiaAquisicao {
+
+	private final Semaphore lugares;
+
+	/**
+	 * Construtor da estratgia.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 */
+	public EstrategiaGarcom(int quantidade) {
+		this.lugares = new Semaphore(quantidade - 1, true);
+	}
+
+	@Override
+	public void pegaGarfos(Filosofo filosofo) throws InterruptedException {
+		this.lugares.acquire();
+		try {
+			pegaEmOrdem(filosofo, filosofo.getGarfoDireito(),
+					filosofo.getGarfoEsquerdo());
+		} catch (InterruptedException excecao) {
+			this.lugares.release();
+			throw excecao;
+		}
+	}
+
+	@Override
+	public void soltaGarfos(Filosofo filosofo) {
+		soltaAmbos(filosofo);
+		this.lugares.release();
+	}
+}
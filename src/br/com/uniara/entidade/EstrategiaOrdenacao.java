@@ -0,0 +1,42 @@
+package br.com.uniara.entidade;
+
+/**
+ * Ordenao dos recursos: cada filsofo pega primeiro o garfo de menor
+ * ndice e depois o de maior ndice, sem tempo limite.<br/>
+ * <br/>
+ * Como todos pegam os garfos na mesma ordem global, no h espera circular e
+ * portanto no h deadlock. Apenas o filsofo 0, cujo garfo direito  o
+ * ltimo da mesa, inverte a ordem. Nunca h falhas: quem espera um garfo
+ * simplesmente aguarda.
+ */
+public class EstrategiaOrdenacao extends EstrategiaAquisicao {
+
+	private final int quantidade;
+
+	/**
+	 * Construtor da estratgia.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 */
+	public EstrategiaOrdenacao(int quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	@Override
+	public void pegaGarfos(Filosofo filosofo) throws InterruptedException {
+		if (indiceGarfoDireito(filosofo.getIndice(), this.quantidade) < filosofo
+				.getIndice()) {
+			pegaEmOrdem(filosofo, filosofo.getGarfoDireito(),
+					filosofo.getGarfoEsquerdo());
+		} else {
+			pegaEmOrdem(filosofo, filosofo.getGarfoEsquerdo(),
+					filosofo.getGarfoDireito());
+		}
+	}
+
+	@Override
+	public void soltaGarfos(Filosofo filosofo) {
+		soltaAmbos(filosofo);
+	}
+}
@@ -0,0 +1,150 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pega os dois garfos de uma s vez ou nenhum deles (
+ * {@link EstrategiaAquisicao#tentaPegarAmbos(Filosofo, Garfo, Garfo)} ): os
+ * garfos so tentados sem espera, o de menor ndice primeiro, e o primeiro 
+ * devolvido na hora caso o segundo esteja ocupado. Como ningum espera
+ * segurando um garfo, no h deadlock, e um garfo livre nunca fica parado na
+ * mo de quem aguarda o outro.<br/>
+ * <br/>
+ * Sozinha, a tentativa sem espera permite a fome: quem solta os garfos e fica
+ * faminto de novo pode peg-los antes que o vizinho que dormia acorde. Por
+ * isso o filsofo cede a vez ao vizinho faminto h mais tempo (
+ * {@link Filosofo#temPrioridadeSobre(Filosofo)} ) e nem tenta pegar os garfos
+ * enquanto ele no comer. A ordem por incio da fome  total, portanto o
+ * faminto mais antigo da mesa nunca cede a vez e sempre acaba comendo.<br/>
+ * <br/>
+ * Sem os dois garfos, ou cedendo a vez, o filsofo tenta algumas vezes e
+ * depois dorme (park) at que um vizinho solte os garfos aps comer; os
+ * nicos filsofos que podem segurar os seus garfos so os dois vizinhos,
+ * portanto basta que quem come acorde os vizinhos que esto dormindo. A
+ * devoluo imediata do primeiro garfo em uma tentativa frustrada no acorda
+ * ningum, o que criaria uma troca de despertares entre vizinhos famintos; o
+ * sono  limitado a {@link #SONO_MAXIMO} para o caso raro de um garfo ocupado
+ * apenas por essa tentativa. Cada vez que o filsofo dorme conta como uma
+ * falha.
+ */
+public class EstrategiaParAtomico extends EstrategiaAquisicao {
+
+	/**
+	 * Tentativas seguidas antes de dormir, suficientes para os garfos soltos
+	 * logo em seguida sem o custo de dormir e acordar.
+	 */
+	private static final int TENTATIVAS = 16;
+	/**
+	 * Maior tempo de sono, em nanossegundos, sem que um vizinho acorde o
+	 * filsofo.
+	 */
+	private static final long SONO_MAXIMO = 1000000L;
+
+	private final int quantidade;
+	/**
+	 * Thread de cada filsofo que dorme aguardando os garfos, ou nulo.
+	 */
+	private final AtomicReferenceArray<Thread> dormindo;
+
+	/**
+	 * Construtor da estratgia.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 */
+	public EstrategiaParAtomico(int quantidade) {
+		this.quantidade = quantidade;
+		this.dormindo = new AtomicReferenceArray<Thread>(quantidade);
+	}
+
+	@Override
+	public void pegaGarfos(Filosofo filosofo) throws InterruptedException {
+		int indice = filosofo.getIndice();
+		Garfo primeiro = filosofo.getGarfoEsquerdo();
+		Garfo segundo = filosofo.getGarfoDireito();
+		if (indiceGarfoDireito(indice, this.quantidade) < indice) {
+			primeiro = filosofo.getGarfoDireito();
+			segundo = filosofo.getGarfoEsquerdo();
+		}
+		int tentativas = 0;
+		while (true) {
+			Garfo ocupado = tenta(filosofo, primeiro, segundo);
+			if (ocupado == null) {
+				return;
+			}
+			if (++tentativas < TENTATIVAS) {
+				Thread.onSpinWait();
+				continue;
+			}
+			tentativas = 0;
+			registraFalha(filosofo);
+			filosofo.defineGarfoAguardado(ocupado);
+			/*
+			 * A thread  publicada antes da ltima tentativa: um garfo solto
+			 * depois dela encontra a thread publicada e a acorda, e um park
+			 * com a permisso j concedida retorna na hora.
+			 */
+			this.dormindo.set(indice, Thread.currentThread());
+			try {
+				if (tenta(filosofo, primeiro, segundo) == null) {
+					return;
+				}
+				LockSupport.parkNanos(this, SONO_MAXIMO);
+			} finally {
+				this.dormindo.set(indice, null);
+				filosofo.defineGarfoAguardado(null);
+			}
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			// Sem garfos em mos: ponto seguro para a pausa.
+			filosofo.pontoSeguro();
+		}
+	}
+
+	@Override
+	public void soltaGarfos(Filosofo filosofo) {
+		soltaAmbos(filosofo);
+		acordaVizinhos(filosofo.getIndice());
+	}
+
+	/**
+	 * Tenta pegar os dois garfos, exceto quando um vizinho faminto h mais
+	 * tempo tem a vez.
+	 *
+	 * @return {@link Garfo} - Nulo caso os dois garfos tenham sido pegos, ou o
+	 *         garfo ocupado ou dividido com o vizinho que tem a vez.
+	 */
+	private static Garfo tenta(Filosofo filosofo, Garfo primeiro, Garfo segundo)
+			throws InterruptedException {
+		Filosofo direito = filosofo.getVizinhoDireito();
+		if (direito != null && direito.temPrioridadeSobre(filosofo)) {
+			return filosofo.getGarfoDireito();
+		}
+		Filosofo esquerdo = filosofo.getVizinhoEsquerdo();
+		if (esquerdo != null && esquerdo.temPrioridadeSobre(filosofo)) {
+			return filosofo.getGarfoEsquerdo();
+		}
+		return tentaPegarAmbos(filosofo, primeiro, segundo);
+	}
+
+	/**
+	 * Acorda os vizinhos do filsofo que dormem aguardando os garfos.
+	 *
+	 * @param indice
+	 *            int - Posio do filsofo que soltou garfos.
+	 */
+	private void acordaVizinhos(int indice) {
+		acorda((indice + 1) % this.quantidade);
+		// O vizinho da direita tem o mesmo ndice do garfo direito.
+		acorda(indiceGarfoDireito(indice, this.quantidade));
+	}
+
+	private void acorda(int indice) {
+		Thread thread = this.dormindo.get(indice);
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+}
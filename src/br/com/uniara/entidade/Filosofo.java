@@ -1,75 +1,356 @@
 package br.com.uniara.entidade;
 
-import javax.swing.JTextArea;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.ModoExecucao;
+import br.com.uniara.constante.TipoEvento;
+import br.com.uniara.registro.DiarioEventos;
+import br.com.uniara.registro.HistogramaLatencia;
+import br.com.uniara.registro.RegistroEventos;
 import br.com.uniara.ui.componente.JFilosofo;
 
 /**
- * Essa classe representa um filsofo. Ela herda da classe Thread, portanto se
- * comportar como a mesma.<br>
+ * Essa classe representa um filsofo. Ela implementa a interface
+ * {@link Runnable}, portanto o seu ciclo  executado por uma thread criada
+ * pela {@link Mesa}, que pode ser de plataforma ou virtual (
+ * {@link ModoExecucao} ).<br>
  * <br>
- * 1 - A configurao das constantes abaixo ir gerar um deadlock explcito
- * visualmente, j que o algoritmo criado no permite que a execuo seja
- * interrompida: <br>
- * TEMPO_PEGAR_GARFO_SECUNDARIO = 1000 <br>
- * TEMPO_COMENDO = 0 <br>
- * TEMPO_PENSANDO = 0 <br>
+ * Os tempos do ciclo so sorteados a cada iterao de um {@link PerfilTempo}
+ * (fixo, uniforme ou exponencial), configurado por mesa ou por filsofo na
+ * {@link ConfiguracaoMesa}, sem a necessidade de recompilar. As constantes
+ * abaixo so apenas os valores fixos padro.<br>
  * <br>
- * 2 - O modificador synchronized foi utilizado nos mtodos que acessam recursos
- * compartilhados na classe {@link Garfo} (No nosso caso o recurso compartilhado
- *  o prprio {@link Garfo}) , isso evita que duas threads ({@link Filosofo})
- * os acesse ao mesmo tempo.<br>
+ * A forma de obter os dois garfos  uma {@link EstrategiaAquisicao},
+ * compartilhada pela mesa e escolhida com a chave mesa.estrategia. Os exemplos
+ * abaixo usam a estratgia padro, {@link EstrategiaBackoff}.<br>
  * <br>
- * 3 - A configurao das constantes abaixo deixa ainda mais explcita a soluo
- * do desafio de fazer um filsofo comer a cada 5 segundos e a lgica
- * anti-deadlock, esses problemas foram solucionados com o auxlio do mtodo
- * sleep: <br>
- * TEMPO_PEGAR_GARFO_SECUNDARIO = 100 <br>
- * TEMPO_COMENDO = 50 <br>
- * TEMPO_PENSANDO = 150
+ * 1 - A configurao abaixo deixa a disputa pelos garfos no mximo: <br>
+ * mesa.tempo.garfo = 1000 <br>
+ * mesa.tempo.comendo = 0 <br>
+ * mesa.tempo.pensando = 0 <br>
+ * De tempos em tempos todos os filsofos pegam o garfo direito juntos e
+ * ficam esperando o esquerdo, em um ciclo de espera visvel na tela. O ciclo
+ * no  permanente: o tempo limite do segundo garfo expira, cada filsofo
+ * solta o garfo direito e a mesa volta a andar, at um segundo depois. Por
+ * isso a {@link VigiaMesa} no o conta como deadlock, e sim como uma espera
+ * circular transitria.<br>
+ * <br>
+ * 2 - Dois filsofos nunca seguram o mesmo {@link Garfo}: a posse  decidida
+ * pela subclasse escolhida na mesa, em um monitor curto ( {@link GarfoMonitor}
+ * ) ou por compare-and-set ( {@link GarfoAtomico} e {@link GarfoTabelado} ).
+ * Quem encontra o garfo ocupado entra na fila do garfo e  estacionado
+ * (LockSupport.park) fora de qualquer monitor, at receber o garfo de quem o
+ * soltou ou at o fim do tempo limite.<br>
+ * <br>
+ * 3 - A configurao abaixo deixa ainda mais explcita a soluo do desafio
+ * de fazer um filsofo comer a cada 5 segundos e a lgica anti-deadlock, esses
+ * problemas foram solucionados com o auxlio do mtodo sleep: <br>
+ * mesa.tempo.garfo = 100 <br>
+ * mesa.tempo.comendo = 50 <br>
+ * mesa.tempo.pensando = 150
  */
-public class Filosofo extends Thread {
+public class Filosofo implements Runnable {
 
 	/**
 	 * Constante com o tempo que ser utilizado pelo filsofo na tentativa de
-	 * pegar o segundo garfo.
+	 * pegar o segundo garfo, quando o recuo exponencial est desativado.
 	 */
-	private static final int TEMPO_PEGAR_GARFO_SECUNDARIO = 500;
+	static final int TEMPO_PEGAR_GARFO_SECUNDARIO = 500;
 	/**
 	 * Constante com o tempo que o filsofo gastar comendo.
 	 */
-	private static final int TEMPO_COMENDO = 250;
+	static final int TEMPO_COMENDO = 250;
 	/**
 	 * Constante com o tempo que o filsofo gastar pensando.
 	 */
-	private static final int TEMPO_PENSANDO = 750;
+	static final int TEMPO_PENSANDO = 750;
 
+	private static final AtomicReferenceFieldUpdater<Filosofo, Garfo> GARFO_AGUARDADO = AtomicReferenceFieldUpdater
+			.newUpdater(Filosofo.class, Garfo.class, "garfoAguardado");
+
+	private int indice;
+	private String nome;
 	private Garfo garfoEsquerdo;
 	private Garfo garfoDireito;
 	private JFilosofo filosofo;
-	private JTextArea txtLog;
+	private RegistroEventos registro;
+	private ControlePausa controle;
+
+	private PerfilTempo perfilPensando = PerfilTempo.fixo(TEMPO_PENSANDO);
+	private PerfilTempo perfilComendo = PerfilTempo.fixo(TEMPO_COMENDO);
+	private PerfilTempo perfilPegarGarfoSecundario = PerfilTempo
+			.fixo(TEMPO_PEGAR_GARFO_SECUNDARIO);
+	private EstrategiaAquisicao estrategia = new EstrategiaBackoff();
+	/**
+	 * Controle dos lotes de refeies, nulo quando desativado.
+	 */
+	private LoteAdaptativo lote;
+	/**
+	 * Controle do recuo exponencial, nulo quando desativado.
+	 */
+	private RecuoAdaptativo recuo;
+	private Filosofo vizinhoDireito;
+	private Filosofo vizinhoEsquerdo;
 
 	/**
-	 * Construtor da classe Filosofo. Recebe alguns parmetros para configurao
-	 * da thread.
+	 * Quantidade de refeies feitas. S  alterada pela prpria thread.
+	 */
+	private volatile long refeicoes = 0L;
+	/**
+	 * Tentativas de pegar os garfos encerradas sem os dois garfos. S 
+	 * alterada pela prpria thread.
+	 */
+	private volatile long falhas = 0L;
+	/**
+	 * Quantidade de vezes que o filsofo pegou e soltou os dois garfos. Sem
+	 * lotes,  igual  de refeies. S  alterada pela prpria thread.
+	 */
+	private volatile long posses = 0L;
+	/**
+	 * Instante, em System.nanoTime(), em que o filsofo ficou faminto, ou -1
+	 * quando no est faminto.
+	 */
+	private volatile long inicioFome = -1L;
+	/**
+	 * Estado atual, nulo antes da primeira alterao.
+	 */
+	private volatile Estado estado;
+	/**
+	 * Garfo que o filsofo est tentando pegar, lido pela {@link VigiaMesa},
+	 * ou nulo.
+	 */
+	private volatile Garfo garfoAguardado;
+	/**
+	 * Indica que a espera pelo garfo aguardado tem tempo limite, lido pela
+	 * {@link VigiaMesa}.
+	 */
+	private volatile boolean esperaComPrazo;
+	/**
+	 * Tempos entre ficar faminto e comear a comer.
+	 */
+	private final HistogramaLatencia esperas = new HistogramaLatencia();
+	private DiarioEventos diario;
+
+	/**
+	 * Construtor da classe Filosofo. Os componentes visuais e o log so
+	 * opcionais, o que permite executar a mesa sem interface grfica.
 	 * 
+	 * @param indice
+	 *            int - Posio do filsofo na mesa, usada nos eventos do log.
+	 * @param nome
+	 *            {@link String} - Nome do filsofo, usado tambm como nome da
+	 *            thread que o executa.
+	 * @param garfoDireito
+	 *            {@link Garfo} - Recurso alocado na "mo" direita da thread.
 	 * @param garfoEsquerdo
 	 *            {@link Garfo} - Recurso alocado na "mo" esquerda da thread.
+	 * @param filosofo
+	 *            {@link JFilosofo} - Componente com a imagem, pode ser nulo.
+	 * @param registro
+	 *            {@link RegistroEventos} - Buffer dos eventos exibidos no log,
+	 *            pode ser nulo.
+	 */
+	public Filosofo(int indice, String nome, Garfo garfoDireito,
+			Garfo garfoEsquerdo, JFilosofo filosofo, RegistroEventos registro) {
+		this(indice, nome, garfoDireito, garfoEsquerdo, filosofo, registro,
+				null);
+	}
+
+	/**
+	 * Construtor da classe Filosofo com controle de pausa.
+	 * 
+	 * @param indice
+	 *            int - Posio do filsofo na mesa, usada nos eventos do log.
+	 * @param nome
+	 *            {@link String} - Nome do filsofo, usado tambm como nome da
+	 *            thread que o executa.
 	 * @param garfoDireito
 	 *            {@link Garfo} - Recurso alocado na "mo" direita da thread.
+	 * @param garfoEsquerdo
+	 *            {@link Garfo} - Recurso alocado na "mo" esquerda da thread.
 	 * @param filosofo
-	 *            {@link JFilosofo} - Componente com a imagem.
-	 * @param txtLog
-	 *            {@link JTextArea} - Componente de texto que exibe as aes do
-	 *            sistema, no caso a ao da thread.
+	 *            {@link JFilosofo} - Componente com a imagem, pode ser nulo.
+	 * @param registro
+	 *            {@link RegistroEventos} - Buffer dos eventos exibidos no log,
+	 *            pode ser nulo.
+	 * @param controle
+	 *            {@link ControlePausa} - Controle de pausa da mesa, pode ser
+	 *            nulo.
 	 */
-	public Filosofo(Garfo garfoDireito, Garfo garfoEsquerdo,
-			JFilosofo filosofo, JTextArea txtLog) {
+	public Filosofo(int indice, String nome, Garfo garfoDireito,
+			Garfo garfoEsquerdo, JFilosofo filosofo, RegistroEventos registro,
+			ControlePausa controle) {
+		this.indice = indice;
+		this.nome = nome;
 		this.garfoEsquerdo = garfoEsquerdo;
 		this.garfoDireito = garfoDireito;
 		this.filosofo = filosofo;
-		this.txtLog = txtLog;
+		this.registro = registro;
+		this.controle = controle;
+	}
+
+	/**
+	 * Define os perfis dos tempos do ciclo do filsofo, que por padro so os
+	 * valores fixos das constantes. A cada ciclo um novo tempo  sorteado de
+	 * cada perfil. Deve ser chamado antes de a thread ser iniciada.
+	 * 
+	 * @param pensando
+	 *            {@link PerfilTempo} - Tempo pensando.
+	 * @param comendo
+	 *            {@link PerfilTempo} - Tempo comendo.
+	 * @param pegarGarfoSecundario
+	 *            {@link PerfilTempo} - Tempo limite para pegar o segundo
+	 *            garfo.
+	 */
+	void definePerfis(PerfilTempo pensando, PerfilTempo comendo,
+			PerfilTempo pegarGarfoSecundario) {
+		this.perfilPensando = pensando;
+		this.perfilComendo = comendo;
+		this.perfilPegarGarfoSecundario = pegarGarfoSecundario;
+	}
+
+	/**
+	 * Define a estratgia usada para obter os garfos, que por padro  a
+	 * {@link EstrategiaBackoff}. Deve ser chamado antes de a thread ser
+	 * iniciada.
+	 * 
+	 * @param estrategia
+	 *            {@link EstrategiaAquisicao} - Estratgia compartilhada pela
+	 *            mesa.
+	 */
+	void defineEstrategia(EstrategiaAquisicao estrategia) {
+		this.estrategia = estrategia;
+	}
+
+	/**
+	 * Ativa os lotes de refeies: com os dois garfos em mos, o filsofo
+	 * pode comer de novo, sem pensar, at o limite do {@link LoteAdaptativo},
+	 * antes de solt-los. Deve ser chamado antes de a thread ser iniciada.
+	 * 
+	 * @param maximo
+	 *            int - Maior quantidade de refeies por lote; 1 desativa os
+	 *            lotes.
+	 * @param esperaTolerada
+	 *            long - Maior espera de um vizinho faminto, em milisegundos.
+	 * @param direito
+	 *            {@link Filosofo} - Vizinho que divide o garfo direito.
+	 * @param esquerdo
+	 *            {@link Filosofo} - Vizinho que divide o garfo esquerdo.
+	 */
+	void defineLote(int maximo, long esperaTolerada, Filosofo direito,
+			Filosofo esquerdo) {
+		this.lote = maximo > 1 ? new LoteAdaptativo(maximo, esperaTolerada)
+				: null;
+		this.vizinhoDireito = direito;
+		this.vizinhoEsquerdo = esquerdo;
+	}
+
+	/**
+	 * Ativa o recuo exponencial da {@link EstrategiaBackoff}: o tempo limite
+	 * do segundo garfo e o recuo aps uma falha passam a ser sorteados pelo
+	 * {@link RecuoAdaptativo}. Deve ser chamado antes de a thread ser
+	 * iniciada.
+	 * 
+	 * @param minimo
+	 *            long - Menor limite do recuo, em milisegundos.
+	 * @param maximo
+	 *            long - Maior limite do recuo, em milisegundos; zero desativa
+	 *            o recuo.
+	 */
+	void defineRecuo(long minimo, long maximo) {
+		this.recuo = maximo > 0L ? new RecuoAdaptativo(minimo, maximo) : null;
+	}
+
+	/**
+	 * Mtodo acessor do controle de recuo.
+	 * 
+	 * @return {@link RecuoAdaptativo} - Recuo do filsofo, nulo quando
+	 *         desativado.
+	 */
+	RecuoAdaptativo getRecuo() {
+		return this.recuo;
+	}
+
+	/**
+	 * Define o dirio onde as alteraes de estado e os garfos pegos e soltos
+	 * so gravados. Deve ser chamado antes de a thread ser iniciada.
+	 * 
+	 * @param diario
+	 *            {@link DiarioEventos} - Dirio da mesa, pode ser nulo.
+	 */
+	void defineDiario(DiarioEventos diario) {
+		this.diario = diario;
+	}
+
+	/**
+	 * Grava no dirio, caso exista, que o filsofo pegou ou vai soltar um dos
+	 * seus garfos.
+	 * 
+	 * @param garfo
+	 *            {@link Garfo} - Garfo direito ou esquerdo do filsofo.
+	 * @param pego
+	 *            boolean - "true" quando o garfo foi pego.
+	 */
+	void registraGarfo(Garfo garfo, boolean pego) {
+		if (this.diario != null) {
+			int quantidade = this.diario.getQuantidade();
+			int indiceGarfo = garfo == this.garfoEsquerdo ? this.indice
+					: (this.indice + quantidade - 1) % quantidade;
+			this.diario.registraGarfo(this.indice, indiceGarfo, pego);
+		}
+	}
+
+	/**
+	 * Publica o garfo que o filsofo est tentando pegar. Chamado pela
+	 * {@link EstrategiaAquisicao} na thread do filsofo, com uma escrita
+	 * ordenada (lazySet), sem lock e sem barreira completa.
+	 * 
+	 * @param garfo
+	 *            {@link Garfo} - Garfo aguardado, ou nulo ao terminar a
+	 *            tentativa.
+	 */
+	void defineGarfoAguardado(Garfo garfo) {
+		defineGarfoAguardado(garfo, false);
+	}
+
+	/**
+	 * Publica o garfo que o filsofo est tentando pegar e se a espera tem
+	 * tempo limite. A indicao  escrita antes do garfo, portanto quem l o
+	 * garfo aguardado j encontra a indicao da mesma espera, e s  escrita
+	 * quando muda.
+	 * 
+	 * @param garfo
+	 *            {@link Garfo} - Garfo aguardado, ou nulo ao terminar a
+	 *            tentativa.
+	 * @param comPrazo
+	 *            boolean - "true" caso a espera tenha tempo limite.
+	 */
+	void defineGarfoAguardado(Garfo garfo, boolean comPrazo) {
+		if (this.esperaComPrazo != comPrazo) {
+			this.esperaComPrazo = comPrazo;
+		}
+		GARFO_AGUARDADO.lazySet(this, garfo);
+	}
+
+	/**
+	 * Sorteia o tempo limite para pegar o segundo garfo, usado pela
+	 * {@link EstrategiaBackoff}.
+	 * 
+	 * @return long - Tempo limite em milissegundos.
+	 */
+	long sorteiaTempoGarfo() {
+		return this.perfilPegarGarfoSecundario.sorteia();
+	}
+
+	/**
+	 * Mtodo acessor da posio do filsofo na mesa.
+	 * 
+	 * @return int - ndice do filsofo.
+	 */
+	public int getIndice() {
+		return indice;
 	}
 
 	/**
@@ -90,6 +371,165 @@ public class Filosofo extends Thread {
 		return garfoDireito;
 	}
 
+	/**
+	 * Mtodo acessor do nome do filsofo.
+	 * 
+	 * @return {@link String} - Nome exibido no log.
+	 */
+	public String getNome() {
+		return nome;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de refeies.
+	 * 
+	 * @return long - Quantas vezes o filsofo comeu desde o incio da mesa.
+	 */
+	public long getRefeicoes() {
+		return refeicoes;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de posses dos garfos.
+	 * 
+	 * @return long - Quantas vezes o filsofo pegou e soltou os dois garfos;
+	 *         com lotes, cada posse pode ter vrias refeies.
+	 */
+	public long getPosses() {
+		return posses;
+	}
+
+	/**
+	 * Mtodo acessor do limite atual dos lotes de refeies.
+	 * 
+	 * @return int - Refeies permitidas no prximo lote, 1 sem lotes.
+	 */
+	public int getLimiteLote() {
+		return this.lote == null ? 1 : this.lote.getLimite();
+	}
+
+	/**
+	 * Mtodo acessor do limite atual do recuo exponencial.
+	 * 
+	 * @return long - Limite em milisegundos, zero sem recuo.
+	 */
+	public long getLimiteRecuo() {
+		return this.recuo == null ? 0L : this.recuo.getLimite();
+	}
+
+	/**
+	 * Mtodo acessor do estado atual do filsofo.
+	 * 
+	 * @return {@link Estado} - ltimo estado definido, ou nulo caso a thread
+	 *         ainda no tenha comeado.
+	 */
+	public Estado getEstado() {
+		return estado;
+	}
+
+	/**
+	 * Mtodo acessor do garfo que o filsofo est tentando pegar.
+	 * 
+	 * @return {@link Garfo} - Garfo aguardado, ou nulo caso o filsofo no
+	 *         esteja esperando um garfo.
+	 */
+	public Garfo getGarfoAguardado() {
+		return garfoAguardado;
+	}
+
+	/**
+	 * Indica se a espera pelo garfo aguardado tem tempo limite. Lido depois
+	 * do garfo aguardado, refere-se  mesma espera.
+	 * 
+	 * @return boolean - "true" caso o filsofo desista do garfo aguardado ao
+	 *         fim de um tempo limite.
+	 */
+	public boolean isEsperaComPrazo() {
+		return esperaComPrazo;
+	}
+
+	/**
+	 * Indica se o filsofo tem prioridade sobre o informado na disputa pelos
+	 * garfos: ele est faminto e ficou faminto antes (ou no mesmo instante e
+	 * com ndice menor). A ordem  total, portanto no h ciclo de
+	 * prioridades na mesa.
+	 * 
+	 * @param outro
+	 *            {@link Filosofo} - Filsofo comparado, ou nulo.
+	 * @return boolean - "true" caso o filsofo deva ser servido primeiro.
+	 */
+	boolean temPrioridadeSobre(Filosofo outro) {
+		long inicio = this.inicioFome;
+		if (inicio < 0L || outro == null || outro == this) {
+			return false;
+		}
+		long inicioOutro = outro.inicioFome;
+		return inicioOutro < 0L || inicio < inicioOutro
+				|| (inicio == inicioOutro && this.indice < outro.indice);
+	}
+
+	/**
+	 * Mtodo acessor do vizinho que divide o garfo direito.
+	 * 
+	 * @return {@link Filosofo} - Vizinho, ou nulo fora de uma {@link Mesa}.
+	 */
+	Filosofo getVizinhoDireito() {
+		return this.vizinhoDireito;
+	}
+
+	/**
+	 * Mtodo acessor do vizinho que divide o garfo esquerdo.
+	 * 
+	 * @return {@link Filosofo} - Vizinho, ou nulo fora de uma {@link Mesa}.
+	 */
+	Filosofo getVizinhoEsquerdo() {
+		return this.vizinhoEsquerdo;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de tentativas frustradas de pegar os
+	 * garfos (na estratgia padro, as vezes em que o filsofo soltou o garfo
+	 * direito para evitar o deadlock).
+	 * 
+	 * @return long - Tentativas encerradas sem os dois garfos.
+	 */
+	public long getFalhas() {
+		return falhas;
+	}
+
+	/**
+	 * Mtodo acessor do histograma dos tempos entre ficar faminto e comear a
+	 * comer.
+	 * 
+	 * @return {@link HistogramaLatencia} - Esperas em nanossegundos.
+	 */
+	public HistogramaLatencia getEsperas() {
+		return esperas;
+	}
+
+	/**
+	 * Retorna h quanto tempo o filsofo est faminto, o que permite
+	 * identificar um filsofo que nunca consegue comer e por isso no aparece
+	 * no histograma de esperas.
+	 * 
+	 * @param agora
+	 *            long - Instante atual, em System.nanoTime().
+	 * @return long - Tempo faminto em nanossegundos, ou 0 caso o filsofo no
+	 *         esteja faminto.
+	 */
+	public long getFomeAtual(long agora) {
+		long inicio = this.inicioFome;
+		return inicio < 0L ? 0L : Math.max(0L, agora - inicio);
+	}
+
+	/**
+	 * Contabiliza uma tentativa frustrada de pegar os garfos. Chamado pela
+	 * estratgia na thread do filsofo.
+	 */
+	void registraFalha() {
+		this.falhas++;
+	}
+
 	/**
 	 * Este mtodo define o estado da thread com o parmetro e invoca a
 	 * alterao da imagem e a troca do texto indicando o estado em questo.
@@ -98,20 +538,111 @@ public class Filosofo extends Thread {
 	 *            {@link Estado} - Indentifica o Estado que ser utilizado.
 	 */
 	public void alteraEstado(Estado estado) {
+		this.estado = estado;
+		if (this.diario != null) {
+			this.diario.registraEstado(this.indice, estado);
+		}
 		if (this.filosofo != null) {
+			// Redesenhado pelo renderizador da tela no prximo quadro.
 			this.filosofo.setEstado(estado);
-			this.filosofo.repaint();
 		}
-		estado.exibeEstado(this.filosofo.getNome().trim(), this.txtLog);
+		registra(TipoEvento.ALTERACAO_ESTADO, estado);
+	}
+
+	/**
+	 * Registra um evento no buffer do log, caso ele exista. O texto s 
+	 * montado por quem exibe o log.
+	 * 
+	 * @param tipo
+	 *            {@link TipoEvento} - Tipo do evento.
+	 * @param estado
+	 *            {@link Estado} - Novo estado, nas alteraes de estado.
+	 */
+	void registra(TipoEvento tipo, Estado estado) {
+		if (this.registro != null) {
+			this.registro.registra(tipo, this.indice, estado);
+		}
+	}
+
+	/**
+	 * Pensa pelo tempo informado. Com controle de pausa, o filsofo pode parar
+	 * durante esse tempo, j que no segura nenhum garfo.
+	 * 
+	 * @param milissegundos
+	 *            long - Tempo pensando.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida.
+	 */
+	private void pensa(long milissegundos) throws InterruptedException {
+		if (this.controle == null) {
+			Thread.sleep(milissegundos);
+		} else {
+			this.controle.dorme(milissegundos);
+		}
+	}
+
+	/**
+	 * Recua, sem garfos em mos, pelo tempo informado, antes de uma nova
+	 * tentativa de pegar os garfos. Como ao pensar, com controle de pausa o
+	 * filsofo pode parar durante esse tempo.
+	 * 
+	 * @param nanossegundos
+	 *            long - Tempo do recuo.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida.
+	 */
+	void recua(long nanossegundos) throws InterruptedException {
+		if (this.controle == null) {
+			TimeUnit.NANOSECONDS.sleep(nanossegundos);
+		} else {
+			this.controle.dorme(nanossegundos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Retorna a maior fome atual entre os dois vizinhos que dividem os
+	 * garfos com o filsofo.
+	 */
+	private long esperaVizinhos() {
+		long agora = System.nanoTime();
+		return Math.max(this.vizinhoDireito.getFomeAtual(agora),
+				this.vizinhoEsquerdo.getFomeAtual(agora));
+	}
+
+	/**
+	 * Decide, com os garfos em mos, se o filsofo faz mais uma refeio no
+	 * mesmo lote. Um pedido de pausa encerra o lote, j que a pausa s ocorre
+	 * sem garfos.
+	 */
+	private boolean continuaLote(int refeicoesLote) {
+		if (this.controle != null && this.controle.isPausado()) {
+			return false;
+		}
+		return this.lote.continua(refeicoesLote, esperaVizinhos());
+	}
+
+	/**
+	 * Ponto seguro para a pausa da mesa: s  chamado sem garfos em mos.
+	 * 
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida enquanto parada.
+	 */
+	void pontoSeguro() throws InterruptedException {
+		if (this.controle != null) {
+			this.controle.pontoSeguro();
+		}
 	}
 
 	/**
 	 * Quando a thread  inicializada, este mtodo  chamado.  ele que vai
 	 * "gerenciar" a atividade da thread determinando qual ao ela dever
-	 * tentar executar e qual o intervalo que ela ficar em cado estado.
+	 * tentar executar e qual o intervalo que ela ficar em cado estado.<br/>
+	 * A thread termina quando  interrompida, soltando os garfos que estiver
+	 * segurando.
 	 */
 	@Override
 	public void run() {
+		boolean comGarfos = false;
 		try {
 			// Executa de forma infinita o contedo do lao.
 			while (true) {
@@ -119,82 +650,71 @@ public class Filosofo extends Thread {
 				 * Exibe o nome da thread e indica que uma nova execuo foi
 				 * disparada no componente de log.
 				 */
-				this.txtLog.append(String.format(
-						" %s - Nova iterao disparada! \n", this.filosofo
-								.getNome().trim()));
+				registra(TipoEvento.NOVA_ITERACAO, null);
 				/*
-				 * Define o estado como pensando e aciona o mtodo sleep, que
-				 * far o filsofo pausar pela quantidade de segundos
-				 * determinada na constante TEMPO_PENSANDO.
+				 * Define o estado como pensando e aguarda pela quantidade de
+				 * segundos determinada na constante TEMPO_PENSANDO. Sem garfos
+				 * em mos, esse  um ponto seguro para a pausa da mesa.
 				 */
 				alteraEstado(Estado.PENSANDO);
-				sleep(TEMPO_PENSANDO);
+				pensa(this.perfilPensando.sorteia());
 				/*
-				 * Seta o estado para faminto sem garfo, depois entra em um lao
-				 * infinito, que s ser interrompido quando o filsofo pegar os
-				 * dois garfos, para assim conseguir comer.
+				 * Seta o estado para faminto sem garfo e obtm os dois garfos
+				 * atravs da estratgia da mesa, que s retorna quando o
+				 * filsofo tem os dois garfos em mos.
 				 */
 				alteraEstado(Estado.FAMINTO_SEM_GARFOS);
-				while (true) {
-					/*
-					 * Chama o mtodo pegaGarfo que no contm parametro, ele
-					 * tentar pegar o garfo at conseguir, independente do
-					 * tempo que isso leve.
-					 */
-					this.getGarfoDireito().pegaGarfo();
-					// Define o estado como faminto com garfo
-					alteraEstado(Estado.FAMINTO_COM_GARFO);
-					/*
-					 * Chama o mtodo pegaGarfo que contm parametro, ele
-					 * tentar pegar o garfo pelo tempo da constante
-					 * TEMPO_PEGAR_GARFO_SECUNDARIO, caso consiga retorna
-					 * verdadeiro, o que interromper o lao de repetio com o
-					 * comando break.
-					 */
-					if (this.getGarfoEsquerdo().pegaGarfo(
-							TEMPO_PEGAR_GARFO_SECUNDARIO)) {
-						break;
-					} else {
-						/*
-						 * Caso contrrio, o filsofo soltar o garfo que est
-						 * segurando na mo direita usando o mtodo soltaGarfo,
-						 * que notifica os outros filsofos sobre a
-						 * disponibilidade do garfo.
-						 */
-						this.getGarfoDireito().soltaGarfo();
-						// Define o estado como faminto sem garfos com garfo
-						alteraEstado(Estado.FAMINTO_SEM_GARFOS);
-						/*
-						 * Adiciona uma notificao no componente de log sobre a
-						 * no ocorrncia do deadlock.
-						 */
-						this.txtLog
-								.append(String
-										.format(" %s evitou um deadlock soltando seu garfo! \n",
-												this.filosofo.getNome().trim()));
-					}
-				}
+				long inicio = System.nanoTime();
+				this.inicioFome = inicio;
+				this.estrategia.pegaGarfos(this);
+				comGarfos = true;
+				this.esperas.registra(System.nanoTime() - inicio);
+				this.inicioFome = -1L;
 				/*
 				 * Define o estado como comendo e aciona o mtodo sleep, que
 				 * far o filsofo pausar pela quantidade de segundos
 				 * determinada na constante TEMPO_COMENDO.
 				 */
 				alteraEstado(Estado.COMENDO);
-				sleep(TEMPO_COMENDO);
+				Thread.sleep(this.perfilComendo.sorteia());
+				this.refeicoes++;
 				/*
-				 * Libera os dois garfos usando o mtodo soltaGarfo, ele
-				 * notifica os outros filsofos sobre a disponibilidade dos
-				 * garfos.
+				 * Com lotes, o filsofo come de novo, sem pensar e sem soltar
+				 * os garfos, enquanto o lote permitir. Os vizinhos esperam no
+				 * mximo uma refeio alm da espera tolerada, e nenhuma
+				 * espera  registrada, j que no houve aquisio.
 				 */
-				this.getGarfoDireito().soltaGarfo();
-				this.getGarfoEsquerdo().soltaGarfo();
+				if (this.lote != null) {
+					int refeicoesLote = 1;
+					while (continuaLote(refeicoesLote)) {
+						Thread.sleep(this.perfilComendo.sorteia());
+						this.refeicoes++;
+						refeicoesLote++;
+					}
+					this.lote.encerra(esperaVizinhos());
+				}
+				/*
+				 * Libera os dois garfos atravs da estratgia, que notifica os
+				 * outros filsofos sobre a disponibilidade dos garfos.
+				 */
+				comGarfos = false;
+				this.estrategia.soltaGarfos(this);
+				this.posses++;
 			}
 			/*
 			 * Um bloco TRY/CATCH teve de ser feito porque o mtodo sleep pode
 			 * lanar uma exceo do tipo InterruptedException.
 			 */
 		} catch (InterruptedException excecao) {
-			excecao.printStackTrace();
+			// A interrupo indica que a mesa foi encerrada.
+		} finally {
+			/*
+			 * Os garfos em mos so soltos para que os vizinhos, que tambm
+			 * esto sendo encerrados, no fiquem esperando por eles.
+			 */
+			if (comGarfos) {
+				this.estrategia.soltaGarfos(this);
+			}
 		}
 	}
 }
@@ -1,124 +1,189 @@
 package br.com.uniara.entidade;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.uniara.constante.TipoGarfo;
 import br.com.uniara.ui.componente.JGarfo;
 
 /**
  * Essa classe representa os garfos que so os recursos pelos quais as threads
- * iro concorrer.
+ * iro concorrer.<br/>
+ * <br/>
+ * A forma de sincronizao fica a cargo das subclasses ( {@link GarfoMonitor},
+ * {@link GarfoAtomico} e {@link GarfoTabelado}, as duas ltimas sobre o
+ * protocolo de espera do {@link GarfoCas} ), escolhidas na montagem da mesa
+ * atravs do enum {@link TipoGarfo}.
  */
-public class Garfo {
+public abstract class Garfo {
 
-	private boolean ocupado = false;
-	private JGarfo jGarfo;
+	private static final AtomicReferenceFieldUpdater<Garfo, Filosofo> DONO = AtomicReferenceFieldUpdater
+			.newUpdater(Garfo.class, Filosofo.class, "dono");
 
+	private JGarfo jGarfo;
 	/**
-	 * Mtodo acessor da propriedade ocupado.
-	 * 
-	 * @return boolean - "true" caso o garfo em questo esteja ocupado.
+	 * Filsofo que segura o garfo, lido pela {@link VigiaMesa}.  apenas
+	 * informativo: a posse real  controlada pelas subclasses.
 	 */
-	public boolean isOcupado() {
-		return ocupado;
-	}
+	private volatile Filosofo dono;
+
+	private final LongAdder despertares = new LongAdder();
+	private final LongAdder despertaresEspurios = new LongAdder();
+	private final LongAdder entregas = new LongAdder();
 
 	/**
 	 * Construtor da classe garfo. Recebe alguns parmetros para configurao do
 	 * recurso.
-	 * 
-	 * @param garfo
+	 *
+	 * @param jGarfo
 	 *            {@link JGarfo} - Componente com a imagem.
 	 */
-	public Garfo(JGarfo jGarfo) {
+	protected Garfo(JGarfo jGarfo) {
 		this.jGarfo = jGarfo;
 	}
 
+	/**
+	 * Mtodo acessor da disponibilidade do garfo.
+	 *
+	 * @return boolean - "true" caso o garfo em questo esteja ocupado.
+	 */
+	public abstract boolean isOcupado();
+
 	/**
 	 * Associa um recurso com uma thread, no caso um garfo com um filsofo. Esse
-	 * mtodo espera at que o garfo seja desoculpado para peg-lo,
-	 * independentemente do tempo que isso demore. <br/>
-	 * O modificador synchronized  usado, pois se tratando de acesso  um
-	 * recurso por parte de mais de uma thread, deve-se garantir que apenas uma
-	 * thread por vez o acessar, evitando assim o deadlock.
+	 * mtodo espera at que o garfo seja desocupado para peg-lo,
+	 * independentemente do tempo que isso demore.
 	 */
-	public synchronized void pegaGarfo() {
-		/*
-		 * O lao abaixo vai "segurar" a execuo da thread enquanto o recurso
-		 * estiver em uso por outra thread.
-		 */
-		while (this.isOcupado()) {
-			try {
-				/*
-				 * Abaixo temos a chamada ao mtodo wait, que far com que a
-				 * thread em questo aguarde a liberao do recurso. Essa
-				 * chamada pode lanar uma exceo, por isso do bloco TRY/CATCH.
-				 */
-				wait();
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-		}
-		ocuparGarfo(true);
-	}
+	public abstract void pegaGarfo();
 
 	/**
 	 * Este mtodo  uma sobrecarga do anterior, pois tem o mesmo nome, mas
 	 * assinatura diferente (Parmetros diferentes).<br/>
 	 * Associa um recurso com uma thread, no caso um garfo com um filsofo. Esse
 	 * mtodo tenta pegar o garfo por um determinado espao de tempo.<br/>
-	 * O modificador synchronized tambm foi usado.
-	 * 
+	 * Caso a thread seja interrompida durante a espera, o mtodo retorna
+	 * "false" e o sinal de interrupo  restaurado, para que a prxima chamada
+	 * bloqueante do {@link Filosofo} o perceba.
+	 *
 	 * @param tempoLimite
-	 *            long - Tempo que o {@link Filosofo} tentar pegar o
-	 *            {@link Garfo}.
+	 *            long - Tempo em milisegundos que o {@link Filosofo} tentar
+	 *            pegar o {@link Garfo}.
 	 * @return boolean - "true" em caso de sucesso e "false" em caso de falha.
 	 */
-	public synchronized boolean pegaGarfo(long tempoLimite) {
-		// Atribui a hora atual em milisegundos  variavel.
-		long tempoInicial = System.currentTimeMillis();
-		/*
-		 * O lao abaixo vai "segurar" a execuo da thread enquanto o tempo
-		 * limite de execuo no for atingido.
-		 */
-		while (System.currentTimeMillis() - tempoInicial < tempoLimite) {
-
-			// Caso o garfo no esteja ocupado o filsofo o ocupa imediatamente.
-			if (!this.isOcupado()) {
-				ocuparGarfo(true);
-				return true;
-			}
+	public boolean pegaGarfo(long tempoLimite) {
+		try {
+			return tentaPegarGarfo(tempoLimite, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException excecao) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Tenta pegar o {@link Garfo} dentro do tempo informado, acordando assim
+	 * que ele for liberado.
+	 *
+	 * @param tempoLimite
+	 *            long - Tempo mximo de espera.
+	 * @param unidade
+	 *            {@link TimeUnit} - Unidade do parmetro tempoLimite.
+	 * @return boolean - "true" caso o garfo tenha sido pego e "false" caso o
+	 *         tempo tenha se esgotado.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida enquanto espera.
+	 */
+	public abstract boolean tentaPegarGarfo(long tempoLimite, TimeUnit unidade)
+			throws InterruptedException;
+
+	/**
+	 * Libera o {@link Garfo}, permitindo que outro filsofo o pegue.
+	 */
+	public abstract void soltaGarfo();
+
+	/**
+	 * Mtodo acessor do contador de despertares.
+	 *
+	 * @return long - Quantas vezes uma thread em espera por este garfo foi
+	 *         acordada (o fim do tempo limite no  contado).
+	 */
+	public long getDespertares() {
+		return this.despertares.sum();
+	}
+
+	/**
+	 * Mtodo acessor do contador de despertares esprios.
+	 *
+	 * @return long - Quantos dos despertares no resultaram na posse do garfo.
+	 */
+	public long getDespertaresEspurios() {
+		return this.despertaresEspurios.sum();
+	}
+
+	/**
+	 * Mtodo acessor do contador de entregas.
+	 *
+	 * @return long - Quantas vezes o garfo foi entregue diretamente, ao ser
+	 *         solto, a uma thread que o aguardava.
+	 */
+	public long getEntregas() {
+		return this.entregas.sum();
+	}
+
+	/**
+	 * Mtodo acessor do filsofo que segura o garfo.
+	 *
+	 * @return {@link Filosofo} - Dono atual, ou nulo caso o garfo esteja livre
+	 *         ou seja usado fora de uma {@link EstrategiaAquisicao}.
+	 */
+	public Filosofo getDono() {
+		return this.dono;
+	}
+
+	/**
+	 * Publica o dono do garfo. Chamado pela {@link EstrategiaAquisicao} logo
+	 * depois de pegar e logo antes de soltar o garfo, com uma escrita
+	 * ordenada (lazySet), sem lock e sem barreira completa. Subclasses que
+	 * guardam o estado fora do objeto podem guardar o dono junto dele.
+	 *
+	 * @param dono
+	 *            {@link Filosofo} - Novo dono, ou nulo ao soltar.
+	 */
+	void defineDono(Filosofo dono) {
+		DONO.lazySet(this, dono);
+	}
+
+	/**
+	 * Contabiliza o despertar de uma thread que aguardava este garfo.
+	 *
+	 * @param espurio
+	 *            boolean - "true" caso a thread no tenha conseguido o garfo.
+	 */
+	protected void registraDespertar(boolean espurio) {
+		this.despertares.increment();
+		if (espurio) {
+			this.despertaresEspurios.increment();
 		}
-		return false;
 	}
 
 	/**
-	 * Libera o {@link Garfo}, notificando todas as threads.
+	 * Contabiliza a entrega direta do garfo a uma thread em espera.
 	 */
-	public synchronized void soltaGarfo() {
-		ocuparGarfo(false);
+	protected void registraEntrega() {
+		this.entregas.increment();
 	}
 
 	/**
-	 * Mtodo que modifica o garfo e seu respectivo componente quanto 
-	 * disponibilidade. E por fim notifica todas as threads.
-	 * 
-	 * @param isOculpado
-	 *            boolean - Indica a disponibilidade do garfo e seu componente.
+	 * Modifica o componente do garfo, caso exista, quanto  disponibilidade.
+	 * O componente  redesenhado pelo renderizador da tela no prximo quadro,
+	 * portanto a thread do filsofo no pede repinturas.
+	 *
+	 * @param isOcupado
+	 *            boolean - Indica a disponibilidade do garfo.
 	 */
-	private void ocuparGarfo(boolean isOculpado) {
-		/*
-		 * Abaixo a thread define o recurso como ocupado ou liberado e altera a
-		 * imagem de exibio.
-		 */
+	protected void atualizaComponente(boolean isOcupado) {
 		if (this.jGarfo != null) {
-			this.jGarfo.setOcupado(isOculpado);
-			this.jGarfo.repaint();
+			this.jGarfo.setOcupado(isOcupado);
 		}
-		this.ocupado = isOculpado;
-
-		/*
-		 * Essa chamada faz com que todas as threads, que estiverem em espera,
-		 * voltem a concorrer pelo recurso em questo. No caso, far com que as
-		 * threads verifiquem novamente que o recurso est em uso.
-		 */
-		notifyAll();
 	}
 }
@@ -0,0 +1,46 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Implementao do {@link Garfo} sem monitor. A disponibilidade fica em uma
+ * palavra atmica do prprio objeto, alterada por compare-and-set (CAS); o
+ * spin limitado e a fila de espera so os do {@link GarfoCas}. Quem solta o
+ * garfo sempre consulta a fila.
+ */
+public class GarfoAtomico extends GarfoCas {
+
+	private static final int LIVRE = 0;
+	private static final int OCUPADO = 1;
+
+	private final AtomicInteger estado = new AtomicInteger(LIVRE);
+
+	/**
+	 * Construtor da classe GarfoAtomico. Recebe alguns parmetros para
+	 * configurao do recurso.
+	 *
+	 * @param jGarfo
+	 *            {@link JGarfo} - Componente com a imagem.
+	 */
+	public GarfoAtomico(JGarfo jGarfo) {
+		super(jGarfo);
+	}
+
+	@Override
+	public boolean isOcupado() {
+		return this.estado.get() == OCUPADO;
+	}
+
+	@Override
+	protected boolean tentaOcupar() {
+		return this.estado.get() == LIVRE
+				&& this.estado.compareAndSet(LIVRE, OCUPADO);
+	}
+
+	@Override
+	protected void libera() {
+		this.estado.set(LIVRE);
+	}
+}
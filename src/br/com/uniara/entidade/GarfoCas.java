@@ -0,0 +1,231 @@
+package br.com.uniara.entidade;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Base dos garfos sem monitor ( {@link GarfoAtomico} e {@link GarfoTabelado}
+ * ). A disponibilidade  alterada por compare-and-set (CAS) em uma palavra
+ * que fica a cargo da subclasse; aqui fica o protocolo de espera:<br/>
+ * <br/>
+ * 1 - Caminho rpido: sem disputa, pegar e soltar o garfo custam um nico CAS.
+ * <br/>
+ * 2 - Caminho lento: a thread tenta o CAS algumas vezes (spin limitado por
+ * QUANTIDADE_SPIN) e, se ainda no conseguir, entra na fila de espera e 
+ * estacionada com {@link LockSupport#park}. Quem solta o garfo acorda apenas o
+ * primeiro da fila.<br/>
+ * <br/>
+ * A subclasse informa como ocupar e liberar a palavra ( {@link #tentaOcupar()}
+ * e {@link #libera()} ) e pode evitar a consulta  fila quando ningum espera
+ * ( {@link #temEsperando()} e {@link #alteraEsperando(int)} ).
+ */
+public abstract class GarfoCas extends Garfo {
+
+	/**
+	 * Quantidade de tentativas de CAS antes de estacionar a thread.
+	 */
+	private static final int QUANTIDADE_SPIN = 64;
+
+	private final Queue<Thread> esperando = new ConcurrentLinkedQueue<Thread>();
+
+	/**
+	 * Construtor do garfo.
+	 *
+	 * @param jGarfo
+	 *            {@link JGarfo} - Componente com a imagem.
+	 */
+	protected GarfoCas(JGarfo jGarfo) {
+		super(jGarfo);
+	}
+
+	/**
+	 * Faz uma nica tentativa de ocupar o garfo, sem esperar.
+	 *
+	 * @return boolean - "true" caso o garfo estivesse livre e tenha sido
+	 *         ocupado.
+	 */
+	protected abstract boolean tentaOcupar();
+
+	/**
+	 * Libera o garfo ocupado pela thread atual.
+	 */
+	protected abstract void libera();
+
+	/**
+	 * Indica se alguma thread pode estar na fila de espera. Por padro a fila
+	 *  sempre consultada ao soltar o garfo.
+	 *
+	 * @return boolean - "false" apenas quando nenhuma thread aguarda o garfo.
+	 */
+	protected boolean temEsperando() {
+		return true;
+	}
+
+	/**
+	 * Chamado logo depois que uma thread entra na fila de espera e logo
+	 * depois que sai, para a subclasse que conta as threads em espera. Por
+	 * padro no faz nada.
+	 *
+	 * @param variacao
+	 *            int - 1 na entrada, -1 na sada.
+	 */
+	protected void alteraEsperando(int variacao) {
+	}
+
+	@Override
+	public void pegaGarfo() {
+		if (ocupa() || giraAteOcupar()) {
+			return;
+		}
+		Thread atual = Thread.currentThread();
+		boolean interrompida = false;
+		entraNaEspera(atual);
+		try {
+			/*
+			 * A thread entra na fila antes da nova tentativa, assim uma
+			 * liberao que ocorra entre a tentativa e o park no  perdida.
+			 */
+			boolean acordada = false;
+			while (!ocupa()) {
+				if (acordada) {
+					registraDespertar(true);
+				}
+				LockSupport.park(this);
+				// Sem limpar o sinal de interrupo o park no bloquearia mais.
+				interrompida |= Thread.interrupted();
+				acordada = true;
+			}
+			if (acordada) {
+				registraDespertar(false);
+			}
+		} finally {
+			saiDaEspera(atual);
+		}
+		if (interrompida) {
+			atual.interrupt();
+		}
+	}
+
+	@Override
+	public boolean tentaPegarGarfo(long tempoLimite, TimeUnit unidade)
+			throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		if (ocupa()) {
+			return true;
+		}
+		long restante = unidade.toNanos(tempoLimite);
+		// Sem tempo de espera a tentativa  nica, sem spin nem fila.
+		if (restante <= 0L) {
+			return false;
+		}
+		if (giraAteOcupar()) {
+			return true;
+		}
+		long prazo = System.nanoTime() + restante;
+		Thread atual = Thread.currentThread();
+		entraNaEspera(atual);
+		boolean pegou = false;
+		try {
+			boolean acordada = false;
+			while (!(pegou = ocupa())) {
+				if (acordada) {
+					registraDespertar(true);
+				}
+				if (restante <= 0L) {
+					return false;
+				}
+				LockSupport.parkNanos(this, restante);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				restante = prazo - System.nanoTime();
+				// O fim do tempo limite no  considerado um despertar.
+				acordada = restante > 0L;
+			}
+			if (acordada) {
+				registraDespertar(false);
+			}
+			return true;
+		} finally {
+			saiDaEspera(atual);
+			if (!pegou) {
+				/*
+				 * Esta thread pode ter sido a escolhida por um soltaGarfo e
+				 * desistiu; o aviso  repassado para o prximo da fila.
+				 */
+				acordaProximo();
+			}
+		}
+	}
+
+	@Override
+	public void soltaGarfo() {
+		atualizaComponente(false);
+		libera();
+		if (temEsperando()) {
+			acordaProximo();
+		}
+	}
+
+	/**
+	 * Faz uma nica tentativa de ocupar o garfo e, caso consiga, atualiza o
+	 * componente.
+	 *
+	 * @return boolean - "true" caso o garfo tenha sido ocupado.
+	 */
+	private boolean ocupa() {
+		if (tentaOcupar()) {
+			atualizaComponente(true);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tenta ocupar o garfo por no mximo QUANTIDADE_SPIN vezes, sem bloquear a
+	 * thread.
+	 *
+	 * @return boolean - "true" caso o garfo tenha sido ocupado.
+	 */
+	private boolean giraAteOcupar() {
+		for (int i = 0; i < QUANTIDADE_SPIN; i++) {
+			Thread.onSpinWait();
+			if (ocupa()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Coloca a thread na fila antes de avisar a subclasse: quem soltar o garfo
+	 * e encontrar algum em espera tambm a encontra na fila. Como a thread
+	 * ainda tenta ocupar o garfo depois disso, uma liberao anterior ao aviso
+	 * no  perdida.
+	 */
+	private void entraNaEspera(Thread atual) {
+		this.esperando.add(atual);
+		alteraEsperando(1);
+	}
+
+	private void saiDaEspera(Thread atual) {
+		this.esperando.remove(atual);
+		alteraEsperando(-1);
+	}
+
+	/**
+	 * Acorda a primeira thread da fila de espera, caso o garfo esteja livre.
+	 */
+	private void acordaProximo() {
+		Thread proxima = this.esperando.peek();
+		if (proxima != null && !isOcupado()) {
+			LockSupport.unpark(proxima);
+		}
+	}
+}
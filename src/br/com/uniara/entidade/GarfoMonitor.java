@@ -0,0 +1,210 @@
+package br.com.uniara.entidade;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Implementao do {@link Garfo} baseada no monitor do prprio objeto: o
+ * estado  protegido pelo modificador synchronized.<br/>
+ * <br/>
+ * As threads que encontram o garfo ocupado entram em uma fila (FIFO) e so
+ * estacionadas fora do monitor. Ao soltar o garfo, ele  entregue diretamente
+ * ao primeiro da fila, que  o nico acordado; pegar o garfo nunca acorda
+ * ningum. Isso substitui o notifyAll, que acordava todas as threads em espera
+ * a cada alterao do garfo s para que voltassem a dormir.
+ */
+public class GarfoMonitor extends Garfo {
+
+	/**
+	 * Representa uma thread na fila de espera do garfo.
+	 */
+	private static class Espera {
+
+		private final Thread thread = Thread.currentThread();
+		/**
+		 * Indica que o garfo foi entregue a esta thread por soltaGarfo().
+		 */
+		private volatile boolean concedido = false;
+	}
+
+	private volatile boolean ocupado = false;
+	private final Queue<Espera> fila = new ArrayDeque<Espera>();
+
+	/**
+	 * Mtodo acessor da propriedade ocupado.
+	 * 
+	 * @return boolean - "true" caso o garfo em questo esteja ocupado.
+	 */
+	@Override
+	public boolean isOcupado() {
+		return ocupado;
+	}
+
+	/**
+	 * Construtor da classe GarfoMonitor. Recebe alguns parmetros para
+	 * configurao do recurso.
+	 * 
+	 * @param jGarfo
+	 *            {@link JGarfo} - Componente com a imagem.
+	 */
+	public GarfoMonitor(JGarfo jGarfo) {
+		super(jGarfo);
+	}
+
+	/**
+	 * Associa um recurso com uma thread, no caso um garfo com um filsofo. Esse
+	 * mtodo espera at que o garfo seja desocupado para peg-lo,
+	 * independentemente do tempo que isso demore. <br/>
+	 * Caso a thread seja interrompida durante a espera, ela continua
+	 * aguardando e o sinal de interrupo  restaurado aps pegar o garfo.
+	 */
+	@Override
+	public void pegaGarfo() {
+		Espera espera;
+		synchronized (this) {
+			if (!this.isOcupado()) {
+				ocuparGarfo(true);
+				return;
+			}
+			espera = new Espera();
+			this.fila.add(espera);
+		}
+		boolean interrompida = false;
+		/*
+		 * O lao abaixo vai "segurar" a execuo da thread at que o recurso
+		 * seja entregue a ela por quem o soltar.
+		 */
+		while (!aguardaEntrega(espera, 0L)) {
+			interrompida |= Thread.interrupted();
+		}
+		if (interrompida) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Tenta pegar o {@link Garfo} dentro do tempo informado. A thread fica
+	 * estacionada fora do monitor do garfo, assim o mtodo soltaGarfo consegue
+	 * entreg-lo durante a espera e a thread  acordada assim que isso
+	 * acontece.
+	 * 
+	 * @param tempoLimite
+	 *            long - Tempo mximo de espera.
+	 * @param unidade
+	 *            {@link TimeUnit} - Unidade do parmetro tempoLimite.
+	 * @return boolean - "true" caso o garfo tenha sido pego e "false" caso o
+	 *         tempo tenha se esgotado.
+	 * @throws InterruptedException
+	 *             Caso a thread seja interrompida enquanto espera.
+	 */
+	@Override
+	public boolean tentaPegarGarfo(long tempoLimite, TimeUnit unidade)
+			throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		long restante = unidade.toNanos(tempoLimite);
+		Espera espera;
+		synchronized (this) {
+			if (!this.isOcupado()) {
+				ocuparGarfo(true);
+				return true;
+			}
+			if (restante <= 0L) {
+				return false;
+			}
+			espera = new Espera();
+			this.fila.add(espera);
+		}
+		// O prazo  calculado com nanoTime, que no sofre ajustes de relgio.
+		long prazo = System.nanoTime() + restante;
+		while (restante > 0L && !Thread.currentThread().isInterrupted()) {
+			if (aguardaEntrega(espera, restante)) {
+				return true;
+			}
+			restante = prazo - System.nanoTime();
+		}
+		/*
+		 * A desistncia  decidida dentro do monitor: se o garfo foi entregue
+		 * nesse meio tempo ele j pertence a esta thread.
+		 */
+		synchronized (this) {
+			if (!espera.concedido) {
+				this.fila.remove(espera);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Libera o {@link Garfo}. Caso exista alguma thread na fila, o garfo 
+	 * entregue  primeira delas, que  a nica acordada.
+	 */
+	@Override
+	public void soltaGarfo() {
+		Espera proxima;
+		synchronized (this) {
+			proxima = this.fila.poll();
+			if (proxima == null) {
+				ocuparGarfo(false);
+				return;
+			}
+			proxima.concedido = true;
+		}
+		registraEntrega();
+		LockSupport.unpark(proxima.thread);
+	}
+
+	/**
+	 * Estaciona a thread at que o garfo seja entregue a ela, o tempo se
+	 * esgote ou a thread seja interrompida.
+	 * 
+	 * @param espera
+	 *            {@link Espera} - Registro da thread na fila.
+	 * @param tempoLimite
+	 *            long - Tempo mximo em nanosegundos, zero para no limitar.
+	 * @return boolean - "true" caso o garfo tenha sido entregue.
+	 */
+	private boolean aguardaEntrega(Espera espera, long tempoLimite) {
+		long inicio = 0L;
+		if (tempoLimite > 0L) {
+			inicio = System.nanoTime();
+			LockSupport.parkNanos(this, tempoLimite);
+		} else {
+			LockSupport.park(this);
+		}
+		if (espera.concedido) {
+			registraDespertar(false);
+			return true;
+		}
+		// O fim do tempo limite no  considerado um despertar.
+		if (tempoLimite == 0L || System.nanoTime() - inicio < tempoLimite) {
+			registraDespertar(true);
+		}
+		return false;
+	}
+
+	/**
+	 * Mtodo que modifica o garfo e seu respectivo componente quanto 
+	 * disponibilidade. Deve ser chamado dentro do monitor do garfo.
+	 * 
+	 * @param isOculpado
+	 *            boolean - Indica a disponibilidade do garfo e seu componente.
+	 */
+	private void ocuparGarfo(boolean isOculpado) {
+		/*
+		 * Abaixo a thread define o recurso como ocupado ou liberado e altera a
+		 * imagem de exibio.
+		 */
+		atualizaComponente(isOculpado);
+		this.ocupado = isOculpado;
+	}
+}
@@ -0,0 +1,85 @@
+package br.com.uniara.entidade;
+
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Implementao do {@link Garfo} cujo estado fica em uma {@link TabelaGarfos}
+ * compartilhada pela mesa. O objeto guarda apenas a tabela e o ndice do
+ * garfo; a disponibilidade, o contador de threads em espera e o dono ficam na
+ * faixa do garfo na tabela, isolada dos garfos vizinhos.<br/>
+ * <br/>
+ * O protocolo de espera  o do {@link GarfoCas}, como no {@link GarfoAtomico}.
+ * A diferena  que soltar o garfo s consulta a fila quando o contador da
+ * tabela indica alguma thread em espera, portanto sem disputa pegar e soltar
+ * o garfo tocam apenas a faixa dele.
+ */
+public class GarfoTabelado extends GarfoCas {
+
+	private final TabelaGarfos tabela;
+	private final int indice;
+
+	/**
+	 * Construtor da classe GarfoTabelado.
+	 *
+	 * @param tabela
+	 *            {@link TabelaGarfos} - Tabela com o estado dos garfos da
+	 *            mesa.
+	 * @param indice
+	 *            int - Posio do garfo na tabela.
+	 * @param jGarfo
+	 *            {@link JGarfo} - Componente com a imagem.
+	 */
+	public GarfoTabelado(TabelaGarfos tabela, int indice, JGarfo jGarfo) {
+		super(jGarfo);
+		if (indice < 0 || indice >= tabela.getQuantidade()) {
+			throw new IllegalArgumentException("ndice de garfo invlido: "
+					+ indice);
+		}
+		this.tabela = tabela;
+		this.indice = indice;
+	}
+
+	/**
+	 * Mtodo acessor do ndice do garfo.
+	 *
+	 * @return int - Posio do garfo na {@link TabelaGarfos}.
+	 */
+	public int getIndice() {
+		return indice;
+	}
+
+	@Override
+	public boolean isOcupado() {
+		return this.tabela.isOcupado(this.indice);
+	}
+
+	@Override
+	protected boolean tentaOcupar() {
+		return this.tabela.tentaOcupar(this.indice);
+	}
+
+	@Override
+	protected void libera() {
+		this.tabela.libera(this.indice);
+	}
+
+	@Override
+	protected boolean temEsperando() {
+		return this.tabela.temEsperando(this.indice);
+	}
+
+	@Override
+	protected void alteraEsperando(int variacao) {
+		this.tabela.alteraEsperando(this.indice, variacao);
+	}
+
+	@Override
+	public Filosofo getDono() {
+		return this.tabela.getDono(this.indice);
+	}
+
+	@Override
+	void defineDono(Filosofo dono) {
+		this.tabela.defineDono(this.indice, dono);
+	}
+}
@@ -0,0 +1,78 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decide quantas refeies seguidas um filsofo faz sem soltar os garfos.<br/>
+ * <br/>
+ * Cada refeio extra no mesmo lote economiza a aquisio e a liberao dos
+ * dois garfos, mas prolonga a espera dos vizinhos famintos. O limite do lote
+ * (K)  ajustado a cada liberao, como em um controle de congestionamento
+ * (AIMD): cresce em uma refeio enquanto nenhum vizinho esperou mais que a
+ * espera tolerada e cai pela metade quando algum esperou. Dentro do lote, o
+ * filsofo tambm para assim que um vizinho passa da espera tolerada, sem
+ * esperar pelo ajuste.<br/>
+ * <br/>
+ * Cada filsofo tem o seu, usado apenas pela sua thread; o limite atual pode
+ * ser lido por outras threads.
+ */
+final class LoteAdaptativo {
+
+	private final int maximo;
+	private final long esperaTolerada;
+
+	private volatile int limite = 1;
+	private long maiorEspera = 0L;
+
+	/**
+	 * Cria o controle de lotes de um filsofo.
+	 *
+	 * @param maximo
+	 *            int - Maior limite de refeies por lote.
+	 * @param esperaTolerada
+	 *            long - Maior espera de um vizinho, em milisegundos.
+	 */
+	LoteAdaptativo(int maximo, long esperaTolerada) {
+		this.maximo = maximo;
+		this.esperaTolerada = TimeUnit.MILLISECONDS.toNanos(esperaTolerada);
+	}
+
+	/**
+	 * Decide se o filsofo faz mais uma refeio sem soltar os garfos.
+	 *
+	 * @param refeicoes
+	 *            int - Refeies j feitas no lote.
+	 * @param esperaVizinhos
+	 *            long - Maior fome atual dos vizinhos, em nanossegundos.
+	 * @return boolean - "true" para continuar com os garfos.
+	 */
+	boolean continua(int refeicoes, long esperaVizinhos) {
+		this.maiorEspera = Math.max(this.maiorEspera, esperaVizinhos);
+		return refeicoes < this.limite && esperaVizinhos <= this.esperaTolerada;
+	}
+
+	/**
+	 * Ajusta o limite ao encerrar o lote, antes de soltar os garfos.
+	 *
+	 * @param esperaVizinhos
+	 *            long - Maior fome atual dos vizinhos, em nanossegundos.
+	 */
+	void encerra(long esperaVizinhos) {
+		long maior = Math.max(this.maiorEspera, esperaVizinhos);
+		if (maior > this.esperaTolerada) {
+			this.limite = Math.max(1, this.limite / 2);
+		} else if (this.limite < this.maximo) {
+			this.limite++;
+		}
+		this.maiorEspera = 0L;
+	}
+
+	/**
+	 * Mtodo acessor do limite atual.
+	 *
+	 * @return int - Refeies permitidas no prximo lote.
+	 */
+	int getLimite() {
+		return this.limite;
+	}
+}
@@ -0,0 +1,405 @@
+package br.com.uniara.entidade;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import br.com.uniara.constante.ModoExecucao;
+import br.com.uniara.constante.TipoTempo;
+import br.com.uniara.registro.DiarioEventos;
+import br.com.uniara.registro.HistogramaLatencia;
+import br.com.uniara.registro.RegistroEventos;
+import br.com.uniara.ui.componente.JFilosofo;
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Essa classe representa a mesa: um anel de N filsofos e N garfos montado a
+ * partir de uma {@link ConfiguracaoMesa}.<br/>
+ * <br/>
+ * O garfo de ndice i fica entre o filsofo i (mo esquerda) e o filsofo i +
+ * 1 (mo direita), fechando o anel no ltimo filsofo. Os componentes visuais
+ * so opcionais, portanto a mesa pode ser executada sem interface grfica.
+ * Cada filsofo  executado por uma thread do {@link ModoExecucao}
+ * configurado e obtm os garfos pela mesma {@link EstrategiaAquisicao}. A mesa
+ * pode ser pausada e retomada pelo seu {@link ControlePausa} e, salvo quando
+ * desativada na configurao,  observada por uma {@link VigiaMesa}, que
+ * reporta deadlocks e livelocks.
+ */
+public class Mesa {
+
+	private final ConfiguracaoMesa configuracao;
+	private final Garfo[] garfos;
+	private final List<Filosofo> filosofos;
+	private final List<Thread> threads;
+	private final ControlePausa controlePausa;
+	private final EstrategiaAquisicao estrategia;
+	private final VigiaMesa vigia;
+
+	private boolean iniciada = false;
+
+	/**
+	 * Constri uma mesa sem interface grfica.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa.
+	 */
+	public Mesa(ConfiguracaoMesa configuracao) {
+		this(configuracao, null, null, null);
+	}
+
+	/**
+	 * Constri uma mesa associando os filsofos e garfos aos componentes
+	 * informados. Os vetores de componentes, quando informados, devem ter o
+	 * tamanho da mesa.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa.
+	 * @param jFilosofos
+	 *            {@link JFilosofo}[] - Componentes dos filsofos, pode ser
+	 *            nulo.
+	 * @param jGarfos
+	 *            {@link JGarfo}[] - Componentes dos garfos, pode ser nulo.
+	 * @param registro
+	 *            {@link RegistroEventos} - Buffer dos eventos do log, pode ser
+	 *            nulo.
+	 */
+	public Mesa(ConfiguracaoMesa configuracao, JFilosofo[] jFilosofos,
+			JGarfo[] jGarfos, RegistroEventos registro) {
+		this(configuracao, jFilosofos, jGarfos, registro, null);
+	}
+
+	/**
+	 * Constri uma mesa que grava a execuo em um {@link DiarioEventos}: as
+	 * alteraes de estado e os garfos pegos e soltos por cada filsofo.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa.
+	 * @param jFilosofos
+	 *            {@link JFilosofo}[] - Componentes dos filsofos, pode ser
+	 *            nulo.
+	 * @param jGarfos
+	 *            {@link JGarfo}[] - Componentes dos garfos, pode ser nulo.
+	 * @param registro
+	 *            {@link RegistroEventos} - Buffer dos eventos do log, pode ser
+	 *            nulo.
+	 * @param diario
+	 *            {@link DiarioEventos} - Dirio da execuo, criado com a
+	 *            quantidade de filsofos da mesa; pode ser nulo.
+	 */
+	public Mesa(ConfiguracaoMesa configuracao, JFilosofo[] jFilosofos,
+			JGarfo[] jGarfos, RegistroEventos registro, DiarioEventos diario) {
+		int quantidade = configuracao.getQuantidadeFilosofos();
+		verificaComponentes(jFilosofos, quantidade);
+		verificaComponentes(jGarfos, quantidade);
+		if (diario != null && diario.getQuantidade() != quantidade) {
+			throw new IllegalArgumentException(String.format(
+					"Dirio criado para %d filsofos, a mesa tem %d.",
+					diario.getQuantidade(), quantidade));
+		}
+		this.configuracao = configuracao;
+
+		// Criao dos recursos:
+		this.garfos = configuracao.getTipoGarfo().criaGarfos(quantidade,
+				jGarfos);
+
+		this.controlePausa = new ControlePausa(quantidade);
+		this.estrategia = configuracao.getTipoEstrategia().criaEstrategia(
+				quantidade);
+
+		// Criao das threads, cada uma entre o garfo anterior e o seu:
+		List<Filosofo> lista = new ArrayList<Filosofo>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			JFilosofo jFilosofo = jFilosofos == null ? null : jFilosofos[i];
+			String nome = jFilosofo == null ? "Filsofo " + (i + 1)
+					: jFilosofo.getNome().trim();
+			Filosofo filosofo = new Filosofo(i, nome, this.getGarfoDireito(i),
+					this.getGarfoEsquerdo(i), jFilosofo, registro,
+					this.controlePausa);
+			filosofo.definePerfis(
+					configuracao.getPerfil(TipoTempo.PENSANDO, i),
+					configuracao.getPerfil(TipoTempo.COMENDO, i),
+					configuracao.getPerfil(TipoTempo.GARFO, i));
+			filosofo.defineEstrategia(this.estrategia);
+			filosofo.defineRecuo(configuracao.getRecuoMinimo(),
+					configuracao.getRecuoMaximo());
+			filosofo.defineDiario(diario);
+			lista.add(filosofo);
+		}
+		for (int i = 0; i < quantidade; i++) {
+			lista.get(i).defineLote(configuracao.getLoteMaximo(),
+					configuracao.getEsperaLote(),
+					lista.get((i + quantidade - 1) % quantidade),
+					lista.get((i + 1) % quantidade));
+		}
+		this.filosofos = Collections.unmodifiableList(lista);
+		this.threads = new ArrayList<Thread>(quantidade);
+		this.vigia = configuracao.getIntervaloVigia() > 0L ? new VigiaMesa(
+				this.filosofos, configuracao.getIntervaloVigia(), Math.max(
+						configuracao.getIntervaloVigia(),
+						configuracao.getJanelaVigia()), System.err) : null;
+	}
+
+	/**
+	 * Garante que o vetor de componentes, quando informado, tenha um componente
+	 * por lugar da mesa.
+	 *
+	 * @param componentes
+	 *            {@link Object}[] - Componentes informados, pode ser nulo.
+	 * @param quantidade
+	 *            int - Quantidade de lugares da mesa.
+	 */
+	private static void verificaComponentes(Object[] componentes,
+			int quantidade) {
+		if (componentes != null && componentes.length != quantidade) {
+			throw new IllegalArgumentException(String.format(
+					"Esperados %d componentes, recebidos %d.", quantidade,
+					componentes.length));
+		}
+	}
+
+	/**
+	 * Mtodo acessor da configurao da mesa.
+	 *
+	 * @return {@link ConfiguracaoMesa} - Parmetros usados na montagem.
+	 */
+	public ConfiguracaoMesa getConfiguracao() {
+		return configuracao;
+	}
+
+	/**
+	 * Mtodo acessor do controle de pausa da mesa.
+	 *
+	 * @return {@link ControlePausa} - Controle usado por todos os filsofos.
+	 */
+	public ControlePausa getControlePausa() {
+		return controlePausa;
+	}
+
+	/**
+	 * Mtodo acessor da estratgia de aquisio dos garfos.
+	 *
+	 * @return {@link EstrategiaAquisicao} - Estratgia compartilhada pelos
+	 *         filsofos, com o contador de falhas.
+	 */
+	public EstrategiaAquisicao getEstrategia() {
+		return estrategia;
+	}
+
+	/**
+	 * Mtodo acessor da vigia da mesa.
+	 *
+	 * @return {@link VigiaMesa} - Vigia de deadlocks e livelocks, ou nulo
+	 *         caso esteja desativada na configurao.
+	 */
+	public VigiaMesa getVigia() {
+		return vigia;
+	}
+
+	/**
+	 * Mtodo acessor da lista de filsofos.
+	 *
+	 * @return {@link List}<{@link Filosofo}> - Filsofos na ordem da mesa.
+	 */
+	public List<Filosofo> getFilosofos() {
+		return filosofos;
+	}
+
+	/**
+	 * Mtodo acessor da lista de threads que executam os filsofos.
+	 *
+	 * @return {@link List}<{@link Thread}> - Threads na ordem da mesa, vazia
+	 *         antes da chamada de inicia().
+	 */
+	public synchronized List<Thread> getThreads() {
+		return Collections.unmodifiableList(new ArrayList<Thread>(this.threads));
+	}
+
+	/**
+	 * Mtodo acessor do garfo de ndice informado.
+	 *
+	 * @param indice
+	 *            int - Posio do garfo na mesa.
+	 * @return {@link Garfo} - O garfo da posio.
+	 */
+	public Garfo getGarfo(int indice) {
+		return this.garfos[indice];
+	}
+
+	/**
+	 * Retorna o garfo da "mo" direita do filsofo de ndice informado.
+	 *
+	 * @param indiceFilosofo
+	 *            int - Posio do filsofo na mesa.
+	 * @return {@link Garfo} - O garfo anterior ao filsofo no anel.
+	 */
+	public Garfo getGarfoDireito(int indiceFilosofo) {
+		return this.garfos[(indiceFilosofo + this.garfos.length - 1)
+				% this.garfos.length];
+	}
+
+	/**
+	 * Retorna o garfo da "mo" esquerda do filsofo de ndice informado.
+	 *
+	 * @param indiceFilosofo
+	 *            int - Posio do filsofo na mesa.
+	 * @return {@link Garfo} - O garfo de mesmo ndice do filsofo.
+	 */
+	public Garfo getGarfoEsquerdo(int indiceFilosofo) {
+		return this.garfos[indiceFilosofo];
+	}
+
+	/**
+	 * Retorna a quantidade de lugares da mesa.
+	 *
+	 * @return int - Quantidade de filsofos (e de garfos).
+	 */
+	public int getQuantidade() {
+		return this.garfos.length;
+	}
+
+	/**
+	 * Soma as refeies de todos os filsofos.
+	 *
+	 * @return long - Total de refeies feitas na mesa.
+	 */
+	public long getTotalRefeicoes() {
+		long total = 0L;
+		for (Filosofo filosofo : this.filosofos) {
+			total += filosofo.getRefeicoes();
+		}
+		return total;
+	}
+
+	/**
+	 * Soma as posses dos garfos de todos os filsofos.
+	 *
+	 * @return long - Quantas vezes os filsofos pegaram e soltaram os dois
+	 *         garfos; menor que o total de refeies quando h lotes.
+	 */
+	public long getTotalPosses() {
+		long total = 0L;
+		for (Filosofo filosofo : this.filosofos) {
+			total += filosofo.getPosses();
+		}
+		return total;
+	}
+
+	/**
+	 * Calcula o ndice de justia de Jain sobre as refeies dos filsofos:
+	 * (soma)^2 / (N * soma dos quadrados). Vale 1 quando todos comeram o mesmo
+	 * tanto e 1/N quando apenas um filsofo comeu. Com perfis de tempo
+	 * diferentes por filsofo, parte da diferena  esperada.
+	 *
+	 * @return double - ndice entre 1/N e 1, ou 1 antes da primeira refeio.
+	 */
+	public double getIndiceJustica() {
+		double soma = 0.0;
+		double somaQuadrados = 0.0;
+		for (Filosofo filosofo : this.filosofos) {
+			double refeicoes = filosofo.getRefeicoes();
+			soma += refeicoes;
+			somaQuadrados += refeicoes * refeicoes;
+		}
+		if (somaQuadrados == 0.0) {
+			return 1.0;
+		}
+		return soma * soma / (this.filosofos.size() * somaQuadrados);
+	}
+
+	/**
+	 * Retorna a maior fome da mesa: a maior espera entre ficar faminto e
+	 * comer j concluda ou, se for maior, a fome de quem ainda est faminto.
+	 * Um filsofo que nunca consegue comer s aparece na segunda.
+	 *
+	 * @param agora
+	 *            long - Instante de referncia, em System.nanoTime().
+	 * @return long - Maior fome em nanossegundos.
+	 */
+	public long getMaiorFome(long agora) {
+		long maior = 0L;
+		for (Filosofo filosofo : this.filosofos) {
+			maior = Math.max(maior, filosofo.getEsperas().getMaximo());
+			maior = Math.max(maior, filosofo.getFomeAtual(agora));
+		}
+		return maior;
+	}
+
+	/**
+	 * Rene as esperas de todos os filsofos em um nico histograma.
+	 *
+	 * @return {@link HistogramaLatencia} - Cpia com as esperas da mesa.
+	 */
+	public HistogramaLatencia getEsperas() {
+		HistogramaLatencia esperas = new HistogramaLatencia();
+		for (Filosofo filosofo : this.filosofos) {
+			esperas.adiciona(filosofo.getEsperas());
+		}
+		return esperas;
+	}
+
+	/**
+	 * Mtodo acessor que indica se a mesa j foi iniciada.
+	 *
+	 * @return boolean - "true" aps a chamada de inicia().
+	 */
+	public boolean isIniciada() {
+		return iniciada;
+	}
+
+	/**
+	 * Cria e inicia as threads de todos os filsofos.
+	 */
+	public synchronized void inicia() {
+		if (this.iniciada) {
+			throw new IllegalStateException("A mesa j foi iniciada.");
+		}
+		ModoExecucao modo = this.configuracao.getModoExecucao();
+		for (Filosofo filosofo : this.filosofos) {
+			Thread thread = modo.criaThread(filosofo, filosofo.getNome());
+			this.threads.add(thread);
+		}
+		this.controlePausa.defineThreads(this.threads);
+		for (Thread thread : this.threads) {
+			thread.start();
+		}
+		if (this.vigia != null) {
+			this.vigia.inicia();
+		}
+		this.iniciada = true;
+	}
+
+	/**
+	 * Solicita a pausa da mesa. Os filsofos param no prximo ponto seguro,
+	 * sem segurar garfos.
+	 */
+	public void pausa() {
+		this.controlePausa.pausa();
+	}
+
+	/**
+	 * Retoma a mesa pausada, liberando todos os filsofos juntos.
+	 */
+	public void retoma() {
+		this.controlePausa.retoma();
+	}
+
+	/**
+	 * Interrompe a vigia e as threads de todos os filsofos e aguarda o seu
+	 * trmino.
+	 *
+	 * @throws InterruptedException
+	 *             Caso a thread que encerra a mesa seja interrompida.
+	 */
+	public void encerra() throws InterruptedException {
+		if (this.vigia != null) {
+			this.vigia.para();
+		}
+		List<Thread> threads = this.getThreads();
+		for (Thread thread : threads) {
+			thread.interrupt();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+}
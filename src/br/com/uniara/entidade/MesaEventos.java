@@ -0,0 +1,314 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoTempo;
+
+/**
+ * Mesa sem threads bloqueadas: cada filsofo  uma mquina de estados,
+ * baseada nos valores de {@link Estado}, avanada por eventos em um pool fixo
+ * de threads (por padro uma por ncleo).<br/>
+ * <br/>
+ * Os eventos so de dois tipos: o fim de um tempo (pensar, comer ou esperar o
+ * segundo garfo), agendado no prprio pool, e a liberao de um garfo, que
+ * avisa os dois filsofos vizinhos. O algoritmo  o mesmo do {@link Filosofo}
+ * (garfo direito, depois o esquerdo com tempo limite, soltando o direito
+ * caso o tempo se esgote), mas nenhuma thread fica parada esperando: uma
+ * tentativa sem sucesso apenas encerra o passo, e o prximo evento reavalia o
+ * estado.<br/>
+ * <br/>
+ * Os eventos de um mesmo filsofo nunca so processados em paralelo; eventos
+ * que chegam durante um passo fazem a mquina ser avaliada novamente ao seu
+ * final.
+ */
+public class MesaEventos {
+
+	/**
+	 * Mquina de estados de um lugar da mesa.
+	 */
+	private final class Maquina implements Runnable {
+
+		private final Garfo garfoDireito;
+		private final Garfo garfoEsquerdo;
+		private final int esquerda;
+		private final int direita;
+		private final PerfilTempo perfilPensando;
+		private final PerfilTempo perfilComendo;
+		private final PerfilTempo perfilPegarGarfoSecundario;
+
+		/**
+		 * Quantidade de eventos ainda no processados. A mquina  enviada ao
+		 * pool apenas quando o valor passa de zero para um.
+		 */
+		private final AtomicInteger pendentes = new AtomicInteger();
+
+		private Estado estado = Estado.PENSANDO;
+		/**
+		 * Instante, em nanoTime, em que o estado atual expira.
+		 */
+		private long prazo;
+		private volatile long refeicoes = 0L;
+
+		private Maquina(int indice, ConfiguracaoMesa configuracao) {
+			int quantidade = configuracao.getQuantidadeFilosofos();
+			this.garfoDireito = garfos[(indice + quantidade - 1) % quantidade];
+			this.garfoEsquerdo = garfos[indice];
+			this.direita = (indice + quantidade - 1) % quantidade;
+			this.esquerda = (indice + 1) % quantidade;
+			this.perfilPensando = configuracao.getPerfil(TipoTempo.PENSANDO,
+					indice);
+			this.perfilComendo = configuracao.getPerfil(TipoTempo.COMENDO,
+					indice);
+			this.perfilPegarGarfoSecundario = configuracao.getPerfil(
+					TipoTempo.GARFO, indice);
+		}
+
+		/**
+		 * Registra um evento para esta mquina.
+		 */
+		private void sinaliza() {
+			if (this.pendentes.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		/**
+		 * Agenda um evento para o instante em que o estado atual expira.
+		 *
+		 * @param tempo
+		 *            long - Durao do estado, em milisegundos.
+		 */
+		private void expiraEm(long tempo) {
+			this.prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tempo);
+			executor.schedule(new Runnable() {
+				@Override
+				public void run() {
+					sinaliza();
+				}
+			}, tempo, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public void run() {
+			int processados;
+			do {
+				processados = this.pendentes.get();
+				avanca();
+			} while (this.pendentes.addAndGet(-processados) != 0);
+		}
+
+		/**
+		 * Avana a mquina o quanto for possvel a partir do estado atual.
+		 */
+		private void avanca() {
+			if (encerrada) {
+				return;
+			}
+			long agora = System.nanoTime();
+			while (true) {
+				switch (this.estado) {
+				case PENSANDO:
+					if (agora - this.prazo < 0L) {
+						return;
+					}
+					this.estado = Estado.FAMINTO_SEM_GARFOS;
+					break;
+				case FAMINTO_SEM_GARFOS:
+					if (!tenta(this.garfoDireito)) {
+						// Aguarda o aviso de liberao do garfo direito.
+						return;
+					}
+					this.estado = Estado.FAMINTO_COM_GARFO;
+					expiraEm(this.perfilPegarGarfoSecundario.sorteia());
+					break;
+				case FAMINTO_COM_GARFO:
+					if (tenta(this.garfoEsquerdo)) {
+						this.estado = Estado.COMENDO;
+						expiraEm(this.perfilComendo.sorteia());
+						return;
+					}
+					if (agora - this.prazo < 0L) {
+						// Aguarda o garfo esquerdo ou o fim do tempo limite.
+						return;
+					}
+					// Evita o deadlock soltando o garfo direito.
+					this.estado = Estado.FAMINTO_SEM_GARFOS;
+					solta(this.garfoDireito, this.direita);
+					break;
+				case COMENDO:
+				default:
+					if (agora - this.prazo < 0L) {
+						return;
+					}
+					this.refeicoes++;
+					this.estado = Estado.PENSANDO;
+					solta(this.garfoDireito, this.direita);
+					solta(this.garfoEsquerdo, this.esquerda);
+					expiraEm(this.perfilPensando.sorteia());
+					return;
+				}
+			}
+		}
+	}
+
+	private final Garfo[] garfos;
+	private final Maquina[] maquinas;
+	private final int quantidadeThreads;
+
+	private ScheduledThreadPoolExecutor executor;
+	private volatile boolean encerrada = false;
+
+	/**
+	 * Constri a mesa com uma thread por ncleo disponvel.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa. O modo de
+	 *            execuo  ignorado, j que os filsofos no tm thread
+	 *            prpria.
+	 */
+	public MesaEventos(ConfiguracaoMesa configuracao) {
+		this(configuracao, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constri a mesa com a quantidade de threads informada.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa.
+	 * @param quantidadeThreads
+	 *            int - Tamanho do pool que executa os eventos.
+	 */
+	public MesaEventos(ConfiguracaoMesa configuracao, int quantidadeThreads) {
+		if (quantidadeThreads < 1) {
+			throw new IllegalArgumentException(
+					"O pool precisa de pelo menos uma thread: "
+							+ quantidadeThreads);
+		}
+		int quantidade = configuracao.getQuantidadeFilosofos();
+		this.quantidadeThreads = quantidadeThreads;
+		this.garfos = configuracao.getTipoGarfo().criaGarfos(quantidade, null);
+		this.maquinas = new Maquina[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			this.maquinas[i] = new Maquina(i, configuracao);
+		}
+	}
+
+	/**
+	 * Faz uma nica tentativa, sem espera, de pegar o garfo.
+	 *
+	 * @param garfo
+	 *            {@link Garfo} - O garfo desejado.
+	 * @return boolean - "true" caso o garfo tenha sido pego.
+	 */
+	private static boolean tenta(Garfo garfo) {
+		try {
+			return garfo.tentaPegarGarfo(0L, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException excecao) {
+			// O pool est sendo encerrado.
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Solta o garfo e avisa o vizinho que tambm o utiliza.
+	 *
+	 * @param garfo
+	 *            {@link Garfo} - O garfo liberado.
+	 * @param vizinho
+	 *            int - ndice do outro filsofo que usa o garfo.
+	 */
+	private void solta(Garfo garfo, int vizinho) {
+		garfo.soltaGarfo();
+		this.maquinas[vizinho].sinaliza();
+	}
+
+	/**
+	 * Retorna a quantidade de lugares da mesa.
+	 *
+	 * @return int - Quantidade de filsofos (e de garfos).
+	 */
+	public int getQuantidade() {
+		return this.maquinas.length;
+	}
+
+	/**
+	 * Mtodo acessor do tamanho do pool.
+	 *
+	 * @return int - Quantidade de threads que executam os eventos.
+	 */
+	public int getQuantidadeThreads() {
+		return quantidadeThreads;
+	}
+
+	/**
+	 * Retorna as refeies do filsofo de ndice informado.
+	 *
+	 * @param indice
+	 *            int - Posio do filsofo na mesa.
+	 * @return long - Quantas vezes o filsofo comeu.
+	 */
+	public long getRefeicoes(int indice) {
+		return this.maquinas[indice].refeicoes;
+	}
+
+	/**
+	 * Soma as refeies de todos os filsofos.
+	 *
+	 * @return long - Total de refeies feitas na mesa.
+	 */
+	public long getTotalRefeicoes() {
+		long total = 0L;
+		for (Maquina maquina : this.maquinas) {
+			total += maquina.refeicoes;
+		}
+		return total;
+	}
+
+	/**
+	 * Cria o pool e agenda o primeiro evento de cada filsofo, que comea
+	 * pensando.
+	 */
+	public synchronized void inicia() {
+		if (this.executor != null) {
+			throw new IllegalStateException("A mesa j foi iniciada.");
+		}
+		final AtomicInteger contador = new AtomicInteger();
+		this.executor = new ScheduledThreadPoolExecutor(this.quantidadeThreads,
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable tarefa) {
+						Thread thread = new Thread(tarefa, "Mesa-eventos-"
+								+ contador.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		this.executor.setRemoveOnCancelPolicy(true);
+		for (Maquina maquina : this.maquinas) {
+			maquina.expiraEm(maquina.perfilPensando.sorteia());
+		}
+	}
+
+	/**
+	 * Interrompe o processamento de eventos e aguarda o trmino do pool.
+	 *
+	 * @throws InterruptedException
+	 *             Caso a thread que encerra a mesa seja interrompida.
+	 */
+	public void encerra() throws InterruptedException {
+		this.encerrada = true;
+		ScheduledThreadPoolExecutor executor;
+		synchronized (this) {
+			executor = this.executor;
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+	}
+}
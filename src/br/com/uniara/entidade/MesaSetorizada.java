@@ -0,0 +1,499 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.constante.TipoTempo;
+
+/**
+ * Mesa dividida em setores: o anel  partido em arcos contguos de filsofos
+ * e cada arco  executado por uma nica thread, por padro uma por ncleo.
+ * <br/>
+ * <br/>
+ * Como cada filsofo s divide garfos com os dois vizinhos, quase todos os
+ * garfos de um arco so usados apenas pela thread do setor e ficam em um
+ * vetor comum, sem CAS, sem monitor e sem barreiras. Apenas o garfo entre o
+ * ltimo filsofo de um arco e o primeiro do arco seguinte  compartilhado
+ * entre threads; esses garfos de fronteira so do {@link TipoGarfo}
+ * configurado. Assim o trfego entre ncleos cresce com a quantidade de
+ * setores, e no com a de filsofos, e a vazo acompanha os ncleos.<br/>
+ * <br/>
+ * Os filsofos so mquinas de estados, como na {@link MesaEventos}, com o
+ * mesmo algoritmo do {@link Filosofo}: garfo direito, depois o esquerdo com
+ * tempo limite, soltando o direito caso o tempo se esgote. A thread do setor
+ * percorre o arco avanando cada mquina e, quando nenhuma avana, dorme at
+ * o prximo prazo ou at que o setor vizinho solte um garfo de fronteira.<br/>
+ * <br/>
+ * O Java no permite fixar uma thread em um ncleo; a distribuio fica com
+ * o sistema operacional, que tende a manter cada thread ocupada no mesmo
+ * ncleo quando h um setor por ncleo. O que a mesa garante  que cada
+ * filsofo, e cada garfo interno,  tocado por uma nica thread.
+ */
+public class MesaSetorizada {
+
+	/**
+	 * Arco contguo de filsofos executado por uma nica thread.
+	 */
+	private final class Setor implements Runnable {
+
+		private final int inicio;
+		private final int fim;
+		/**
+		 * Garfos internos do arco, indexados a partir do primeiro filsofo.
+		 * Lidos e escritos apenas pela thread do setor.
+		 */
+		private final boolean[] ocupados;
+		private Maquina[] maquinas;
+		private Thread thread;
+		private volatile boolean dormindo = false;
+
+		private long operacoesLocais = 0L;
+		private long operacoesFronteira = 0L;
+
+		private Setor(int inicio, int fim) {
+			this.inicio = inicio;
+			this.fim = fim;
+			this.ocupados = new boolean[fim - inicio];
+		}
+
+		@Override
+		public void run() {
+			while (!encerrada) {
+				long agora = System.nanoTime();
+				long proximoPrazo = 0L;
+				boolean temPrazo = false;
+				boolean avancou = false;
+				for (Maquina maquina : this.maquinas) {
+					avancou |= maquina.avanca(agora);
+					// Quem espera o garfo direito no tem prazo.
+					if (maquina.estado != Estado.FAMINTO_SEM_GARFOS
+							&& (!temPrazo || maquina.prazo - proximoPrazo < 0L)) {
+						proximoPrazo = maquina.prazo;
+						temPrazo = true;
+					}
+				}
+				if (!avancou) {
+					dorme(temPrazo, proximoPrazo - agora);
+				}
+			}
+		}
+
+		/**
+		 * Dorme at o prximo prazo do setor ou at ser acordado por um setor
+		 * vizinho. O aviso "dormindo"  publicado antes da ltima verificao
+		 * dos garfos de fronteira, portanto um garfo solto nesse meio tempo
+		 * no  perdido.
+		 *
+		 * @param temPrazo
+		 *            boolean - "false" para dormir at ser acordado.
+		 * @param tempo
+		 *            long - Tempo at o prximo prazo, em nanosegundos.
+		 */
+		private void dorme(boolean temPrazo, long tempo) {
+			if (temPrazo && tempo <= 0L) {
+				return;
+			}
+			this.dormindo = true;
+			if (!fronteiraLiberada() && !encerrada) {
+				if (temPrazo) {
+					LockSupport.parkNanos(this, tempo);
+				} else {
+					LockSupport.park(this);
+				}
+			}
+			this.dormindo = false;
+		}
+
+		/**
+		 * Verifica se algum filsofo das pontas do arco aguarda um garfo de
+		 * fronteira que j est livre.
+		 */
+		private boolean fronteiraLiberada() {
+			return this.maquinas[0].aguardaFronteiraLivre()
+					|| this.maquinas[this.maquinas.length - 1]
+							.aguardaFronteiraLivre();
+		}
+
+		/**
+		 * Acorda a thread do setor, caso esteja dormindo. Chamado pelo setor
+		 * vizinho ao soltar um garfo de fronteira.
+		 */
+		private void acorda() {
+			if (this.dormindo) {
+				LockSupport.unpark(this.thread);
+			}
+		}
+	}
+
+	/**
+	 * Mquina de estados de um lugar da mesa, avanada apenas pela thread do
+	 * seu setor.
+	 */
+	private final class Maquina {
+
+		private final Setor setor;
+		/**
+		 * Posio do garfo no vetor do setor, ou -1 para um garfo de
+		 * fronteira.
+		 */
+		private final int direitoLocal;
+		private final int esquerdoLocal;
+		private final Garfo direitoCompartilhado;
+		private final Garfo esquerdoCompartilhado;
+		private final Setor setorDireito;
+		private final Setor setorEsquerdo;
+		private final PerfilTempo perfilPensando;
+		private final PerfilTempo perfilComendo;
+		private final PerfilTempo perfilPegarGarfoSecundario;
+
+		private Estado estado = Estado.PENSANDO;
+		/**
+		 * Instante, em nanoTime, em que o estado atual expira.
+		 */
+		private long prazo;
+		private volatile long refeicoes = 0L;
+
+		private Maquina(int indice, Setor setor, ConfiguracaoMesa configuracao) {
+			int quantidade = configuracao.getQuantidadeFilosofos();
+			int direito = (indice + quantidade - 1) % quantidade;
+			this.setor = setor;
+			this.setorDireito = setorDoGarfo(direito, setor);
+			this.setorEsquerdo = setorDoGarfo(indice, setor);
+			this.direitoLocal = this.setorDireito == null ? direito
+					- setor.inicio : -1;
+			this.esquerdoLocal = this.setorEsquerdo == null ? indice
+					- setor.inicio : -1;
+			this.direitoCompartilhado = this.setorDireito == null ? null
+					: garfosFronteira[direito];
+			this.esquerdoCompartilhado = this.setorEsquerdo == null ? null
+					: garfosFronteira[indice];
+			this.perfilPensando = configuracao.getPerfil(TipoTempo.PENSANDO,
+					indice);
+			this.perfilComendo = configuracao.getPerfil(TipoTempo.COMENDO,
+					indice);
+			this.perfilPegarGarfoSecundario = configuracao.getPerfil(
+					TipoTempo.GARFO, indice);
+			this.prazo = System.nanoTime()
+					+ TimeUnit.MILLISECONDS.toNanos(this.perfilPensando
+							.sorteia());
+		}
+
+		/**
+		 * Avana a mquina o quanto for possvel a partir do estado atual.
+		 *
+		 * @param agora
+		 *            long - Instante, em nanoTime, da passada do setor.
+		 * @return boolean - "true" caso o estado tenha mudado.
+		 */
+		private boolean avanca(long agora) {
+			boolean avancou = false;
+			while (true) {
+				switch (this.estado) {
+				case PENSANDO:
+					if (agora - this.prazo < 0L) {
+						return avancou;
+					}
+					this.estado = Estado.FAMINTO_SEM_GARFOS;
+					break;
+				case FAMINTO_SEM_GARFOS:
+					if (!pega(this.direitoLocal, this.direitoCompartilhado)) {
+						return avancou;
+					}
+					this.estado = Estado.FAMINTO_COM_GARFO;
+					this.prazo = agora
+							+ TimeUnit.MILLISECONDS
+									.toNanos(this.perfilPegarGarfoSecundario
+											.sorteia());
+					break;
+				case FAMINTO_COM_GARFO:
+					if (pega(this.esquerdoLocal, this.esquerdoCompartilhado)) {
+						this.estado = Estado.COMENDO;
+						this.prazo = agora
+								+ TimeUnit.MILLISECONDS.toNanos(this.perfilComendo
+										.sorteia());
+						return true;
+					}
+					if (agora - this.prazo < 0L) {
+						return avancou;
+					}
+					// Evita o deadlock soltando o garfo direito; a nova
+					// tentativa fica para a prxima passada, dando a vez ao
+					// vizinho.
+					this.estado = Estado.FAMINTO_SEM_GARFOS;
+					solta(this.direitoLocal, this.direitoCompartilhado,
+							this.setorDireito);
+					return true;
+				case COMENDO:
+				default:
+					if (agora - this.prazo < 0L) {
+						return avancou;
+					}
+					this.refeicoes++;
+					this.estado = Estado.PENSANDO;
+					solta(this.direitoLocal, this.direitoCompartilhado,
+							this.setorDireito);
+					solta(this.esquerdoLocal, this.esquerdoCompartilhado,
+							this.setorEsquerdo);
+					this.prazo = agora
+							+ TimeUnit.MILLISECONDS.toNanos(this.perfilPensando
+									.sorteia());
+					return true;
+				}
+				avancou = true;
+			}
+		}
+
+		/**
+		 * Faz uma nica tentativa, sem espera, de pegar o garfo.
+		 */
+		private boolean pega(int local, Garfo compartilhado) {
+			if (compartilhado == null) {
+				this.setor.operacoesLocais++;
+				if (this.setor.ocupados[local]) {
+					return false;
+				}
+				this.setor.ocupados[local] = true;
+				return true;
+			}
+			this.setor.operacoesFronteira++;
+			try {
+				return compartilhado.tentaPegarGarfo(0L, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException excecao) {
+				// A mesa est sendo encerrada.
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		/**
+		 * Solta o garfo; um garfo de fronteira tambm acorda o setor vizinho.
+		 */
+		private void solta(int local, Garfo compartilhado, Setor vizinho) {
+			if (compartilhado == null) {
+				this.setor.ocupados[local] = false;
+				return;
+			}
+			compartilhado.soltaGarfo();
+			vizinho.acorda();
+		}
+
+		/**
+		 * Indica se a mquina aguarda um garfo de fronteira que est livre.
+		 */
+		private boolean aguardaFronteiraLivre() {
+			if (this.estado == Estado.FAMINTO_SEM_GARFOS) {
+				return this.direitoCompartilhado != null
+						&& !this.direitoCompartilhado.isOcupado();
+			}
+			if (this.estado == Estado.FAMINTO_COM_GARFO) {
+				return this.esquerdoCompartilhado != null
+						&& !this.esquerdoCompartilhado.isOcupado();
+			}
+			return false;
+		}
+	}
+
+	private final Setor[] setores;
+	private final int[] setorDoFilosofo;
+	/**
+	 * Garfos de fronteira, no ndice do garfo na mesa; os demais so nulos.
+	 */
+	private final Garfo[] garfosFronteira;
+	private final Maquina[] maquinas;
+
+	private boolean iniciada = false;
+	private volatile boolean encerrada = false;
+
+	/**
+	 * Constri a mesa com um setor por ncleo disponvel, limitado 
+	 * quantidade de filsofos.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa. O modo de
+	 *            execuo  ignorado, j que os filsofos no tm thread
+	 *            prpria.
+	 */
+	public MesaSetorizada(ConfiguracaoMesa configuracao) {
+		this(configuracao, Math.min(configuracao.getQuantidadeFilosofos(),
+				Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Constri a mesa com a quantidade de setores informada.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa.
+	 * @param quantidadeSetores
+	 *            int - Quantidade de arcos, e de threads, entre 1 e a
+	 *            quantidade de filsofos.
+	 */
+	public MesaSetorizada(ConfiguracaoMesa configuracao, int quantidadeSetores) {
+		int quantidade = configuracao.getQuantidadeFilosofos();
+		if (quantidadeSetores < 1 || quantidadeSetores > quantidade) {
+			throw new IllegalArgumentException(String.format(
+					"Quantidade de setores invlida para %d filsofos: %d",
+					quantidade, quantidadeSetores));
+		}
+		this.setores = new Setor[quantidadeSetores];
+		this.setorDoFilosofo = new int[quantidade];
+		for (int s = 0; s < quantidadeSetores; s++) {
+			int inicio = (int) ((long) s * quantidade / quantidadeSetores);
+			int fim = (int) ((long) (s + 1) * quantidade / quantidadeSetores);
+			this.setores[s] = new Setor(inicio, fim);
+			for (int i = inicio; i < fim; i++) {
+				this.setorDoFilosofo[i] = s;
+			}
+		}
+
+		// O garfo i  compartilhado quando os filsofos i e i + 1 esto em
+		// setores diferentes: o ltimo garfo de cada arco.
+		this.garfosFronteira = new Garfo[quantidade];
+		if (quantidadeSetores > 1) {
+			Garfo[] criados = configuracao.getTipoGarfo().criaGarfos(
+					quantidadeSetores, null);
+			for (int s = 0; s < quantidadeSetores; s++) {
+				this.garfosFronteira[this.setores[s].fim - 1] = criados[s];
+			}
+		}
+
+		this.maquinas = new Maquina[quantidade];
+		for (Setor setor : this.setores) {
+			setor.maquinas = new Maquina[setor.fim - setor.inicio];
+			for (int i = setor.inicio; i < setor.fim; i++) {
+				this.maquinas[i] = new Maquina(i, setor, configuracao);
+				setor.maquinas[i - setor.inicio] = this.maquinas[i];
+			}
+		}
+	}
+
+	/**
+	 * Retorna o setor vizinho que compartilha o garfo com o setor informado,
+	 * ou nulo caso o garfo seja interno ao setor.
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo na mesa.
+	 * @param setor
+	 *            {@link Setor} - Setor de um dos filsofos que usam o garfo.
+	 */
+	private Setor setorDoGarfo(int garfo, Setor setor) {
+		Setor esquerdo = this.setores[this.setorDoFilosofo[garfo]];
+		Setor direito = this.setores[this.setorDoFilosofo[(garfo + 1)
+				% this.setorDoFilosofo.length]];
+		if (esquerdo == direito) {
+			return null;
+		}
+		return esquerdo == setor ? direito : esquerdo;
+	}
+
+	/**
+	 * Retorna a quantidade de lugares da mesa.
+	 *
+	 * @return int - Quantidade de filsofos (e de garfos).
+	 */
+	public int getQuantidade() {
+		return this.maquinas.length;
+	}
+
+	/**
+	 * Retorna a quantidade de setores.
+	 *
+	 * @return int - Quantidade de arcos, e de threads, da mesa.
+	 */
+	public int getQuantidadeSetores() {
+		return this.setores.length;
+	}
+
+	/**
+	 * Retorna as refeies do filsofo de ndice informado.
+	 *
+	 * @param indice
+	 *            int - Posio do filsofo na mesa.
+	 * @return long - Quantas vezes o filsofo comeu.
+	 */
+	public long getRefeicoes(int indice) {
+		return this.maquinas[indice].refeicoes;
+	}
+
+	/**
+	 * Soma as refeies de todos os filsofos.
+	 *
+	 * @return long - Total de refeies feitas na mesa.
+	 */
+	public long getTotalRefeicoes() {
+		long total = 0L;
+		for (Maquina maquina : this.maquinas) {
+			total += maquina.refeicoes;
+		}
+		return total;
+	}
+
+	/**
+	 * Soma as tentativas de pegar garfos internos aos setores. Os contadores
+	 * no so sincronizados; o valor s  exato depois de
+	 * {@link #encerra()}.
+	 *
+	 * @return long - Tentativas sobre garfos usados por uma nica thread.
+	 */
+	public long getOperacoesLocais() {
+		long total = 0L;
+		for (Setor setor : this.setores) {
+			total += setor.operacoesLocais;
+		}
+		return total;
+	}
+
+	/**
+	 * Soma as tentativas de pegar garfos de fronteira. O valor s  exato
+	 * depois de {@link #encerra()}.
+	 *
+	 * @return long - Tentativas sobre garfos compartilhados entre setores.
+	 */
+	public long getOperacoesFronteira() {
+		long total = 0L;
+		for (Setor setor : this.setores) {
+			total += setor.operacoesFronteira;
+		}
+		return total;
+	}
+
+	/**
+	 * Cria e inicia a thread de cada setor.
+	 */
+	public synchronized void inicia() {
+		if (this.iniciada) {
+			throw new IllegalStateException("A mesa j foi iniciada.");
+		}
+		this.iniciada = true;
+		for (int s = 0; s < this.setores.length; s++) {
+			Setor setor = this.setores[s];
+			setor.thread = new Thread(setor, "Mesa-setor-" + (s + 1));
+			setor.thread.setDaemon(true);
+		}
+		for (Setor setor : this.setores) {
+			setor.thread.start();
+		}
+	}
+
+	/**
+	 * Interrompe os setores e aguarda o trmino das suas threads.
+	 *
+	 * @throws InterruptedException
+	 *             Caso a thread que encerra a mesa seja interrompida.
+	 */
+	public void encerra() throws InterruptedException {
+		this.encerrada = true;
+		synchronized (this) {
+			if (!this.iniciada) {
+				return;
+			}
+		}
+		for (Setor setor : this.setores) {
+			LockSupport.unpark(setor.thread);
+		}
+		for (Setor setor : this.setores) {
+			setor.thread.join();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import br.com.uniara.constante.Distribuicao;
+
+/**
+ * Essa classe representa como um tempo do ciclo do filsofo  sorteado: uma
+ * {@link Distribuicao} e os seus parmetros, em milisegundos.  imutvel,
+ * portanto um mesmo perfil pode ser compartilhado por vrios filsofos.<br/>
+ * <br/>
+ * Nas propriedades, o perfil  escrito como:<br/>
+ * 750 ou FIXA:750 - Sempre 750 ms.<br/>
+ * UNIFORME:100:900 - Entre 100 e 900 ms.<br/>
+ * EXPONENCIAL:750 - Mdia de 750 ms.<br/>
+ * EXPONENCIAL:750:5000 - Mdia de 750 ms, no mximo 5000 ms.
+ */
+public final class PerfilTempo {
+
+	private final Distribuicao distribuicao;
+	private final double primeiro;
+	private final double segundo;
+
+	/**
+	 * Construtor do perfil.
+	 *
+	 * @param distribuicao
+	 *            {@link Distribuicao} - Distribuio dos tempos.
+	 * @param primeiro
+	 *            double - Valor fixo, mnimo ou mdia, em milisegundos.
+	 * @param segundo
+	 *            double - Mximo (UNIFORME) ou limite (EXPONENCIAL, zero para
+	 *            no limitar), em milisegundos.
+	 */
+	public PerfilTempo(Distribuicao distribuicao, double primeiro,
+			double segundo) {
+		if (distribuicao == null) {
+			throw new IllegalArgumentException("A distribuio  obrigatria.");
+		}
+		if (primeiro < 0.0 || segundo < 0.0
+				|| (distribuicao == Distribuicao.UNIFORME && segundo < primeiro)) {
+			throw new IllegalArgumentException(String.format(
+					"Parmetros invlidos para %s: %s e %s.", distribuicao,
+					primeiro, segundo));
+		}
+		this.distribuicao = distribuicao;
+		this.primeiro = primeiro;
+		this.segundo = segundo;
+	}
+
+	/**
+	 * Cria um perfil que sempre retorna o mesmo tempo.
+	 *
+	 * @param milisegundos
+	 *            long - Tempo fixo.
+	 * @return {@link PerfilTempo} - O perfil criado.
+	 */
+	public static PerfilTempo fixo(long milisegundos) {
+		return new PerfilTempo(Distribuicao.FIXA, milisegundos, 0.0);
+	}
+
+	/**
+	 * Interpreta um perfil escrito como descrito na documentao da classe.
+	 *
+	 * @param texto
+	 *            {@link String} - Perfil, por exemplo "UNIFORME:100:900".
+	 * @return {@link PerfilTempo} - O perfil interpretado.
+	 */
+	public static PerfilTempo interpreta(String texto) {
+		String[] partes = texto.trim().split(":");
+		try {
+			if (partes.length == 1) {
+				return new PerfilTempo(Distribuicao.FIXA,
+						Double.parseDouble(partes[0].trim()), 0.0);
+			}
+			Distribuicao distribuicao = Distribuicao.valueOf(partes[0].trim()
+					.toUpperCase());
+			if (partes.length > 3) {
+				throw new IllegalArgumentException("Perfil invlido: " + texto);
+			}
+			double primeiro = Double.parseDouble(partes[1].trim());
+			double segundo = partes.length > 2 ? Double.parseDouble(partes[2]
+					.trim()) : 0.0;
+			if (distribuicao == Distribuicao.UNIFORME && partes.length < 3) {
+				throw new IllegalArgumentException(
+						"A distribuio uniforme exige mnimo e mximo: "
+								+ texto);
+			}
+			return new PerfilTempo(distribuicao, primeiro, segundo);
+		} catch (NumberFormatException excecao) {
+			throw new IllegalArgumentException("Perfil invlido: " + texto,
+					excecao);
+		}
+	}
+
+	/**
+	 * Mtodo acessor da distribuio do perfil.
+	 *
+	 * @return {@link Distribuicao} - Distribuio dos tempos.
+	 */
+	public Distribuicao getDistribuicao() {
+		return distribuicao;
+	}
+
+	/**
+	 * Sorteia um tempo. Usa o gerador da thread atual, portanto no h
+	 * disputa entre os filsofos.
+	 *
+	 * @return long - Tempo em milisegundos, nunca negativo.
+	 */
+	public long sorteia() {
+		if (this.distribuicao == Distribuicao.FIXA) {
+			return (long) this.primeiro;
+		}
+		return Math.round(this.distribuicao.sorteia(this.primeiro,
+				this.segundo, ThreadLocalRandom.current()));
+	}
+
+	/**
+	 * Retorna o perfil no mesmo formato aceito por interpreta().
+	 */
+	@Override
+	public String toString() {
+		StringBuilder texto = new StringBuilder(this.distribuicao.name())
+				.append(':').append(formata(this.primeiro));
+		if (this.distribuicao != Distribuicao.FIXA && this.segundo > 0.0) {
+			texto.append(':').append(formata(this.segundo));
+		}
+		return texto.toString();
+	}
+
+	/**
+	 * Formata o valor sem casas decimais quando ele for inteiro.
+	 */
+	private static String formata(double valor) {
+		return valor == Math.rint(valor) ? String.valueOf((long) valor)
+				: String.valueOf(valor);
+	}
+}
@@ -0,0 +1,84 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decide quanto tempo um filsofo da {@link EstrategiaBackoff} aguarda o
+ * segundo garfo e quanto tempo ele recua, sem garfos, antes de tentar de
+ * novo.<br/>
+ * <br/>
+ * Com um tempo limite fixo e a nova tentativa imediata, vizinhos que falham
+ * juntos voltam juntos e falham de novo, em sincronia. Aqui os dois tempos
+ * so sorteados abaixo de um limite que se ajusta  disputa observada: o
+ * limite dobra a cada falha, at o mximo, e cai pela metade a cada
+ * aquisio, at o mnimo (recuo exponencial). O tempo limite do segundo
+ * garfo  sorteado entre a metade do limite e o limite, e o recuo entre zero
+ * e o limite inteiro, o que desfaz a sincronia entre os vizinhos.<br/>
+ * <br/>
+ * Cada filsofo tem o seu, usado apenas pela sua thread; o limite atual pode
+ * ser lido por outras threads.
+ */
+final class RecuoAdaptativo {
+
+	private final long minimo;
+	private final long maximo;
+
+	private volatile long limite;
+
+	/**
+	 * Cria o controle de recuo de um filsofo.
+	 *
+	 * @param minimo
+	 *            long - Menor limite, em milisegundos, no mnimo 1.
+	 * @param maximo
+	 *            long - Maior limite, em milisegundos; nunca fica abaixo do
+	 *            mnimo.
+	 */
+	RecuoAdaptativo(long minimo, long maximo) {
+		this.minimo = Math.max(1L, minimo);
+		this.maximo = Math.max(this.minimo, maximo);
+		this.limite = this.minimo;
+	}
+
+	/**
+	 * Sorteia o tempo limite para pegar o segundo garfo.
+	 *
+	 * @return long - Tempo em milisegundos, entre a metade do limite atual e
+	 *         ele.
+	 */
+	long sorteiaEspera() {
+		long atual = this.limite;
+		return atual / 2L
+				+ ThreadLocalRandom.current().nextLong(atual - atual / 2L + 1L);
+	}
+
+	/**
+	 * Registra uma tentativa que terminou sem os dois garfos, dobrando o
+	 * limite, e sorteia o recuo antes da prxima.
+	 *
+	 * @return long - Recuo em nanossegundos, entre zero e o novo limite.
+	 */
+	long falhou() {
+		long atual = Math.min(this.maximo, this.limite * 2L);
+		this.limite = atual;
+		return ThreadLocalRandom.current().nextLong(
+				TimeUnit.MILLISECONDS.toNanos(atual) + 1L);
+	}
+
+	/**
+	 * Registra uma aquisio dos dois garfos, reduzindo o limite pela metade.
+	 */
+	void conseguiu() {
+		this.limite = Math.max(this.minimo, this.limite / 2L);
+	}
+
+	/**
+	 * Mtodo acessor do limite atual.
+	 *
+	 * @return long - Limite em milisegundos.
+	 */
+	long getLimite() {
+		return this.limite;
+	}
+}
@@ -0,0 +1,162 @@
+package br.com.uniara.entidade;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Guarda o estado de todos os garfos de uma mesa em um nico vetor de
+ * inteiros, com cada garfo em uma faixa prpria de {@link #ESPACAMENTO}
+ * posies ( 128 bytes ).<br/>
+ * <br/>
+ * Com um objeto por garfo, garfos vizinhos costumam ser alocados lado a lado
+ * e dividir a mesma linha de cache: o filsofo que pega o garfo i invalida a
+ * linha de quem usa o garfo i + 1, mesmo sem disputarem o mesmo recurso
+ * (false sharing). Aqui a faixa de cada garfo ocupa duas linhas de 64 bytes,
+ * pois os processadores costumam buscar as linhas aos pares, e o vetor
+ * comea e termina com uma faixa vazia, que o separa dos objetos vizinhos no
+ * heap. Uma linha s  compartilhada pelos dois filsofos que de fato
+ * disputam o garfo.<br/>
+ * <br/>
+ * Cada faixa guarda a disponibilidade do garfo e a quantidade de threads
+ * estacionadas  sua espera. O dono do garfo, lido pela {@link VigiaMesa},
+ * fica em um vetor de referncias espaado da mesma forma.
+ */
+public final class TabelaGarfos {
+
+	/**
+	 * Posies do vetor ocupadas por cada garfo: 32 inteiros, 128 bytes.
+	 */
+	static final int ESPACAMENTO = 32;
+
+	static final int LIVRE = 0;
+	static final int OCUPADO = 1;
+
+	/**
+	 * Deslocamento, dentro da faixa, da disponibilidade do garfo.
+	 */
+	private static final int ESTADO = 0;
+	/**
+	 * Deslocamento, dentro da faixa, das threads  espera do garfo.
+	 */
+	private static final int ESPERANDO = 1;
+
+	private final int quantidade;
+	private final AtomicIntegerArray estados;
+	private final AtomicReferenceArray<Filosofo> donos;
+
+	/**
+	 * Cria a tabela com todos os garfos livres.
+	 *
+	 * @param quantidade
+	 *            int - Quantidade de garfos da mesa.
+	 */
+	public TabelaGarfos(int quantidade) {
+		if (quantidade < 1) {
+			throw new IllegalArgumentException("Quantidade de garfos invlida: "
+					+ quantidade);
+		}
+		this.quantidade = quantidade;
+		this.estados = new AtomicIntegerArray((quantidade + 2) * ESPACAMENTO);
+		this.donos = new AtomicReferenceArray<Filosofo>((quantidade + 2)
+				* ESPACAMENTO);
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de garfos.
+	 *
+	 * @return int - Garfos da tabela.
+	 */
+	public int getQuantidade() {
+		return quantidade;
+	}
+
+	/**
+	 * Retorna a primeira posio da faixa do garfo; a faixa zero  o
+	 * espaamento do incio do vetor.
+	 */
+	private static int faixa(int garfo) {
+		return (garfo + 1) * ESPACAMENTO;
+	}
+
+	/**
+	 * Verifica se o garfo est ocupado.
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 * @return boolean - "true" caso o garfo esteja ocupado.
+	 */
+	public boolean isOcupado(int garfo) {
+		return this.estados.get(faixa(garfo) + ESTADO) == OCUPADO;
+	}
+
+	/**
+	 * Faz uma nica tentativa de ocupar o garfo. A leitura antes do CAS evita
+	 * tomar a linha para escrita quando o garfo j est ocupado.
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 * @return boolean - "true" caso o garfo tenha sido ocupado.
+	 */
+	boolean tentaOcupar(int garfo) {
+		int posicao = faixa(garfo) + ESTADO;
+		return this.estados.get(posicao) == LIVRE
+				&& this.estados.compareAndSet(posicao, LIVRE, OCUPADO);
+	}
+
+	/**
+	 * Libera o garfo.
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 */
+	void libera(int garfo) {
+		this.estados.set(faixa(garfo) + ESTADO, LIVRE);
+	}
+
+	/**
+	 * Registra a entrada ou a sada de uma thread da espera pelo garfo.
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 * @param variacao
+	 *            int - 1 ao entrar na espera, -1 ao sair.
+	 */
+	void alteraEsperando(int garfo, int variacao) {
+		this.estados.addAndGet(faixa(garfo) + ESPERANDO, variacao);
+	}
+
+	/**
+	 * Verifica se alguma thread aguarda o garfo. Quem solta o garfo s
+	 * consulta a fila de espera quando este contador no  zero.
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 * @return boolean - "true" caso exista alguma thread em espera.
+	 */
+	boolean temEsperando(int garfo) {
+		return this.estados.get(faixa(garfo) + ESPERANDO) > 0;
+	}
+
+	/**
+	 * Retorna o filsofo que segura o garfo.
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 * @return {@link Filosofo} - Dono atual, ou nulo.
+	 */
+	Filosofo getDono(int garfo) {
+		return this.donos.get(faixa(garfo));
+	}
+
+	/**
+	 * Publica o dono do garfo com uma escrita ordenada (lazySet).
+	 *
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 * @param dono
+	 *            {@link Filosofo} - Novo dono, ou nulo ao soltar.
+	 */
+	void defineDono(int garfo, Filosofo dono) {
+		this.donos.lazySet(faixa(garfo), dono);
+	}
+}
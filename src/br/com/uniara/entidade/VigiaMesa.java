@@ -0,0 +1,437 @@
+package br.com.uniara.entidade;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import br.com.uniara.constante.TipoEvento;
+
+/**
+ * Vigia de uma {@link Mesa} em execuo: detecta deadlocks e livelocks e os
+ * reporta no log, na sada de erro e nas mtricas.<br/>
+ * <br/>
+ * Os filsofos publicam o grafo de espera sem locks, com escritas ordenadas:
+ * cada filsofo indica o garfo que est tentando pegar e cada garfo indica o
+ * seu dono ( {@link EstrategiaAquisicao} ). A cada intervalo a vigia l esse
+ * grafo, em que cada filsofo espera no mximo um outro (o dono do garfo que
+ * ele aguarda), e procura ciclos. Como a leitura no  atmica, um ciclo s 
+ * reportado quando aparece igual em duas verificaes seguidas sem que
+ * nenhum dos seus filsofos tenha comido ou desistido no intervalo.<br/>
+ * <br/>
+ * Um ciclo em que algum filsofo espera com tempo limite (
+ * {@link Filosofo#isEsperaComPrazo()} ) no  um deadlock: quando o tempo se
+ * esgota, ele solta os garfos que segura e o ciclo se desfaz sozinho. Esses
+ * ciclos so contados  parte, como esperas circulares transitrias, sem
+ * diagnstico.<br/>
+ * <br/>
+ * Um livelock  um filsofo que est h pelo menos uma janela sem comer e que,
+ * nesse tempo, desistiu pelo menos {@link #MINIMO_FALHAS} vezes de pegar os
+ * garfos: a mesa se mexe, mas ele no avana.<br/>
+ * <br/>
+ * Todo o trabalho  feito na thread da vigia; o caminho dos filsofos apenas
+ * publica as arestas.
+ */
+public class VigiaMesa implements Runnable {
+
+	/**
+	 * Desistncias, sem nenhuma refeio por uma janela inteira, que
+	 * caracterizam um livelock.
+	 */
+	public static final int MINIMO_FALHAS = 3;
+	private static final int NENHUM = -1;
+
+	private final List<Filosofo> filosofos;
+	private final int quantidade;
+	private final long intervalo;
+	private final long janela;
+	private final PrintStream saida;
+
+	private volatile long deadlocks = 0L;
+	private volatile long esperasCirculares = 0L;
+	private volatile long livelocks = 0L;
+	private volatile int filosofosEmDeadlock = 0;
+	private volatile String ultimoDiagnostico = "";
+	private volatile Thread thread;
+
+	// Estado usado apenas pela thread da vigia.
+	private final int[] esperas;
+	private final boolean[] prazos;
+	private final int[] esperasAnteriores;
+	private final long[] refeicoesAnteriores;
+	private final long[] falhasAnteriores;
+	private final int[] marcas;
+	private final boolean[] emDeadlock;
+	private final boolean[] emDeadlockAtual;
+	private final boolean[] emEsperaCircular;
+	private final boolean[] emEsperaCircularAtual;
+	private final long[] refeicoesVistas;
+	private final long[] ultimaRefeicao;
+	private final long[] falhasNaRefeicao;
+	private final boolean[] emLivelock;
+	private long ultimaRefeicaoMesa;
+	private boolean primeiraVerificacao = true;
+
+	/**
+	 * Cria a vigia, sem inici-la.
+	 *
+	 * @param filosofos
+	 *            {@link List}<{@link Filosofo}> - Filsofos na ordem da mesa.
+	 * @param intervalo
+	 *            long - Intervalo entre as verificaes, em milisegundos.
+	 * @param janela
+	 *            long - Tempo sem comer, em milisegundos, a partir do qual as
+	 *            desistncias caracterizam um livelock.
+	 * @param saida
+	 *            {@link PrintStream} - Destino do diagnstico completo.
+	 */
+	public VigiaMesa(List<Filosofo> filosofos, long intervalo, long janela,
+			PrintStream saida) {
+		if (intervalo < 1L || janela < intervalo) {
+			throw new IllegalArgumentException(String.format(
+					"Intervalo (%d ms) e janela (%d ms) da vigia invlidos.",
+					intervalo, janela));
+		}
+		this.filosofos = filosofos;
+		this.quantidade = filosofos.size();
+		this.intervalo = intervalo;
+		this.janela = TimeUnit.MILLISECONDS.toNanos(janela);
+		this.saida = saida;
+		this.esperas = new int[this.quantidade];
+		this.prazos = new boolean[this.quantidade];
+		this.esperasAnteriores = new int[this.quantidade];
+		this.refeicoesAnteriores = new long[this.quantidade];
+		this.falhasAnteriores = new long[this.quantidade];
+		this.marcas = new int[this.quantidade];
+		this.emDeadlock = new boolean[this.quantidade];
+		this.emDeadlockAtual = new boolean[this.quantidade];
+		this.emEsperaCircular = new boolean[this.quantidade];
+		this.emEsperaCircularAtual = new boolean[this.quantidade];
+		this.refeicoesVistas = new long[this.quantidade];
+		this.ultimaRefeicao = new long[this.quantidade];
+		this.falhasNaRefeicao = new long[this.quantidade];
+		this.emLivelock = new boolean[this.quantidade];
+	}
+
+	/**
+	 * Verifica a mesa a cada intervalo at a thread ser interrompida.
+	 */
+	@Override
+	public void run() {
+		this.thread = Thread.currentThread();
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				verifica(System.nanoTime());
+				Thread.sleep(this.intervalo);
+			}
+		} catch (InterruptedException excecao) {
+			// Encerrada junto com a mesa.
+		}
+	}
+
+	/**
+	 * Inicia a vigia em uma thread de plataforma daemon.
+	 */
+	public void inicia() {
+		Thread vigia = new Thread(this, "Vigia da mesa");
+		vigia.setDaemon(true);
+		this.thread = vigia;
+		vigia.start();
+	}
+
+	/**
+	 * Interrompe a vigia e aguarda o seu trmino.
+	 *
+	 * @throws InterruptedException
+	 *             Caso a thread que encerra seja interrompida.
+	 */
+	public void para() throws InterruptedException {
+		Thread vigia = this.thread;
+		if (vigia != null) {
+			vigia.interrupt();
+			vigia.join();
+		}
+	}
+
+	/**
+	 * Faz uma verificao: procura ciclos no grafo de espera e livelocks.
+	 *
+	 * @param agora
+	 *            long - Instante da verificao, em System.nanoTime().
+	 */
+	void verifica(long agora) {
+		for (int i = 0; i < this.quantidade; i++) {
+			Filosofo filosofo = this.filosofos.get(i);
+			this.esperas[i] = aguardado(filosofo);
+			// Lido depois do garfo aguardado: refere-se  mesma espera.
+			this.prazos[i] = filosofo.isEsperaComPrazo();
+		}
+		if (this.primeiraVerificacao) {
+			this.primeiraVerificacao = false;
+			this.ultimaRefeicaoMesa = agora;
+			for (int i = 0; i < this.quantidade; i++) {
+				Filosofo filosofo = this.filosofos.get(i);
+				this.refeicoesVistas[i] = filosofo.getRefeicoes();
+				this.ultimaRefeicao[i] = agora;
+				this.falhasNaRefeicao[i] = filosofo.getFalhas();
+			}
+		} else {
+			procuraCiclos();
+			procuraLivelock(agora);
+		}
+		for (int i = 0; i < this.quantidade; i++) {
+			Filosofo filosofo = this.filosofos.get(i);
+			this.esperasAnteriores[i] = this.esperas[i];
+			this.refeicoesAnteriores[i] = filosofo.getRefeicoes();
+			this.falhasAnteriores[i] = filosofo.getFalhas();
+		}
+	}
+
+	/**
+	 * Retorna o ndice do filsofo que o informado espera: o dono do garfo
+	 * que ele est tentando pegar.
+	 */
+	private static int aguardado(Filosofo filosofo) {
+		Garfo garfo = filosofo.getGarfoAguardado();
+		if (garfo == null) {
+			return NENHUM;
+		}
+		Filosofo dono = garfo.getDono();
+		return dono == null || dono == filosofo ? NENHUM : dono.getIndice();
+	}
+
+	/**
+	 * Cada filsofo espera no mximo um outro, portanto basta seguir as
+	 * arestas a partir de cada filsofo ainda no visitado: voltar a um
+	 * filsofo do caminho atual fecha um ciclo.
+	 */
+	private void procuraCiclos() {
+		Arrays.fill(this.marcas, NENHUM);
+		Arrays.fill(this.emDeadlockAtual, false);
+		Arrays.fill(this.emEsperaCircularAtual, false);
+		int emCiclos = 0;
+		for (int origem = 0; origem < this.quantidade; origem++) {
+			int atual = origem;
+			while (atual != NENHUM && this.marcas[atual] == NENHUM) {
+				this.marcas[atual] = origem;
+				atual = this.esperas[atual];
+			}
+			if (atual != NENHUM && this.marcas[atual] == origem
+					&& isEstavel(atual)) {
+				if (isTransitorio(atual)) {
+					registraEsperaCircular(atual);
+				} else {
+					emCiclos += registraCiclo(atual);
+				}
+			}
+		}
+		System.arraycopy(this.emDeadlockAtual, 0, this.emDeadlock, 0,
+				this.quantidade);
+		System.arraycopy(this.emEsperaCircularAtual, 0,
+				this.emEsperaCircular, 0, this.quantidade);
+		this.filosofosEmDeadlock = emCiclos;
+	}
+
+	/**
+	 * Indica se o ciclo que passa pelo filsofo j existia na verificao
+	 * anterior, sem refeies nem desistncias dos seus filsofos.
+	 */
+	private boolean isEstavel(int inicio) {
+		int atual = inicio;
+		do {
+			Filosofo filosofo = this.filosofos.get(atual);
+			if (this.esperasAnteriores[atual] != this.esperas[atual]
+					|| this.refeicoesAnteriores[atual] != filosofo.getRefeicoes()
+					|| this.falhasAnteriores[atual] != filosofo.getFalhas()) {
+				return false;
+			}
+			atual = this.esperas[atual];
+		} while (atual != inicio);
+		return true;
+	}
+
+	/**
+	 * Indica se algum filsofo do ciclo espera com tempo limite.
+	 */
+	private boolean isTransitorio(int inicio) {
+		int atual = inicio;
+		do {
+			if (this.prazos[atual]) {
+				return true;
+			}
+			atual = this.esperas[atual];
+		} while (atual != inicio);
+		return false;
+	}
+
+	/**
+	 * Marca os filsofos de um ciclo transitrio e, caso ele seja novo, o
+	 * conta como uma espera circular.
+	 */
+	private void registraEsperaCircular(int inicio) {
+		boolean novo = false;
+		int atual = inicio;
+		do {
+			novo |= !this.emEsperaCircular[atual];
+			this.emEsperaCircularAtual[atual] = true;
+			atual = this.esperas[atual];
+		} while (atual != inicio);
+		if (novo) {
+			this.esperasCirculares++;
+		}
+	}
+
+	/**
+	 * Marca os filsofos do ciclo e, caso ele seja novo, reporta o deadlock.
+	 *
+	 * @return int - Quantidade de filsofos do ciclo.
+	 */
+	private int registraCiclo(int inicio) {
+		boolean novo = false;
+		int tamanho = 0;
+		int atual = inicio;
+		do {
+			novo |= !this.emDeadlock[atual];
+			this.emDeadlockAtual[atual] = true;
+			tamanho++;
+			atual = this.esperas[atual];
+		} while (atual != inicio);
+		if (!novo) {
+			return tamanho;
+		}
+
+		StringBuilder diagnostico = new StringBuilder(
+				"Deadlock detectado, ciclo de ").append(tamanho).append(
+				" filsofos:");
+		atual = inicio;
+		do {
+			Filosofo filosofo = this.filosofos.get(atual);
+			Garfo aguardado = filosofo.getGarfoAguardado();
+			diagnostico.append("\n  ").append(filosofo.getNome())
+					.append(" segura o garfo ")
+					.append(indiceGarfo(filosofo, outroGarfo(filosofo, aguardado)))
+					.append(" e espera o garfo ")
+					.append(indiceGarfo(filosofo, aguardado))
+					.append(", que est com ")
+					.append(this.filosofos.get(this.esperas[atual]).getNome());
+			filosofo.registra(TipoEvento.DEADLOCK_DETECTADO, null);
+			atual = this.esperas[atual];
+		} while (atual != inicio);
+		this.deadlocks++;
+		reporta(diagnostico.toString());
+		return tamanho;
+	}
+
+	/**
+	 * Reporta os filsofos que esto h uma janela inteira sem comer e que
+	 * desistiram repetidas vezes nesse tempo. Cada filsofo  reportado uma
+	 * vez por episdio, at voltar a comer.
+	 */
+	private void procuraLivelock(long agora) {
+		StringBuilder diagnostico = null;
+		for (int i = 0; i < this.quantidade; i++) {
+			Filosofo filosofo = this.filosofos.get(i);
+			long refeicoes = filosofo.getRefeicoes();
+			long falhas = filosofo.getFalhas();
+			if (refeicoes != this.refeicoesVistas[i]) {
+				this.refeicoesVistas[i] = refeicoes;
+				this.ultimaRefeicao[i] = agora;
+				this.falhasNaRefeicao[i] = falhas;
+				this.ultimaRefeicaoMesa = agora;
+				this.emLivelock[i] = false;
+			} else if (!this.emLivelock[i]
+					&& agora - this.ultimaRefeicao[i] >= this.janela
+					&& falhas - this.falhasNaRefeicao[i] >= MINIMO_FALHAS) {
+				this.emLivelock[i] = true;
+				if (diagnostico == null) {
+					diagnostico = new StringBuilder("Livelock detectado:");
+				}
+				diagnostico.append("\n  ").append(filosofo.getNome())
+						.append(" desistiu ")
+						.append(falhas - this.falhasNaRefeicao[i])
+						.append(" vezes em ")
+						.append(TimeUnit.NANOSECONDS.toMillis(agora
+								- this.ultimaRefeicao[i]))
+						.append(" ms sem comer");
+				filosofo.registra(TipoEvento.LIVELOCK_DETECTADO, null);
+			}
+		}
+		if (diagnostico != null) {
+			if (agora - this.ultimaRefeicaoMesa >= this.janela) {
+				diagnostico.append("\n  nenhum filsofo da mesa comeu nesse tempo");
+			}
+			this.livelocks++;
+			reporta(diagnostico.toString());
+		}
+	}
+
+	private void reporta(String diagnostico) {
+		this.ultimoDiagnostico = diagnostico;
+		if (this.saida != null) {
+			this.saida.println(diagnostico);
+		}
+	}
+
+	private static Garfo outroGarfo(Filosofo filosofo, Garfo garfo) {
+		return garfo == filosofo.getGarfoEsquerdo() ? filosofo.getGarfoDireito()
+				: filosofo.getGarfoEsquerdo();
+	}
+
+	/**
+	 * O garfo esquerdo tem o ndice do filsofo; o direito, o anterior.
+	 */
+	private int indiceGarfo(Filosofo filosofo, Garfo garfo) {
+		return garfo == filosofo.getGarfoEsquerdo() ? filosofo.getIndice()
+				: (filosofo.getIndice() + this.quantidade - 1) % this.quantidade;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de deadlocks detectados.
+	 *
+	 * @return long - Ciclos de espera sem tempo limite reportados desde o
+	 *         incio.
+	 */
+	public long getDeadlocks() {
+		return deadlocks;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de esperas circulares transitrias.
+	 *
+	 * @return long - Ciclos de espera com tempo limite vistos desde o
+	 *         incio, que no contam como deadlocks.
+	 */
+	public long getEsperasCirculares() {
+		return esperasCirculares;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de livelocks detectados.
+	 *
+	 * @return long - Verificaes que encontraram novos filsofos em
+	 *         livelock.
+	 */
+	public long getLivelocks() {
+		return livelocks;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de filsofos em ciclos de espera na ltima
+	 * verificao.
+	 *
+	 * @return int - Filsofos em deadlock, zero quando no h ciclos.
+	 */
+	public int getFilosofosEmDeadlock() {
+		return filosofosEmDeadlock;
+	}
+
+	/**
+	 * Mtodo acessor do ltimo diagnstico.
+	 *
+	 * @return {@link String} - Descrio do ltimo deadlock ou livelock, vazia
+	 *         caso nenhum tenha sido detectado.
+	 */
+	public String getUltimoDiagnostico() {
+		return ultimoDiagnostico;
+	}
+}
@@ -0,0 +1,338 @@
+package br.com.uniara.metrica;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.entidade.EstrategiaAquisicao;
+import br.com.uniara.entidade.EstrategiaBackoff;
+import br.com.uniara.entidade.Filosofo;
+import br.com.uniara.entidade.Mesa;
+import br.com.uniara.entidade.VigiaMesa;
+
+/**
+ * Mtricas de uma {@link Mesa} em execuo, publicadas como MBean (JMX) e no
+ * formato texto do Prometheus pelo {@link ServidorMetricas}.<br/>
+ * <br/>
+ * Nada  contado especialmente para as mtricas: cada leitura percorre os
+ * filsofos e garfos e l os contadores que eles j mantm (estado atual,
+ * refeies, falhas e recuos da estratgia, despertares dos garfos e os
+ * contadores da {@link VigiaMesa}). Portanto o custo fica com quem l, e o
+ * caminho dos filsofos no muda.
+ */
+public class MetricasMesa implements MetricasMesaMBean {
+
+	/**
+	 * Domnio dos nomes dos MBeans.
+	 */
+	public static final String DOMINIO = "br.com.uniara";
+
+	private final Mesa mesa;
+	private ObjectName nomeRegistrado;
+
+	/**
+	 * Construtor das mtricas.
+	 *
+	 * @param mesa
+	 *            {@link Mesa} - Mesa observada.
+	 */
+	public MetricasMesa(Mesa mesa) {
+		this.mesa = mesa;
+	}
+
+	/**
+	 * Registra as mtricas no servidor de MBeans da plataforma, com o nome
+	 * "br.com.uniara:type=Mesa,name=<nome>".
+	 *
+	 * @param nome
+	 *            {@link String} - Nome que distingue a mesa.
+	 * @throws JMException
+	 *             Caso o nome seja invlido ou j esteja registrado.
+	 */
+	public synchronized void registra(String nome) throws JMException {
+		if (this.nomeRegistrado != null) {
+			throw new IllegalStateException("As mtricas j foram registradas.");
+		}
+		ObjectName objectName = new ObjectName(DOMINIO + ":type=Mesa,name="
+				+ ObjectName.quote(nome));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+				objectName);
+		this.nomeRegistrado = objectName;
+	}
+
+	/**
+	 * Remove o registro das mtricas, caso existam.
+	 *
+	 * @throws JMException
+	 *             Caso o registro no possa ser removido.
+	 */
+	public synchronized void cancelaRegistro() throws JMException {
+		if (this.nomeRegistrado != null) {
+			MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+			if (servidor.isRegistered(this.nomeRegistrado)) {
+				servidor.unregisterMBean(this.nomeRegistrado);
+			}
+			this.nomeRegistrado = null;
+		}
+	}
+
+	/**
+	 * Conta os filsofos que esto no estado informado.
+	 */
+	private int contaEstado(Estado estado) {
+		int total = 0;
+		for (Filosofo filosofo : this.mesa.getFilosofos()) {
+			if (filosofo.getEstado() == estado) {
+				total++;
+			}
+		}
+		return total;
+	}
+
+	@Override
+	public int getFilosofosPensando() {
+		return contaEstado(Estado.PENSANDO);
+	}
+
+	@Override
+	public int getFilosofosFamintosSemGarfos() {
+		return contaEstado(Estado.FAMINTO_SEM_GARFOS);
+	}
+
+	@Override
+	public int getFilosofosFamintosComGarfo() {
+		return contaEstado(Estado.FAMINTO_COM_GARFO);
+	}
+
+	@Override
+	public int getFilosofosComendo() {
+		return contaEstado(Estado.COMENDO);
+	}
+
+	@Override
+	public int getGarfosOcupados() {
+		int total = 0;
+		for (int i = 0; i < this.mesa.getQuantidade(); i++) {
+			if (this.mesa.getGarfo(i).isOcupado()) {
+				total++;
+			}
+		}
+		return total;
+	}
+
+	@Override
+	public long getRefeicoes() {
+		return this.mesa.getTotalRefeicoes();
+	}
+
+	@Override
+	public long getFalhasAquisicao() {
+		return this.mesa.getEstrategia().getFalhas();
+	}
+
+	@Override
+	public long getRecuos() {
+		EstrategiaAquisicao estrategia = this.mesa.getEstrategia();
+		return estrategia instanceof EstrategiaBackoff ? ((EstrategiaBackoff) estrategia)
+				.getRecuos() : 0L;
+	}
+
+	@Override
+	public double getLimiteRecuoMedioMilissegundos() {
+		long total = 0L;
+		for (Filosofo filosofo : this.mesa.getFilosofos()) {
+			total += filosofo.getLimiteRecuo();
+		}
+		return (double) total / this.mesa.getQuantidade();
+	}
+
+	@Override
+	public long getDespertares() {
+		long total = 0L;
+		for (int i = 0; i < this.mesa.getQuantidade(); i++) {
+			total += this.mesa.getGarfo(i).getDespertares();
+		}
+		return total;
+	}
+
+	@Override
+	public long getDespertaresEspurios() {
+		long total = 0L;
+		for (int i = 0; i < this.mesa.getQuantidade(); i++) {
+			total += this.mesa.getGarfo(i).getDespertaresEspurios();
+		}
+		return total;
+	}
+
+	@Override
+	public long getEntregas() {
+		long total = 0L;
+		for (int i = 0; i < this.mesa.getQuantidade(); i++) {
+			total += this.mesa.getGarfo(i).getEntregas();
+		}
+		return total;
+	}
+
+	@Override
+	public double getIndiceJustica() {
+		return this.mesa.getIndiceJustica();
+	}
+
+	@Override
+	public double getMaiorFomeMilissegundos() {
+		return this.mesa.getMaiorFome(System.nanoTime()) / 1000000.0;
+	}
+
+	@Override
+	public long getDeadlocksDetectados() {
+		VigiaMesa vigia = this.mesa.getVigia();
+		return vigia == null ? 0L : vigia.getDeadlocks();
+	}
+
+	@Override
+	public long getEsperasCircularesDetectadas() {
+		VigiaMesa vigia = this.mesa.getVigia();
+		return vigia == null ? 0L : vigia.getEsperasCirculares();
+	}
+
+	@Override
+	public long getLivelocksDetectados() {
+		VigiaMesa vigia = this.mesa.getVigia();
+		return vigia == null ? 0L : vigia.getLivelocks();
+	}
+
+	@Override
+	public int getFilosofosEmDeadlock() {
+		VigiaMesa vigia = this.mesa.getVigia();
+		return vigia == null ? 0 : vigia.getFilosofosEmDeadlock();
+	}
+
+	@Override
+	public String getUltimoDiagnostico() {
+		VigiaMesa vigia = this.mesa.getVigia();
+		return vigia == null ? "" : vigia.getUltimoDiagnostico();
+	}
+
+	/**
+	 * Escreve as mtricas no formato texto do Prometheus (verso 0.0.4).
+	 * Alm dos totais da mesa, as refeies, falhas e limites de recuo so
+	 * exibidos por filsofo e os despertares por garfo.
+	 *
+	 * @param saida
+	 *            {@link StringBuilder} - Texto onde as mtricas so escritas.
+	 */
+	public void escrevePrometheus(StringBuilder saida) {
+		cabecalho(saida, "mesa_filosofos", "gauge",
+				"Filsofos em cada estado.");
+		for (Estado estado : Estado.values()) {
+			saida.append("mesa_filosofos{estado=\"").append(estado.name())
+					.append("\"} ").append(contaEstado(estado)).append('\n');
+		}
+		cabecalho(saida, "mesa_garfos_ocupados", "gauge", "Garfos ocupados.");
+		saida.append("mesa_garfos_ocupados ").append(getGarfosOcupados())
+				.append('\n');
+		cabecalho(saida, "mesa_indice_justica", "gauge",
+				"ndice de justia de Jain sobre as refeies.");
+		saida.append("mesa_indice_justica ").append(getIndiceJustica())
+				.append('\n');
+		cabecalho(saida, "mesa_maior_fome_segundos", "gauge",
+				"Maior espera entre ficar faminto e comer, concluda ou no.");
+		saida.append("mesa_maior_fome_segundos ")
+				.append(this.mesa.getMaiorFome(System.nanoTime()) / 1.0e9)
+				.append('\n');
+
+		cabecalho(saida, "mesa_refeicoes_total", "counter",
+				"Refeies por filsofo.");
+		for (Filosofo filosofo : this.mesa.getFilosofos()) {
+			rotuloFilosofo(saida, "mesa_refeicoes_total", filosofo).append(
+					filosofo.getRefeicoes()).append('\n');
+		}
+		cabecalho(saida, "mesa_falhas_aquisicao_total", "counter",
+				"Tentativas de pegar os garfos encerradas sem os dois garfos.");
+		for (Filosofo filosofo : this.mesa.getFilosofos()) {
+			rotuloFilosofo(saida, "mesa_falhas_aquisicao_total", filosofo)
+					.append(filosofo.getFalhas()).append('\n');
+		}
+		cabecalho(saida, "mesa_recuos_total", "counter",
+				"Novas tentativas feitas aps um recuo exponencial sem garfos.");
+		saida.append("mesa_recuos_total ").append(getRecuos()).append('\n');
+		cabecalho(saida, "mesa_limite_recuo_segundos", "gauge",
+				"Limite do recuo exponencial por filsofo.");
+		for (Filosofo filosofo : this.mesa.getFilosofos()) {
+			rotuloFilosofo(saida, "mesa_limite_recuo_segundos", filosofo)
+					.append(filosofo.getLimiteRecuo() / 1000.0).append('\n');
+		}
+
+		/*
+		 * Os dois contadores so exportados como esto, sem subtrao: lidos
+		 * em momentos diferentes, a diferena poderia diminuir, o que o
+		 * Prometheus trata como reincio do contador. Os despertares que
+		 * resultaram na posse so a diferena entre eles, calculada na
+		 * consulta.
+		 */
+		cabecalho(saida, "mesa_garfo_despertares_total", "counter",
+				"Despertares de threads que aguardavam o garfo.");
+		for (int i = 0; i < this.mesa.getQuantidade(); i++) {
+			saida.append("mesa_garfo_despertares_total{garfo=\"").append(i)
+					.append("\"} ").append(this.mesa.getGarfo(i).getDespertares())
+					.append('\n');
+		}
+		cabecalho(saida, "mesa_garfo_despertares_espurios_total", "counter",
+				"Despertares que no resultaram na posse do garfo.");
+		for (int i = 0; i < this.mesa.getQuantidade(); i++) {
+			saida.append("mesa_garfo_despertares_espurios_total{garfo=\"")
+					.append(i).append("\"} ")
+					.append(this.mesa.getGarfo(i).getDespertaresEspurios())
+					.append('\n');
+		}
+		cabecalho(saida, "mesa_garfo_entregas_total", "counter",
+				"Entregas diretas do garfo a quem o aguardava.");
+		for (int i = 0; i < this.mesa.getQuantidade(); i++) {
+			saida.append("mesa_garfo_entregas_total{garfo=\"").append(i)
+					.append("\"} ").append(this.mesa.getGarfo(i).getEntregas())
+					.append('\n');
+		}
+
+		cabecalho(saida, "mesa_deadlocks_detectados_total", "counter",
+				"Ciclos de espera sem tempo limite detectados pela vigia.");
+		saida.append("mesa_deadlocks_detectados_total ")
+				.append(getDeadlocksDetectados()).append('\n');
+		cabecalho(saida, "mesa_esperas_circulares_total", "counter",
+				"Ciclos de espera com tempo limite, desfeitos sozinhos.");
+		saida.append("mesa_esperas_circulares_total ")
+				.append(getEsperasCircularesDetectadas()).append('\n');
+		cabecalho(saida, "mesa_livelocks_detectados_total", "counter",
+				"Episdios de filsofos desistindo sem comer por uma janela.");
+		saida.append("mesa_livelocks_detectados_total ")
+				.append(getLivelocksDetectados()).append('\n');
+		cabecalho(saida, "mesa_filosofos_em_deadlock", "gauge",
+				"Filsofos em ciclos de espera na ltima verificao.");
+		saida.append("mesa_filosofos_em_deadlock ")
+				.append(getFilosofosEmDeadlock()).append('\n');
+	}
+
+	/**
+	 * Escreve as linhas HELP e TYPE de uma mtrica.
+	 */
+	private static void cabecalho(StringBuilder saida, String nome,
+			String tipo, String ajuda) {
+		saida.append("# HELP ").append(nome).append(' ').append(ajuda)
+				.append('\n');
+		saida.append("# TYPE ").append(nome).append(' ').append(tipo)
+				.append('\n');
+	}
+
+	/**
+	 * Escreve o nome da mtrica com o rtulo do filsofo.
+	 */
+	private static StringBuilder rotuloFilosofo(StringBuilder saida,
+			String nome, Filosofo filosofo) {
+		return saida.append(nome).append("{filosofo=\"")
+				.append(filosofo.getIndice()).append("\",nome=\"")
+				.append(filosofo.getNome().replace("\\", "\\\\")
+						.replace("\"", "\\\"")).append("\"} ");
+	}
+}
@@ -0,0 +1,109 @@
+package br.com.uniara.metrica;
+
+/**
+ * Interface de gerenciamento (JMX) das mtricas de uma mesa, implementada por
+ * {@link MetricasMesa}. Todos os atributos so somente leitura e calculados no
+ * momento da leitura.
+ */
+public interface MetricasMesaMBean {
+
+	/**
+	 * @return int - Filsofos pensando.
+	 */
+	int getFilosofosPensando();
+
+	/**
+	 * @return int - Filsofos famintos sem garfos.
+	 */
+	int getFilosofosFamintosSemGarfos();
+
+	/**
+	 * @return int - Filsofos famintos com um garfo.
+	 */
+	int getFilosofosFamintosComGarfo();
+
+	/**
+	 * @return int - Filsofos comendo.
+	 */
+	int getFilosofosComendo();
+
+	/**
+	 * @return int - Garfos ocupados.
+	 */
+	int getGarfosOcupados();
+
+	/**
+	 * @return long - Refeies feitas desde o incio da mesa.
+	 */
+	long getRefeicoes();
+
+	/**
+	 * @return long - Tentativas de pegar os garfos encerradas sem os dois
+	 *         garfos (na estratgia padro, esperas pelo segundo garfo
+	 *         encerradas pelo tempo limite).
+	 */
+	long getFalhasAquisicao();
+
+	/**
+	 * @return long - Novas tentativas feitas aps um recuo exponencial sem
+	 *         garfos, na estratgia padro.
+	 */
+	long getRecuos();
+
+	/**
+	 * @return double - Limite mdio do recuo exponencial dos filsofos, em
+	 *         milisegundos; zero sem recuo.
+	 */
+	double getLimiteRecuoMedioMilissegundos();
+
+	/**
+	 * @return long - Despertares de threads que aguardavam um garfo.
+	 */
+	long getDespertares();
+
+	/**
+	 * @return long - Despertares que no resultaram na posse do garfo.
+	 */
+	long getDespertaresEspurios();
+
+	/**
+	 * @return long - Garfos entregues diretamente a quem os aguardava.
+	 */
+	long getEntregas();
+
+	/**
+	 * @return double - ndice de justia de Jain sobre as refeies.
+	 */
+	double getIndiceJustica();
+
+	/**
+	 * @return double - Maior fome da mesa, em milisegundos.
+	 */
+	double getMaiorFomeMilissegundos();
+
+	/**
+	 * @return long - Deadlocks (ciclos de espera) detectados pela vigia.
+	 */
+	long getDeadlocksDetectados();
+
+	/**
+	 * @return long - Esperas circulares transitrias (ciclos de espera com
+	 *         tempo limite) vistas pela vigia.
+	 */
+	long getEsperasCircularesDetectadas();
+
+	/**
+	 * @return long - Episdios de livelock detectados pela vigia.
+	 */
+	long getLivelocksDetectados();
+
+	/**
+	 * @return int - Filsofos em ciclos de espera na ltima verificao.
+	 */
+	int getFilosofosEmDeadlock();
+
+	/**
+	 * @return String - Descrio do ltimo deadlock ou livelock detectado.
+	 */
+	String getUltimoDiagnostico();
+}
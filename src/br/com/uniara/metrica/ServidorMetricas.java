@@ -0,0 +1,107 @@
+package br.com.uniara.metrica;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servidor HTTP mnimo, apenas no endereo local, que publica as
+ * {@link MetricasMesa} no formato texto do Prometheus em /metrics.<br/>
+ * <br/>
+ * Usa o servidor HTTP embutido no JDK, com uma nica thread: as mtricas s
+ * so calculadas quando algum as l, portanto o servidor parado no custa
+ * nada aos filsofos.<br/>
+ * <br/>
+ * Exemplo: curl http://localhost:9400/metrics
+ */
+public class ServidorMetricas {
+
+	/**
+	 * Chave da porta do servidor nas propriedades; ausente ou negativa
+	 * desativa o servidor.
+	 */
+	public static final String CHAVE_PORTA = "metricas.porta";
+	public static final String CAMINHO = "/metrics";
+	private static final String TIPO_CONTEUDO = "text/plain; version=0.0.4; charset=utf-8";
+
+	private final MetricasMesa metricas;
+	private final HttpServer servidor;
+
+	/**
+	 * Cria o servidor, sem inici-lo.
+	 *
+	 * @param metricas
+	 *            {@link MetricasMesa} - Mtricas publicadas.
+	 * @param porta
+	 *            int - Porta local, zero para escolher uma porta livre.
+	 * @throws IOException
+	 *             Caso a porta no possa ser usada.
+	 */
+	public ServidorMetricas(MetricasMesa metricas, int porta)
+			throws IOException {
+		this.metricas = metricas;
+		this.servidor = HttpServer.create(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), porta), 0);
+		this.servidor.createContext(CAMINHO, new HttpHandler() {
+			@Override
+			public void handle(HttpExchange troca) throws IOException {
+				responde(troca);
+			}
+		});
+	}
+
+	/**
+	 * Responde uma requisio com as mtricas atuais.
+	 */
+	private void responde(HttpExchange troca) throws IOException {
+		try {
+			if (!"GET".equals(troca.getRequestMethod())) {
+				troca.sendResponseHeaders(405, -1L);
+				return;
+			}
+			StringBuilder texto = new StringBuilder(4096);
+			this.metricas.escrevePrometheus(texto);
+			byte[] corpo = texto.toString().getBytes(StandardCharsets.UTF_8);
+			troca.getResponseHeaders().set("Content-Type", TIPO_CONTEUDO);
+			troca.sendResponseHeaders(200, corpo.length);
+			OutputStream saida = troca.getResponseBody();
+			try {
+				saida.write(corpo);
+			} finally {
+				saida.close();
+			}
+		} finally {
+			troca.close();
+		}
+	}
+
+	/**
+	 * Inicia o atendimento das requisies.
+	 */
+	public void inicia() {
+		this.servidor.start();
+	}
+
+	/**
+	 * Encerra o servidor imediatamente.
+	 */
+	public void para() {
+		this.servidor.stop(0);
+	}
+
+	/**
+	 * Retorna a porta em que o servidor atende, til quando criado com a
+	 * porta zero.
+	 *
+	 * @return int - Porta local.
+	 */
+	public int getPorta() {
+		return this.servidor.getAddress().getPort();
+	}
+}
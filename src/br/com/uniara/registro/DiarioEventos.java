@@ -0,0 +1,258 @@
+package br.com.uniara.registro;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoRegistro;
+
+/**
+ * Dirio binrio de uma execuo da mesa, gravado em um arquivo mapeado em
+ * memria para ser reproduzido ou analisado depois ( {@link LeitorDiario} ).
+ * <br/>
+ * <br/>
+ * O arquivo tem um cabealho de {@link #TAMANHO_CABECALHO} bytes seguido de
+ * registros de {@link #TAMANHO_REGISTRO} bytes, em little-endian:<br/>
+ * cabealho - mgico (int), verso (int), quantidade de filsofos (int),
+ * tamanho do registro (int), incio em milisegundos desde 1970 (long) e
+ * quantidade de registros (long, gravada ao fechar).<br/>
+ * registro - instante em nanossegundos desde o incio (long), ndice do
+ * filsofo (int) e cdigo (int): o {@link TipoRegistro} no byte mais alto e o
+ * valor (estado ou ndice do garfo) nos outros trs.<br/>
+ * <br/>
+ * Vrias threads gravam ao mesmo tempo sem locks: cada uma reserva a sua
+ * posio com um nico incremento atmico e escreve direto na memria
+ * mapeada, sem alocar objetos. O arquivo cresce em segmentos de
+ * {@link #TAMANHO_SEGMENTO} bytes, mapeados na primeira gravao de cada um.
+ * Ao atingir o limite de tamanho, os registros seguintes so descartados e
+ * contabilizados. O cdigo  gravado por ltimo; como o arquivo novo 
+ * preenchido com zeros, um dirio que no foi fechado ainda pode ser lido at
+ * o primeiro registro incompleto.
+ */
+public class DiarioEventos implements Closeable {
+
+	public static final int MAGICO = 0x4449464A;
+	public static final int VERSAO = 1;
+	public static final int TAMANHO_CABECALHO = 32;
+	public static final int TAMANHO_REGISTRO = 16;
+	/**
+	 * Tamanho de cada segmento mapeado: 16 MB, ou 1 milho de registros.
+	 */
+	public static final long TAMANHO_SEGMENTO = 1L << 24;
+	/**
+	 * Maior valor que cabe nos trs bytes do cdigo.
+	 */
+	public static final int VALOR_MAXIMO = (1 << 24) - 1;
+
+	static final int POSICAO_REGISTROS = 24;
+
+	private final RandomAccessFile arquivo;
+	private final FileChannel canal;
+	private final int quantidade;
+	private final long limite;
+	private final long nanoInicio;
+	private final AtomicReferenceArray<MappedByteBuffer> segmentos;
+
+	private final AtomicLong escrita = new AtomicLong();
+	private final AtomicLong descartados = new AtomicLong();
+	private volatile boolean fechado = false;
+
+	/**
+	 * Cria o dirio, substituindo o arquivo caso ele exista.
+	 *
+	 * @param destino
+	 *            {@link File} - Arquivo do dirio.
+	 * @param quantidade
+	 *            int - Quantidade de filsofos (e de garfos) da mesa.
+	 * @param limiteBytes
+	 *            long - Tamanho mximo dos registros, em bytes.
+	 * @throws IOException
+	 *             Caso o arquivo no possa ser criado.
+	 */
+	public DiarioEventos(File destino, int quantidade, long limiteBytes)
+			throws IOException {
+		if (quantidade < 1 || quantidade > VALOR_MAXIMO) {
+			throw new IllegalArgumentException(
+					"Quantidade de filsofos invlida para o dirio: "
+							+ quantidade);
+		}
+		if (limiteBytes < TAMANHO_REGISTRO) {
+			throw new IllegalArgumentException("Limite do dirio invlido: "
+					+ limiteBytes);
+		}
+		this.quantidade = quantidade;
+		this.limite = limiteBytes - limiteBytes % TAMANHO_REGISTRO;
+		this.segmentos = new AtomicReferenceArray<MappedByteBuffer>(
+				(int) ((this.limite - 1) / TAMANHO_SEGMENTO) + 1);
+		this.arquivo = new RandomAccessFile(destino, "rw");
+		this.canal = this.arquivo.getChannel();
+		this.canal.truncate(0L);
+
+		ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(
+				ByteOrder.LITTLE_ENDIAN);
+		cabecalho.putInt(MAGICO).putInt(VERSAO).putInt(quantidade)
+				.putInt(TAMANHO_REGISTRO).putLong(System.currentTimeMillis())
+				.putLong(0L).flip();
+		this.canal.write(cabecalho, 0L);
+		this.nanoInicio = System.nanoTime();
+	}
+
+	/**
+	 * Grava a alterao de estado de um filsofo.
+	 *
+	 * @param filosofo
+	 *            int - ndice do filsofo.
+	 * @param estado
+	 *            {@link Estado} - Novo estado.
+	 * @return boolean - "false" caso o registro tenha sido descartado.
+	 */
+	public boolean registraEstado(int filosofo, Estado estado) {
+		return registra(TipoRegistro.ESTADO, filosofo, estado.ordinal());
+	}
+
+	/**
+	 * Grava que um filsofo pegou ou vai soltar um garfo.
+	 *
+	 * @param filosofo
+	 *            int - ndice do filsofo.
+	 * @param garfo
+	 *            int - ndice do garfo.
+	 * @param pego
+	 *            boolean - "true" quando o garfo foi pego e "false" quando
+	 *            vai ser solto.
+	 * @return boolean - "false" caso o registro tenha sido descartado.
+	 */
+	public boolean registraGarfo(int filosofo, int garfo, boolean pego) {
+		return registra(pego ? TipoRegistro.GARFO_PEGO
+				: TipoRegistro.GARFO_SOLTO, filosofo, garfo);
+	}
+
+	/**
+	 * Reserva uma posio e grava o registro.
+	 */
+	private boolean registra(TipoRegistro tipo, int filosofo, int valor) {
+		long instante = System.nanoTime() - this.nanoInicio;
+		if (this.fechado) {
+			this.descartados.incrementAndGet();
+			return false;
+		}
+		long posicao = this.escrita.getAndAdd(TAMANHO_REGISTRO);
+		if (posicao >= this.limite) {
+			this.descartados.incrementAndGet();
+			return false;
+		}
+		MappedByteBuffer segmento = segmento((int) (posicao / TAMANHO_SEGMENTO));
+		int deslocamento = (int) (posicao % TAMANHO_SEGMENTO);
+		segmento.putLong(deslocamento, instante);
+		segmento.putInt(deslocamento + 8, filosofo);
+		// O cdigo, nunca zero,  gravado por ltimo e marca o registro pronto.
+		segmento.putInt(deslocamento + 12, (tipo.getCodigo() << 24) | valor);
+		return true;
+	}
+
+	/**
+	 * Retorna o segmento informado, mapeando-o na primeira vez.
+	 */
+	private MappedByteBuffer segmento(int indice) {
+		MappedByteBuffer segmento = this.segmentos.get(indice);
+		if (segmento == null) {
+			segmento = mapeia(indice);
+		}
+		return segmento;
+	}
+
+	/**
+	 * Mapeia um novo segmento do arquivo, o que tambm aumenta o arquivo.
+	 */
+	private synchronized MappedByteBuffer mapeia(int indice) {
+		MappedByteBuffer segmento = this.segmentos.get(indice);
+		if (segmento != null) {
+			return segmento;
+		}
+		try {
+			segmento = this.canal.map(FileChannel.MapMode.READ_WRITE,
+					TAMANHO_CABECALHO + indice * TAMANHO_SEGMENTO,
+					Math.min(TAMANHO_SEGMENTO, this.limite - indice
+							* TAMANHO_SEGMENTO));
+		} catch (IOException excecao) {
+			throw new IllegalStateException(
+					"No foi possvel aumentar o dirio.", excecao);
+		}
+		segmento.order(ByteOrder.LITTLE_ENDIAN);
+		this.segmentos.set(indice, segmento);
+		return segmento;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de filsofos da mesa gravada.
+	 *
+	 * @return int - Quantidade de filsofos (e de garfos).
+	 */
+	public int getQuantidade() {
+		return quantidade;
+	}
+
+	/**
+	 * Retorna a quantidade de registros gravados.
+	 *
+	 * @return long - Registros no arquivo.
+	 */
+	public long getRegistros() {
+		return Math.min(this.escrita.get(), this.limite) / TAMANHO_REGISTRO;
+	}
+
+	/**
+	 * Retorna a quantidade de registros descartados por falta de espao.
+	 *
+	 * @return long - Registros descartados.
+	 */
+	public long getDescartados() {
+		return this.descartados.get();
+	}
+
+	/**
+	 * Grava a quantidade de registros no cabealho, descarrega os segmentos
+	 * no disco e fecha o arquivo. Deve ser chamado depois que as threads que
+	 * gravam terminarem; registros posteriores so descartados.<br/>
+	 * O arquivo  reduzido ao tamanho dos registros quando o sistema permite
+	 * truncar um arquivo mapeado; caso contrrio ele mantm o tamanho do
+	 * ltimo segmento e vale a quantidade do cabealho.
+	 *
+	 * @throws IOException
+	 *             Caso o arquivo no possa ser gravado.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.fechado) {
+			return;
+		}
+		this.fechado = true;
+		long registros = getRegistros();
+		for (int i = 0; i < this.segmentos.length(); i++) {
+			MappedByteBuffer segmento = this.segmentos.get(i);
+			if (segmento != null) {
+				segmento.force();
+			}
+		}
+		ByteBuffer quantidade = ByteBuffer.allocate(8).order(
+				ByteOrder.LITTLE_ENDIAN);
+		quantidade.putLong(registros).flip();
+		this.canal.write(quantidade, POSICAO_REGISTROS);
+		try {
+			this.canal.truncate(TAMANHO_CABECALHO + registros
+					* TAMANHO_REGISTRO);
+		} catch (IOException excecao) {
+			// Arquivo ainda mapeado: o cabealho indica os registros vlidos.
+		}
+		this.canal.force(true);
+		this.arquivo.close();
+	}
+}
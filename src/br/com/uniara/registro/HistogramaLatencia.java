@@ -0,0 +1,157 @@
+package br.com.uniara.registro;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latncias com preciso relativa fixa, no estilo do
+ * HdrHistogram, com memria constante e sem alocao ao registrar.<br/>
+ * <br/>
+ * Os valores, em nanossegundos, so agrupados por potncia de dois e cada
+ * potncia  dividida em {@link #SUBFAIXAS} / 2 subfaixas lineares, portanto
+ * o erro de qualquer percentil  de no mximo 1/32 (cerca de 3%) do valor.
+ * Valores at {@link #SUBFAIXAS} - 1 ns so exatos. Valores acima de
+ * {@link #MAXIMO_RASTREADO} ficam na ltima faixa, mas o mximo  guardado
+ * exatamente.<br/>
+ * <br/>
+ * Registrar  seguro para vrias threads e pode ser feito enquanto outra
+ * thread l o histograma; a leitura  um retrato aproximado do momento.
+ */
+public class HistogramaLatencia {
+
+	/**
+	 * Subfaixas da primeira faixa (valores exatos de 0 a SUBFAIXAS - 1).
+	 */
+	private static final int SUBFAIXAS = 64;
+	private static final int METADE = SUBFAIXAS / 2;
+	private static final int BITS_SUBFAIXA = 6;
+	/**
+	 * Maior valor com a preciso garantida: 2^40 ns, cerca de 18 minutos.
+	 */
+	public static final long MAXIMO_RASTREADO = 1L << 40;
+	private static final int TAMANHO = posicao(MAXIMO_RASTREADO - 1) + 1;
+
+	private final AtomicLongArray contagens = new AtomicLongArray(TAMANHO);
+	private final AtomicLong quantidade = new AtomicLong();
+	private final AtomicLong soma = new AtomicLong();
+	private final AtomicLong maximo = new AtomicLong();
+
+	/**
+	 * Registra um valor.
+	 *
+	 * @param nanossegundos
+	 *            long - Latncia medida; valores negativos so ignorados.
+	 */
+	public void registra(long nanossegundos) {
+		if (nanossegundos < 0L) {
+			return;
+		}
+		this.contagens.incrementAndGet(posicao(Math.min(nanossegundos,
+				MAXIMO_RASTREADO - 1)));
+		this.soma.addAndGet(nanossegundos);
+		long atual = this.maximo.get();
+		while (nanossegundos > atual
+				&& !this.maximo.compareAndSet(atual, nanossegundos)) {
+			atual = this.maximo.get();
+		}
+		// Incrementado por ltimo: quem l a quantidade j v a contagem.
+		this.quantidade.incrementAndGet();
+	}
+
+	/**
+	 * Soma ao histograma os valores de outro histograma.
+	 *
+	 * @param outro
+	 *            {@link HistogramaLatencia} - Histograma somado.
+	 */
+	public void adiciona(HistogramaLatencia outro) {
+		for (int i = 0; i < TAMANHO; i++) {
+			long contagem = outro.contagens.get(i);
+			if (contagem > 0L) {
+				this.contagens.addAndGet(i, contagem);
+			}
+		}
+		this.soma.addAndGet(outro.soma.get());
+		long maximoOutro = outro.maximo.get();
+		long atual = this.maximo.get();
+		while (maximoOutro > atual
+				&& !this.maximo.compareAndSet(atual, maximoOutro)) {
+			atual = this.maximo.get();
+		}
+		this.quantidade.addAndGet(outro.quantidade.get());
+	}
+
+	/**
+	 * Retorna a quantidade de valores registrados.
+	 *
+	 * @return long - Quantidade de valores.
+	 */
+	public long getQuantidade() {
+		return this.quantidade.get();
+	}
+
+	/**
+	 * Retorna a mdia dos valores registrados.
+	 *
+	 * @return double - Mdia em nanossegundos, ou -1 sem valores.
+	 */
+	public double getMedia() {
+		long total = this.quantidade.get();
+		return total == 0L ? -1.0 : (double) this.soma.get() / total;
+	}
+
+	/**
+	 * Retorna o maior valor registrado, sem perda de preciso.
+	 *
+	 * @return long - Mximo em nanossegundos, ou -1 sem valores.
+	 */
+	public long getMaximo() {
+		return this.quantidade.get() == 0L ? -1L : this.maximo.get();
+	}
+
+	/**
+	 * Retorna o percentil informado. O valor retornado  o maior valor
+	 * equivalente da faixa que contm o percentil, limitado ao mximo.
+	 *
+	 * @param percentil
+	 *            double - Valor entre 0 e 100.
+	 * @return long - Tempo em nanossegundos, ou -1 sem valores.
+	 */
+	public long getPercentil(double percentil) {
+		long total = 0L;
+		for (int i = 0; i < TAMANHO; i++) {
+			total += this.contagens.get(i);
+		}
+		if (total == 0L) {
+			return -1L;
+		}
+		long alvo = Math.max(1L, (long) Math.ceil(percentil / 100.0 * total));
+		long acumulado = 0L;
+		for (int i = 0; i < TAMANHO; i++) {
+			acumulado += this.contagens.get(i);
+			if (acumulado >= alvo) {
+				return Math.min(limiteSuperior(i), this.maximo.get());
+			}
+		}
+		return this.maximo.get();
+	}
+
+	/**
+	 * Calcula a posio do valor no vetor de contagens.
+	 */
+	private static int posicao(long valor) {
+		int faixa = 63 - Long.numberOfLeadingZeros(valor | (SUBFAIXAS - 1))
+				- (BITS_SUBFAIXA - 1);
+		int subfaixa = (int) (valor >>> faixa);
+		return faixa * METADE + subfaixa;
+	}
+
+	/**
+	 * Calcula o maior valor que cai na posio informada.
+	 */
+	private static long limiteSuperior(int posicao) {
+		int faixa = posicao < SUBFAIXAS ? 0 : posicao / METADE - 1;
+		long subfaixa = posicao - faixa * METADE;
+		return ((subfaixa + 1L) << faixa) - 1L;
+	}
+}
@@ -0,0 +1,215 @@
+package br.com.uniara.registro;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import br.com.uniara.constante.TipoRegistro;
+
+/**
+ * L um arquivo gravado pelo {@link DiarioEventos}, percorrendo os registros
+ * na ordem do arquivo.<br/>
+ * <br/>
+ * O arquivo  mapeado somente para leitura, um segmento por vez, portanto a
+ * memria usada no depende do tamanho do dirio. Um dirio que no foi
+ * fechado (quantidade zero no cabealho)  lido at o primeiro registro
+ * incompleto.<br/>
+ * <br/>
+ * Os registros aparecem na ordem em que as posies foram reservadas, que
+ * pode diferir em poucos nanossegundos da ordem dos instantes quando vrias
+ * threads gravam ao mesmo tempo.
+ */
+public class LeitorDiario implements Closeable {
+
+	/**
+	 * Recebe os registros lidos do dirio.
+	 */
+	public interface Consumidor {
+
+		/**
+		 * Chamado para cada registro, na ordem do arquivo.
+		 *
+		 * @param tipo
+		 *            {@link TipoRegistro} - Tipo do registro.
+		 * @param filosofo
+		 *            int - ndice do filsofo.
+		 * @param valor
+		 *            int - Ordinal do estado ou ndice do garfo.
+		 * @param instante
+		 *            long - Nanossegundos desde o incio do dirio.
+		 * @return boolean - "false" para encerrar a leitura neste registro.
+		 */
+		boolean consome(TipoRegistro tipo, int filosofo, int valor,
+				long instante);
+	}
+
+	private final RandomAccessFile arquivo;
+	private final FileChannel canal;
+	private final int quantidade;
+	private final long inicio;
+	private final long registros;
+
+	/**
+	 * Abre o dirio e l o seu cabealho.
+	 *
+	 * @param origem
+	 *            {@link File} - Arquivo do dirio.
+	 * @throws IOException
+	 *             Caso o arquivo no possa ser lido ou no seja um dirio.
+	 */
+	public LeitorDiario(File origem) throws IOException {
+		this.arquivo = new RandomAccessFile(origem, "r");
+		this.canal = this.arquivo.getChannel();
+		try {
+			ByteBuffer cabecalho = ByteBuffer.allocate(
+					DiarioEventos.TAMANHO_CABECALHO).order(
+					ByteOrder.LITTLE_ENDIAN);
+			while (cabecalho.hasRemaining()) {
+				if (this.canal.read(cabecalho, cabecalho.position()) < 0) {
+					throw new IOException("Dirio sem cabealho: " + origem);
+				}
+			}
+			cabecalho.flip();
+			if (cabecalho.getInt() != DiarioEventos.MAGICO) {
+				throw new IOException("O arquivo no  um dirio: " + origem);
+			}
+			int versao = cabecalho.getInt();
+			if (versao != DiarioEventos.VERSAO) {
+				throw new IOException("Verso do dirio no suportada: "
+						+ versao);
+			}
+			this.quantidade = cabecalho.getInt();
+			if (cabecalho.getInt() != DiarioEventos.TAMANHO_REGISTRO) {
+				throw new IOException("Tamanho de registro inesperado.");
+			}
+			this.inicio = cabecalho.getLong();
+			long gravados = cabecalho.getLong();
+			long disponiveis = (this.canal.size() - DiarioEventos.TAMANHO_CABECALHO)
+					/ DiarioEventos.TAMANHO_REGISTRO;
+			this.registros = gravados > 0L ? Math.min(gravados, disponiveis)
+					: -disponiveis;
+		} catch (IOException excecao) {
+			this.arquivo.close();
+			throw excecao;
+		}
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de filsofos da mesa gravada.
+	 *
+	 * @return int - Quantidade de filsofos (e de garfos).
+	 */
+	public int getQuantidade() {
+		return quantidade;
+	}
+
+	/**
+	 * Mtodo acessor do incio da gravao.
+	 *
+	 * @return long - Milisegundos desde 1970.
+	 */
+	public long getInicio() {
+		return inicio;
+	}
+
+	/**
+	 * Indica se o dirio foi fechado corretamente.
+	 *
+	 * @return boolean - "false" caso a quantidade de registros no esteja no
+	 *         cabealho e a leitura pare no primeiro registro incompleto.
+	 */
+	public boolean isCompleto() {
+		return this.registros >= 0L;
+	}
+
+	/**
+	 * Retorna a quantidade de registros do dirio. Para um dirio que no foi
+	 * fechado,  o mximo que o arquivo comporta; a leitura para antes, no
+	 * primeiro registro incompleto.
+	 *
+	 * @return long - Quantidade de registros.
+	 */
+	public long getRegistros() {
+		return Math.abs(this.registros);
+	}
+
+	/**
+	 * Percorre todos os registros do dirio.
+	 *
+	 * @param consumidor
+	 *            {@link Consumidor} - Quem recebe os registros.
+	 * @return long - Quantidade de registros lidos.
+	 * @throws IOException
+	 *             Caso o arquivo no possa ser lido.
+	 */
+	public long percorre(Consumidor consumidor) throws IOException {
+		return percorre(consumidor, 0L, getRegistros());
+	}
+
+	/**
+	 * Percorre os registros do intervalo informado. Pode ser chamado por
+	 * vrias threads ao mesmo tempo, cada uma com o seu intervalo, o que
+	 * permite processar partes de um dirio grande em paralelo.
+	 *
+	 * @param consumidor
+	 *            {@link Consumidor} - Quem recebe os registros.
+	 * @param inicio
+	 *            long - Primeiro registro, a partir de zero.
+	 * @param fim
+	 *            long - Registro seguinte ao ltimo, exclusivo.
+	 * @return long - Quantidade de registros lidos, menor que o intervalo
+	 *         caso um registro incompleto seja encontrado ou o consumidor
+	 *         encerre a leitura (o registro que a encerrou conta como lido).
+	 * @throws IOException
+	 *             Caso o arquivo no possa ser lido.
+	 */
+	public long percorre(Consumidor consumidor, long inicio, long fim)
+			throws IOException {
+		long limite = Math.min(fim, getRegistros());
+		long porSegmento = DiarioEventos.TAMANHO_SEGMENTO
+				/ DiarioEventos.TAMANHO_REGISTRO;
+		long posicao = inicio;
+		while (posicao < limite) {
+			long nesteSegmento = Math.min(porSegmento, limite - posicao);
+			MappedByteBuffer segmento = this.canal.map(
+					FileChannel.MapMode.READ_ONLY,
+					DiarioEventos.TAMANHO_CABECALHO + posicao
+							* DiarioEventos.TAMANHO_REGISTRO, nesteSegmento
+							* DiarioEventos.TAMANHO_REGISTRO);
+			segmento.order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < nesteSegmento; i++) {
+				int deslocamento = i * DiarioEventos.TAMANHO_REGISTRO;
+				int codigo = segmento.getInt(deslocamento + 12);
+				TipoRegistro tipo = TipoRegistro.doCodigo(codigo >>> 24);
+				if (tipo == null) {
+					// Posio no escrita: fim de um dirio no fechado.
+					return posicao + i - inicio;
+				}
+				if (!consumidor.consome(tipo, segmento.getInt(deslocamento + 8),
+						codigo & DiarioEventos.VALOR_MAXIMO,
+						segmento.getLong(deslocamento))) {
+					// Os segmentos restantes nem so mapeados.
+					return posicao + i + 1 - inicio;
+				}
+			}
+			posicao += nesteSegmento;
+		}
+		return posicao - inicio;
+	}
+
+	/**
+	 * Fecha o arquivo do dirio.
+	 *
+	 * @throws IOException
+	 *             Caso o arquivo no possa ser fechado.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.arquivo.close();
+	}
+}
@@ -0,0 +1,167 @@
+package br.com.uniara.registro;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoEvento;
+
+/**
+ * Buffer circular, limitado e sem locks, com os eventos dos filsofos a serem
+ * exibidos no log.<br/>
+ * <br/>
+ * Vrios produtores (as threads dos filsofos) e um nico consumidor. Cada
+ * evento ocupa uma posio pr-alocada com apenas valores primitivos (tipo do
+ * evento, ndice do filsofo, ordinal do estado e instante em System.nanoTime),
+ * portanto registrar um evento no formata texto nem aloca objetos. O texto s
+ *  montado quando um {@link Consumidor} pede, ao ler o buffer. Quem produz
+ * nunca espera: com o buffer cheio o evento  descartado e contabilizado.<br/>
+ * <br/>
+ * Cada posio guarda uma sequncia que indica quem pode us-la: igual 
+ * posio de escrita quando est livre para o produtor e igual  posio de
+ * escrita mais um quando o evento est pronto para o consumidor.
+ */
+public class RegistroEventos {
+
+	/**
+	 * Recebe os eventos lidos do buffer.
+	 */
+	public interface Consumidor {
+
+		/**
+		 * Chamado para cada evento, na ordem em que foram registrados.
+		 *
+		 * @param tipo
+		 *            {@link TipoEvento} - Tipo do evento.
+		 * @param filosofo
+		 *            int - ndice do filsofo na mesa.
+		 * @param estado
+		 *            {@link Estado} - Novo estado, nas alteraes de estado.
+		 * @param instante
+		 *            long - Momento do evento, em System.nanoTime().
+		 */
+		void consome(TipoEvento tipo, int filosofo, Estado estado,
+				long instante);
+	}
+
+	private static final TipoEvento[] TIPOS = TipoEvento.values();
+	private static final Estado[] ESTADOS = Estado.values();
+
+	private final int mascara;
+	private final AtomicLongArray sequencias;
+	private final byte[] tipos;
+	private final int[] filosofos;
+	private final byte[] estados;
+	private final long[] instantes;
+
+	private final AtomicLong escrita = new AtomicLong();
+	private final AtomicLong descartados = new AtomicLong();
+	/**
+	 * Posio de leitura, alterada apenas pelo consumidor.
+	 */
+	private long leitura = 0L;
+
+	/**
+	 * Construtor do buffer.
+	 *
+	 * @param capacidade
+	 *            int - Quantidade mxima de eventos pendentes, arredondada para
+	 *            a prxima potncia de dois.
+	 */
+	public RegistroEventos(int capacidade) {
+		if (capacidade < 1 || capacidade > (1 << 30)) {
+			throw new IllegalArgumentException("Capacidade invlida: "
+					+ capacidade);
+		}
+		int tamanho = Integer.highestOneBit(capacidade);
+		if (tamanho < capacidade) {
+			tamanho <<= 1;
+		}
+		this.mascara = tamanho - 1;
+		this.sequencias = new AtomicLongArray(tamanho);
+		for (int i = 0; i < tamanho; i++) {
+			this.sequencias.set(i, i);
+		}
+		this.tipos = new byte[tamanho];
+		this.filosofos = new int[tamanho];
+		this.estados = new byte[tamanho];
+		this.instantes = new long[tamanho];
+	}
+
+	/**
+	 * Registra um evento. Nunca bloqueia: com o buffer cheio o evento 
+	 * descartado.
+	 *
+	 * @param tipo
+	 *            {@link TipoEvento} - Tipo do evento.
+	 * @param filosofo
+	 *            int - ndice do filsofo na mesa.
+	 * @param estado
+	 *            {@link Estado} - Novo estado, pode ser nulo quando o tipo no
+	 *             uma alterao de estado.
+	 * @return boolean - "true" caso o evento tenha sido registrado.
+	 */
+	public boolean registra(TipoEvento tipo, int filosofo, Estado estado) {
+		long posicao;
+		int indice;
+		while (true) {
+			posicao = this.escrita.get();
+			indice = (int) posicao & this.mascara;
+			long diferenca = this.sequencias.get(indice) - posicao;
+			if (diferenca == 0L) {
+				if (this.escrita.compareAndSet(posicao, posicao + 1)) {
+					break;
+				}
+			} else if (diferenca < 0L) {
+				// O consumidor ainda no liberou a posio: buffer cheio.
+				this.descartados.incrementAndGet();
+				return false;
+			}
+		}
+		this.tipos[indice] = (byte) tipo.ordinal();
+		this.filosofos[indice] = filosofo;
+		this.estados[indice] = (byte) (estado == null ? -1 : estado.ordinal());
+		this.instantes[indice] = System.nanoTime();
+		// Publica o evento para o consumidor.
+		this.sequencias.lazySet(indice, posicao + 1);
+		return true;
+	}
+
+	/**
+	 * Entrega ao consumidor os eventos prontos, at o limite informado. Deve
+	 * ser chamado sempre pela mesma thread.
+	 *
+	 * @param consumidor
+	 *            {@link Consumidor} - Destino dos eventos.
+	 * @param limite
+	 *            int - Quantidade mxima de eventos lidos.
+	 * @return int - Quantidade de eventos lidos.
+	 */
+	public int consome(Consumidor consumidor, int limite) {
+		int lidos = 0;
+		while (lidos < limite) {
+			int indice = (int) this.leitura & this.mascara;
+			if (this.sequencias.get(indice) != this.leitura + 1) {
+				break;
+			}
+			byte estado = this.estados[indice];
+			consumidor.consome(TIPOS[this.tipos[indice]],
+					this.filosofos[indice], estado < 0 ? null
+							: ESTADOS[estado], this.instantes[indice]);
+			// Libera a posio para a prxima volta dos produtores.
+			this.sequencias.lazySet(indice, this.leitura + this.mascara + 1);
+			this.leitura++;
+			lidos++;
+		}
+		return lidos;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de eventos descartados por falta de espao.
+	 *
+	 * @return long - Eventos descartados desde a criao do buffer.
+	 */
+	public long getDescartados() {
+		return this.descartados.get();
+	}
+}
@@ -0,0 +1,366 @@
+package br.com.uniara.simulacao;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.List;
+import java.util.Properties;
+
+import javax.management.JMException;
+
+import br.com.uniara.entidade.ConfiguracaoMesa;
+import br.com.uniara.entidade.EstrategiaBackoff;
+import br.com.uniara.entidade.Filosofo;
+import br.com.uniara.entidade.Mesa;
+import br.com.uniara.entidade.VigiaMesa;
+import br.com.uniara.metrica.MetricasMesa;
+import br.com.uniara.metrica.ServidorMetricas;
+import br.com.uniara.registro.DiarioEventos;
+import br.com.uniara.registro.HistogramaLatencia;
+
+/**
+ * Executa a {@link Mesa} pela linha de comando, sem interface grfica, e
+ * exibe ao final um relatrio de vazo, latncia e justia: refeies por
+ * segundo, percentis do tempo entre ficar faminto e comer de cada filsofo,
+ * falhas de aquisio, ndice de justia de Jain, maior fome (inclusive de
+ * quem ainda no comeu) e o tempo de CPU consumido pelo processo.<br/>
+ * <br/>
+ * A simulao termina aps a durao informada ou, quando informado, ao
+ * atingir a quantidade total de refeies, o que ocorrer primeiro.<br/>
+ * <br/>
+ * Os argumentos so pares chave=valor com as chaves da
+ * {@link ConfiguracaoMesa} e as chaves abaixo. Um argumento sem "="  lido
+ * como arquivo de propriedades.<br/>
+ * simulacao.duracao - Durao mxima em segundos, padro 10.<br/>
+ * simulacao.refeicoes - Total de refeies que encerra a simulao, padro 0
+ * (sem limite).<br/>
+ * simulacao.diario - Arquivo onde a execuo  gravada ( {@link DiarioEventos}
+ * ), padro desligado.<br/>
+ * simulacao.diario.limite - Tamanho mximo do dirio em MB, padro 1024.<br/>
+ * metricas.porta - Porta local do {@link ServidorMetricas}, padro desligado.
+ * As mtricas tambm ficam disponveis por JMX durante a simulao (
+ * {@link MetricasMesa} ).<br/>
+ * <br/>
+ * Uso: java br.com.uniara.simulacao.Simulacao [mesa.filosofos=5]
+ * [mesa.garfo=ATOMICO] [simulacao.duracao=30] [arquivo.properties]
+ */
+public class Simulacao {
+
+	public static final String CHAVE_DURACAO = "simulacao.duracao";
+	public static final String CHAVE_REFEICOES = "simulacao.refeicoes";
+	public static final String CHAVE_DIARIO = "simulacao.diario";
+	public static final String CHAVE_LIMITE_DIARIO = "simulacao.diario.limite";
+
+	/**
+	 * Intervalo, em milisegundos, entre as verificaes de trmino.
+	 */
+	private static final long INTERVALO_VERIFICACAO = 10L;
+
+	private final ConfiguracaoMesa configuracao;
+	private final long duracao;
+	private final long limiteRefeicoes;
+	private final int portaMetricas;
+	private File arquivoDiario;
+	private long limiteDiario;
+
+	/**
+	 * Construtor da simulao.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa.
+	 * @param duracao
+	 *            long - Durao mxima em milisegundos.
+	 * @param limiteRefeicoes
+	 *            long - Total de refeies que encerra a simulao, 0 para
+	 *            no limitar.
+	 */
+	public Simulacao(ConfiguracaoMesa configuracao, long duracao,
+			long limiteRefeicoes) {
+		this(configuracao, duracao, limiteRefeicoes, -1);
+	}
+
+	/**
+	 * Construtor da simulao com o servidor de mtricas.
+	 *
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros da mesa.
+	 * @param duracao
+	 *            long - Durao mxima em milisegundos.
+	 * @param limiteRefeicoes
+	 *            long - Total de refeies que encerra a simulao, 0 para
+	 *            no limitar.
+	 * @param portaMetricas
+	 *            int - Porta local do {@link ServidorMetricas}, negativa para
+	 *            no inici-lo.
+	 */
+	public Simulacao(ConfiguracaoMesa configuracao, long duracao,
+			long limiteRefeicoes, int portaMetricas) {
+		if (duracao <= 0L || limiteRefeicoes < 0L) {
+			throw new IllegalArgumentException(String.format(
+					"Durao (%d) ou limite de refeies (%d) invlido.",
+					duracao, limiteRefeicoes));
+		}
+		this.configuracao = configuracao;
+		this.duracao = duracao;
+		this.limiteRefeicoes = limiteRefeicoes;
+		this.portaMetricas = portaMetricas;
+	}
+
+	/**
+	 * Grava a execuo em um {@link DiarioEventos}, para ser reproduzida ou
+	 * analisada depois.
+	 *
+	 * @param arquivo
+	 *            {@link File} - Arquivo do dirio, substitudo caso exista.
+	 * @param limiteBytes
+	 *            long - Tamanho mximo dos registros, em bytes.
+	 */
+	public void defineDiario(File arquivo, long limiteBytes) {
+		this.arquivoDiario = arquivo;
+		this.limiteDiario = limiteBytes;
+	}
+
+	/**
+	 * Executa a simulao e exibe o relatrio na sada padro.
+	 *
+	 * @throws InterruptedException
+	 *             Caso a thread principal seja interrompida.
+	 * @throws IOException
+	 *             Caso a porta do servidor de mtricas no possa ser usada.
+	 */
+	public void executa() throws InterruptedException, IOException {
+		DiarioEventos diario = null;
+		if (this.arquivoDiario != null) {
+			diario = new DiarioEventos(this.arquivoDiario,
+					this.configuracao.getQuantidadeFilosofos(),
+					this.limiteDiario);
+		}
+		Mesa mesa = new Mesa(this.configuracao, null, null, null, diario);
+		MetricasMesa metricas = new MetricasMesa(mesa);
+		try {
+			metricas.registra("simulacao");
+		} catch (JMException excecao) {
+			System.out.println("Mtricas JMX no registradas: "
+					+ excecao.getMessage());
+		}
+		ServidorMetricas servidor = null;
+		if (this.portaMetricas >= 0) {
+			servidor = new ServidorMetricas(metricas, this.portaMetricas);
+			servidor.inicia();
+			System.out.println(String.format(
+					"Mtricas em http://localhost:%d%s", servidor.getPorta(),
+					ServidorMetricas.CAMINHO));
+		}
+
+		long cpuAntes = tempoCpuProcesso();
+		long inicio = System.nanoTime();
+		long prazo = inicio + this.duracao * 1000000L;
+		mesa.inicia();
+		long fim;
+		try {
+			while (System.nanoTime() < prazo
+					&& (this.limiteRefeicoes == 0L || mesa
+							.getTotalRefeicoes() < this.limiteRefeicoes)) {
+				Thread.sleep(INTERVALO_VERIFICACAO);
+			}
+		} finally {
+			fim = System.nanoTime();
+			mesa.encerra();
+			if (diario != null) {
+				diario.close();
+			}
+			if (servidor != null) {
+				servidor.para();
+			}
+			try {
+				metricas.cancelaRegistro();
+			} catch (JMException excecao) {
+				// A JVM est terminando a simulao.
+			}
+		}
+		long cpu = tempoCpuProcesso() - cpuAntes;
+
+		exibeRelatorio(mesa, fim - inicio, cpuAntes < 0L ? -1L : cpu, fim);
+		if (diario != null) {
+			System.out.println();
+			System.out.println(String.format(
+					"Dirio: %s | registros: %d (%.1f MB) | descartados: %d",
+					this.arquivoDiario, diario.getRegistros(),
+					diario.getRegistros() * DiarioEventos.TAMANHO_REGISTRO
+							/ 1048576.0, diario.getDescartados()));
+		}
+	}
+
+	/**
+	 * Exibe o resumo da mesa e a tabela com os nmeros de cada filsofo.
+	 */
+	private void exibeRelatorio(Mesa mesa, long tempo, long cpu, long fim) {
+		long refeicoes = mesa.getTotalRefeicoes();
+		double segundos = tempo / 1000000000.0;
+		System.out.println(String.format(
+				"Mesa: %d filsofos | garfo: %s | execuo: %s | estratgia: %s",
+				mesa.getQuantidade(), this.configuracao.getTipoGarfo(),
+				this.configuracao.getModoExecucao(),
+				this.configuracao.getTipoEstrategia()));
+		System.out.println(String.format(
+				"Durao: %.2f s | refeies: %d | refeies/s: %.2f",
+				segundos, refeicoes, refeicoes / segundos));
+		HistogramaLatencia esperas = mesa.getEsperas();
+		System.out.println(String.format(
+				"Espera mdia: %s ms | p99: %s ms | falhas de aquisio: %d",
+				milisegundos((long) esperas.getMedia()),
+				milisegundos(esperas.getPercentil(99.0)), mesa.getEstrategia()
+						.getFalhas()));
+		System.out.println(String.format(
+				"ndice de justia (Jain): %.4f | maior fome: %s ms",
+				mesa.getIndiceJustica(),
+				milisegundos(mesa.getMaiorFome(fim))));
+		if (this.configuracao.getLoteMaximo() > 1) {
+			long posses = mesa.getTotalPosses();
+			long limites = 0L;
+			for (Filosofo filosofo : mesa.getFilosofos()) {
+				limites += filosofo.getLimiteLote();
+			}
+			System.out.println(String.format(
+					"Lotes: %.2f refeies por posse dos garfos | limite "
+							+ "mdio: %.2f (mximo %d, espera tolerada %d ms)",
+					posses == 0L ? 0.0 : (double) refeicoes / posses,
+					(double) limites / mesa.getQuantidade(),
+					this.configuracao.getLoteMaximo(),
+					this.configuracao.getEsperaLote()));
+		}
+		if (this.configuracao.getRecuoMaximo() > 0L
+				&& mesa.getEstrategia() instanceof EstrategiaBackoff) {
+			EstrategiaBackoff backoff = (EstrategiaBackoff) mesa.getEstrategia();
+			long limites = 0L;
+			for (Filosofo filosofo : mesa.getFilosofos()) {
+				limites += filosofo.getLimiteRecuo();
+			}
+			System.out.println(String.format(
+					"Recuo: %d recuos, mdia %s ms | "
+							+ "limite mdio: %.2f ms (de %d a %d ms)",
+					backoff.getRecuos(),
+					milisegundos(backoff.getRecuos() == 0L ? 0L : backoff
+							.getTempoRecuos() / backoff.getRecuos()),
+					(double) limites / mesa.getQuantidade(),
+					this.configuracao.getRecuoMinimo(),
+					this.configuracao.getRecuoMaximo()));
+		}
+		VigiaMesa vigia = mesa.getVigia();
+		if (vigia != null) {
+			System.out.println(String.format(
+					"Vigia: %d deadlocks, %d esperas circulares transitrias e"
+							+ " %d livelocks detectados", vigia.getDeadlocks(),
+					vigia.getEsperasCirculares(), vigia.getLivelocks()));
+		}
+		if (cpu >= 0L) {
+			System.out.println(String.format(
+					"CPU: %.1f ms (%.1f%% de um ncleo) | CPU/refeio: %s",
+					cpu / 1000000.0, cpu / (double) tempo * 100.0,
+					refeicoes == 0L ? "-" : String.format("%.3f ms", cpu
+							/ 1000000.0 / refeicoes)));
+		} else {
+			System.out.println("CPU: no disponvel nesta JVM");
+		}
+
+		System.out.println();
+		System.out.println(String.format(
+				"%-16s %9s %9s %10s %10s %10s %10s %11s", "Filsofo",
+				"refeies", "falhas", "p50 ms", "p90 ms", "p99 ms", "mx ms",
+				"faminto ms"));
+		List<Filosofo> filosofos = mesa.getFilosofos();
+		for (Filosofo filosofo : filosofos) {
+			HistogramaLatencia esperasFilosofo = filosofo.getEsperas();
+			long fome = filosofo.getFomeAtual(fim);
+			System.out.println(String.format(
+					"%-16s %9d %9d %10s %10s %10s %10s %11s",
+					filosofo.getNome(), filosofo.getRefeicoes(),
+					filosofo.getFalhas(),
+					milisegundos(esperasFilosofo.getPercentil(50.0)),
+					milisegundos(esperasFilosofo.getPercentil(90.0)),
+					milisegundos(esperasFilosofo.getPercentil(99.0)),
+					milisegundos(esperasFilosofo.getMaximo()),
+					fome == 0L ? "-" : milisegundos(fome)));
+		}
+	}
+
+	/**
+	 * Formata um tempo em nanossegundos como milisegundos.
+	 */
+	private static String milisegundos(long nanossegundos) {
+		return nanossegundos < 0L ? "-" : String.format("%.1f",
+				nanossegundos / 1000000.0);
+	}
+
+	/**
+	 * Retorna o tempo de CPU consumido pelo processo, que inclui todas as
+	 * threads dos filsofos, inclusive as virtuais.
+	 *
+	 * @return long - Tempo em nanossegundos, ou -1 caso no seja suportado.
+	 */
+	private static long tempoCpuProcesso() {
+		OperatingSystemMXBean sistema = ManagementFactory
+				.getOperatingSystemMXBean();
+		if (sistema instanceof com.sun.management.OperatingSystemMXBean) {
+			return ((com.sun.management.OperatingSystemMXBean) sistema)
+					.getProcessCpuTime();
+		}
+		return -1L;
+	}
+
+	/**
+	 * L os argumentos da linha de comando: pares chave=valor ou arquivos de
+	 * propriedades.
+	 *
+	 * @param args
+	 *            {@link String}[] - Argumentos recebidos.
+	 * @return {@link Properties} - Propriedades lidas.
+	 * @throws IOException
+	 *             Caso um arquivo de propriedades no possa ser lido.
+	 */
+	private static Properties leArgumentos(String[] args) throws IOException {
+		Properties propriedades = new Properties();
+		for (String argumento : args) {
+			int separador = argumento.indexOf('=');
+			if (separador < 0) {
+				InputStream arquivo = new FileInputStream(argumento);
+				try {
+					propriedades.load(arquivo);
+				} finally {
+					arquivo.close();
+				}
+			} else {
+				propriedades.setProperty(argumento.substring(0, separador)
+						.trim(), argumento.substring(separador + 1).trim());
+			}
+		}
+		return propriedades;
+	}
+
+	/**
+	 * Mtodo principal da simulao sem interface grfica.
+	 */
+	public static void main(String[] args) throws IOException,
+			InterruptedException {
+		Properties propriedades = leArgumentos(args);
+		ConfiguracaoMesa configuracao = ConfiguracaoMesa.carrega(propriedades);
+		long duracao = Long.parseLong(propriedades.getProperty(CHAVE_DURACAO,
+				"10").trim()) * 1000L;
+		long refeicoes = Long.parseLong(propriedades.getProperty(
+				CHAVE_REFEICOES, "0").trim());
+		int porta = Integer.parseInt(propriedades.getProperty(
+				ServidorMetricas.CHAVE_PORTA, "-1").trim());
+		Simulacao simulacao = new Simulacao(configuracao, duracao, refeicoes,
+				porta);
+		String diario = propriedades.getProperty(CHAVE_DIARIO);
+		if (diario != null) {
+			simulacao.defineDiario(new File(diario.trim()), Long
+					.parseLong(propriedades.getProperty(CHAVE_LIMITE_DIARIO,
+							"1024").trim()) * 1048576L);
+		}
+		simulacao.executa();
+	}
+}
@@ -0,0 +1,108 @@
+package br.com.uniara.ui;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoEvento;
+import br.com.uniara.registro.RegistroEventos;
+
+/**
+ * Consumidor nico do {@link RegistroEventos}: a cada quadro l os eventos
+ * pendentes, monta o texto de todos de uma vez e o adiciona ao
+ * {@link JTextArea}.<br/>
+ * <br/>
+ * O trabalho  feito por um {@link Timer} do Swing, portanto ocorre sempre na
+ * thread de eventos da interface (EDT), em uma taxa fixa de quadros,
+ * independentemente da velocidade dos filsofos. O componente mantm no
+ * mximo MAXIMO_LINHAS linhas; as mais antigas so removidas.
+ */
+public class ExibidorLog implements ActionListener,
+		RegistroEventos.Consumidor {
+
+	public static final int QUADROS_POR_SEGUNDO = 30;
+	public static final int MAXIMO_LINHAS = 1000;
+	/**
+	 * Quantidade mxima de eventos lidos por quadro, para que um acmulo no
+	 * trave a interface.
+	 */
+	private static final int EVENTOS_POR_QUADRO = 4096;
+
+	private final RegistroEventos registro;
+	private final JTextArea txtLog;
+	private final String[] nomes;
+	private final StringBuilder lote = new StringBuilder(16 * 1024);
+	private final Timer timer;
+
+	/**
+	 * Construtor do exibidor.
+	 *
+	 * @param registro
+	 *            {@link RegistroEventos} - Buffer de onde os eventos so lidos.
+	 * @param txtLog
+	 *            {@link JTextArea} - Componente em que o log  exibido.
+	 * @param nomes
+	 *            {@link String}[] - Nomes dos filsofos, na ordem da mesa.
+	 */
+	public ExibidorLog(RegistroEventos registro, JTextArea txtLog,
+			String[] nomes) {
+		this.registro = registro;
+		this.txtLog = txtLog;
+		this.nomes = nomes.clone();
+		this.timer = new Timer(1000 / QUADROS_POR_SEGUNDO, this);
+		this.timer.setCoalesce(true);
+	}
+
+	/**
+	 * Comea a exibir os eventos.
+	 */
+	public void inicia() {
+		this.timer.start();
+	}
+
+	/**
+	 * Para de exibir os eventos.
+	 */
+	public void para() {
+		this.timer.stop();
+	}
+
+	/**
+	 * Executado pelo {@link Timer} na EDT a cada quadro.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent evento) {
+		this.lote.setLength(0);
+		if (this.registro.consome(this, EVENTOS_POR_QUADRO) == 0) {
+			return;
+		}
+		this.txtLog.append(this.lote.toString());
+		limitaLinhas();
+	}
+
+	@Override
+	public void consome(TipoEvento tipo, int filosofo, Estado estado,
+			long instante) {
+		tipo.exibeEvento(this.nomes[filosofo], estado, this.lote);
+	}
+
+	/**
+	 * Remove as linhas mais antigas que ultrapassarem MAXIMO_LINHAS.
+	 */
+	private void limitaLinhas() {
+		int excesso = this.txtLog.getLineCount() - MAXIMO_LINHAS;
+		if (excesso <= 0) {
+			return;
+		}
+		try {
+			this.txtLog.replaceRange("", 0,
+					this.txtLog.getLineStartOffset(excesso));
+		} catch (BadLocationException excecao) {
+			System.err.println(excecao);
+		}
+	}
+}
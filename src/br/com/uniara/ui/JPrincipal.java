@@ -2,18 +2,33 @@ package br.com.uniara.ui;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
+import javax.management.JMException;
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
 import javax.swing.text.DefaultCaret;
 
 import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoGarfo;
+import br.com.uniara.entidade.ConfiguracaoMesa;
+import br.com.uniara.entidade.ControlePausa;
 import br.com.uniara.entidade.Filosofo;
-import br.com.uniara.entidade.Garfo;
+import br.com.uniara.entidade.Mesa;
+import br.com.uniara.metrica.MetricasMesa;
+import br.com.uniara.metrica.ServidorMetricas;
+import br.com.uniara.registro.DiarioEventos;
+import br.com.uniara.registro.LeitorDiario;
+import br.com.uniara.registro.RegistroEventos;
 import br.com.uniara.ui.componente.JFilosofo;
 import br.com.uniara.ui.componente.JGarfo;
 
@@ -25,30 +40,86 @@ public class JPrincipal extends JFrame {
 
 	private static final long serialVersionUID = 3L;
 	private static final String TEXTO_INICIAL_BOTAO = "Jantar!";
+	/**
+	 * Quantidade de eventos que podem aguardar a exibio no log.
+	 */
+	private static final int CAPACIDADE_LOG = 8192;
+	/**
+	 * Tempo mximo, em segundos, aguardado para exibir a latncia da pausa.
+	 */
+	private static final long TEMPO_LIMITE_PAUSA = 10L;
+	private static final String ARGUMENTO_REPRODUCAO = "-reproduz";
 
-	private JFilosofo jFilosofo1;
-	private JFilosofo jFilosofo2;
-	private JFilosofo jFilosofo3;
-	private JFilosofo jFilosofo4;
-	private JFilosofo jFilosofo5;
+	/**
+	 * Nomes dos filsofos, na ordem da mesa.
+	 */
+	private static final String[] NOMES_FILOSOFOS = { "  Scrates ",
+			"   Plato  ", "Aristteles", "  Ptolomeu ", " Pitgoras " };
+	/**
+	 * Posies (x, y) dos filsofos na tela, na ordem da mesa.
+	 */
+	private static final int[][] POSICOES_FILOSOFOS = { { 175, 0 },
+			{ 350, 120 }, { 283, 316 }, { 66, 316 }, { 0, 120 } };
+	/**
+	 * Posies (x, y) dos garfos na tela, na ordem da mesa.
+	 */
+	private static final int[][] POSICOES_GARFOS = { { 283, 33 },
+			{ 350, 229 }, { 175, 350 }, { 0, 229 }, { 66, 33 } };
 
-	private JGarfo jGarfoA;
-	private JGarfo jGarfoB;
-	private JGarfo jGarfoC;
-	private JGarfo jGarfoD;
-	private JGarfo jGarfoE;
+	private JFilosofo[] jFilosofos;
+	private JGarfo[] jGarfos;
 
 	private JTextArea txtLog;
+	private ExibidorLog exibidorLog;
+	private RenderizadorMesa renderizador;
+	private int quadrosPorSegundo = RenderizadorMesa.QUADROS_POR_SEGUNDO;
 
-	private List<Filosofo> filosofos;
+	private Mesa mesa;
+
+	private ConfiguracaoMesa configuracao;
+	private MetricasMesa metricas;
+	/**
+	 * Porta local do servidor de mtricas, negativa para no inici-lo.
+	 */
+	private int portaMetricas = -1;
+
+	/**
+	 * Reproduo de um dirio, no lugar da mesa, quando definida.
+	 */
+	private ReprodutorDiario reprodutor;
 
 	private boolean jantarIniciado = false;
 
 	/**
 	 * O construtor da classe, faz uma configurao inicial da tela e chama os
-	 * mtodos de configurao dos componentes da tela.
+	 * mtodos de configurao dos componentes da tela. Os garfos sero do tipo
+	 * {@link TipoGarfo#MONITOR}.
 	 */
 	public JPrincipal() {
+		this(TipoGarfo.MONITOR);
+	}
+
+	/**
+	 * Construtor que permite escolher a implementao dos garfos da mesa.
+	 * 
+	 * @param tipoGarfo
+	 *            {@link TipoGarfo} - Implementao utilizada em criaThreads().
+	 */
+	public JPrincipal(TipoGarfo tipoGarfo) {
+		this(new ConfiguracaoMesa(NOMES_FILOSOFOS.length, tipoGarfo));
+	}
+
+	/**
+	 * Construtor que recebe toda a configurao da mesa, inclusive os perfis
+	 * de tempo. A quantidade de filsofos  sempre a da tela.
+	 * 
+	 * @param configuracao
+	 *            {@link ConfiguracaoMesa} - Parmetros usados em
+	 *            criaThreads().
+	 */
+	public JPrincipal(ConfiguracaoMesa configuracao) {
+		this.configuracao = configuracao;
+		this.configuracao.setQuantidadeFilosofos(NOMES_FILOSOFOS.length);
 		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		this.setLayout(null);
 		this.setResizable(false);
@@ -66,10 +137,10 @@ public class JPrincipal extends JFrame {
 	 *         no mtodo criaThreads().
 	 */
 	public List<Filosofo> getFilosofos() {
-		if (filosofos == null) {
+		if (mesa == null) {
 			this.criaThreads();
 		}
-		return filosofos;
+		return mesa.getFilosofos();
 	}
 
 	/**
@@ -86,22 +157,21 @@ public class JPrincipal extends JFrame {
 	 * Cria os componentes com as imagens que representam os filsofos.
 	 */
 	private void criaJFilosofos() {
-		this.jFilosofo1 = new JFilosofo(Estado.PENSANDO, "  Scrates ");
-		this.jFilosofo2 = new JFilosofo(Estado.PENSANDO, "   Plato  ");
-		this.jFilosofo3 = new JFilosofo(Estado.PENSANDO, "Aristteles");
-		this.jFilosofo4 = new JFilosofo(Estado.PENSANDO, "  Ptolomeu ");
-		this.jFilosofo5 = new JFilosofo(Estado.PENSANDO, " Pitgoras ");
+		this.jFilosofos = new JFilosofo[NOMES_FILOSOFOS.length];
+		for (int i = 0; i < this.jFilosofos.length; i++) {
+			this.jFilosofos[i] = new JFilosofo(Estado.PENSANDO,
+					NOMES_FILOSOFOS[i]);
+		}
 	}
 
 	/**
 	 * Cria os componentes com as imagens que representam os garfos.
 	 */
 	private void criaJGarfos() {
-		this.jGarfoA = new JGarfo();
-		this.jGarfoB = new JGarfo();
-		this.jGarfoC = new JGarfo();
-		this.jGarfoD = new JGarfo();
-		this.jGarfoE = new JGarfo();
+		this.jGarfos = new JGarfo[POSICOES_GARFOS.length];
+		for (int i = 0; i < this.jGarfos.length; i++) {
+			this.jGarfos[i] = new JGarfo();
+		}
 	}
 
 	/**
@@ -120,38 +190,95 @@ public class JPrincipal extends JFrame {
 	}
 
 	/**
-	 * Este mtodo cria os recursos (garfos) e os associa com suas respectivas
-	 * threads (filsofos). Posteriormente, os filsofos so adicionados em uma
-	 * lista para facilitar a inicializao das threads.
+	 * Este mtodo cria a {@link Mesa}, que monta os recursos (garfos) e os
+	 * associa com suas respectivas threads (filsofos) e com os componentes da
+	 * tela. Os eventos dos filsofos passam por um {@link RegistroEventos} e
+	 * so exibidos no log pelo {@link ExibidorLog}.
 	 */
 	private void criaThreads() {
-		filosofos = new ArrayList<Filosofo>(5);
-
-		// Criao dos recursos:
-		Garfo garfoA = new Garfo(this.jGarfoA);
-		Garfo garfoB = new Garfo(this.jGarfoB);
-		Garfo garfoC = new Garfo(this.jGarfoC);
-		Garfo garfoD = new Garfo(this.jGarfoD);
-		Garfo garfoE = new Garfo(this.jGarfoE);
-
-		// Criao das threads:
-		Filosofo filosofo1 = new Filosofo(garfoE, garfoA, this.jFilosofo1,
-				this.txtLog);
-		Filosofo filosofo2 = new Filosofo(garfoA, garfoB, this.jFilosofo2,
-				this.txtLog);
-		Filosofo filosofo3 = new Filosofo(garfoB, garfoC, this.jFilosofo3,
-				this.txtLog);
-		Filosofo filosofo4 = new Filosofo(garfoC, garfoD, this.jFilosofo4,
-				this.txtLog);
-		Filosofo filosofo5 = new Filosofo(garfoD, garfoE, this.jFilosofo5,
-				this.txtLog);
-
-		// Adico dos Filosofos na lista:
-		filosofos.add(filosofo1);
-		filosofos.add(filosofo2);
-		filosofos.add(filosofo3);
-		filosofos.add(filosofo4);
-		filosofos.add(filosofo5);
+		RegistroEventos registro = new RegistroEventos(CAPACIDADE_LOG);
+		this.mesa = new Mesa(this.configuracao, this.jFilosofos, this.jGarfos,
+				registro);
+
+		List<Filosofo> filosofos = this.mesa.getFilosofos();
+		String[] nomes = new String[filosofos.size()];
+		for (int i = 0; i < nomes.length; i++) {
+			nomes[i] = filosofos.get(i).getNome();
+		}
+		this.exibidorLog = new ExibidorLog(registro, this.txtLog, nomes);
+
+		this.metricas = new MetricasMesa(this.mesa);
+		try {
+			this.metricas.registra("principal");
+		} catch (JMException excecao) {
+			this.txtLog.append(" Mtricas JMX no registradas: "
+					+ excecao.getMessage() + " \n");
+		}
+		if (this.portaMetricas >= 0) {
+			try {
+				ServidorMetricas servidor = new ServidorMetricas(
+						this.metricas, this.portaMetricas);
+				servidor.inicia();
+				this.txtLog.append(String.format(
+						" Mtricas em http://localhost:%d%s \n",
+						servidor.getPorta(), ServidorMetricas.CAMINHO));
+			} catch (IOException excecao) {
+				this.txtLog.append(" Servidor de mtricas no iniciado: "
+						+ excecao.getMessage() + " \n");
+			}
+		}
+	}
+
+	/**
+	 * Define a porta do servidor de mtricas, iniciado junto com a mesa. As
+	 * mtricas JMX so publicadas sempre.
+	 * 
+	 * @param portaMetricas
+	 *            int - Porta local, negativa para no iniciar o servidor.
+	 */
+	public void setPortaMetricas(int portaMetricas) {
+		this.portaMetricas = portaMetricas;
+	}
+
+	/**
+	 * Define a taxa mxima de quadros em que a mesa  redesenhada.
+	 * 
+	 * @param quadrosPorSegundo
+	 *            int - Quadros por segundo, de 1 a 1000.
+	 */
+	public void setQuadrosPorSegundo(int quadrosPorSegundo) {
+		this.quadrosPorSegundo = quadrosPorSegundo;
+	}
+
+	/**
+	 * Cria e inicia o {@link RenderizadorMesa}, que redesenha os componentes
+	 * alterados pelos filsofos ou pela reproduo.
+	 */
+	private void iniciaRenderizador() {
+		this.renderizador = new RenderizadorMesa(this.jFilosofos,
+				this.jGarfos, this.quadrosPorSegundo);
+		this.renderizador.inicia();
+	}
+
+	/**
+	 * Faz a tela reproduzir um dirio gravado em vez de executar a mesa. O
+	 * boto passa a iniciar, pausar e retomar a reproduo.
+	 * 
+	 * @param leitor
+	 *            {@link LeitorDiario} - Dirio com a quantidade de filsofos
+	 *            da tela.
+	 * @param velocidade
+	 *            double - Multiplicador da velocidade, zero para no esperar.
+	 */
+	public void defineReproducao(LeitorDiario leitor, double velocidade) {
+		RegistroEventos registro = new RegistroEventos(CAPACIDADE_LOG);
+		this.reprodutor = new ReprodutorDiario(leitor, this.jFilosofos,
+				this.jGarfos, registro, velocidade);
+		String[] nomes = new String[NOMES_FILOSOFOS.length];
+		for (int i = 0; i < nomes.length; i++) {
+			nomes[i] = NOMES_FILOSOFOS[i].trim();
+		}
+		this.exibidorLog = new ExibidorLog(registro, this.txtLog, nomes);
 	}
 
 	/**
@@ -166,25 +293,12 @@ public class JPrincipal extends JFrame {
 		int espacoX = 20;
 		int espacoY = 10;
 
-		this.jFilosofo1.setBounds(espacoX + 175, espacoY + 0, larguraFilosofo,
-				alturaFilosofo);
-		this.add(jFilosofo1);
-
-		this.jFilosofo2.setBounds(espacoX + 350, espacoY + 120,
-				larguraFilosofo, alturaFilosofo);
-		this.add(jFilosofo2);
-
-		this.jFilosofo3.setBounds(espacoX + 283, espacoY + 316,
-				larguraFilosofo, alturaFilosofo);
-		this.add(jFilosofo3);
-
-		this.jFilosofo4.setBounds(espacoX + 66, espacoY + 316, larguraFilosofo,
-				alturaFilosofo);
-		this.add(jFilosofo4);
-
-		this.jFilosofo5.setBounds(espacoX + 0, espacoY + 120, larguraFilosofo,
-				alturaFilosofo);
-		this.add(jFilosofo5);
+		for (int i = 0; i < this.jFilosofos.length; i++) {
+			this.jFilosofos[i].setBounds(espacoX + POSICOES_FILOSOFOS[i][0],
+					espacoY + POSICOES_FILOSOFOS[i][1], larguraFilosofo,
+					alturaFilosofo);
+			this.add(this.jFilosofos[i]);
+		}
 	}
 
 	/**
@@ -199,67 +313,131 @@ public class JPrincipal extends JFrame {
 		int espacoX = 20;
 		int espacoY = 10;
 
-		this.jGarfoA.setBounds(espacoX + 283, espacoY + 33, larguraGarfo,
-				alturaGarfo);
-		this.add(jGarfoA);
-
-		this.jGarfoB.setBounds(espacoX + 350, espacoY + 229, larguraGarfo,
-				alturaGarfo);
-		this.add(jGarfoB);
-
-		this.jGarfoC.setBounds(espacoX + 175, espacoY + 350, larguraGarfo,
-				alturaGarfo);
-		this.add(jGarfoC);
-
-		this.jGarfoD.setBounds(espacoX + 0, espacoY + 229, larguraGarfo,
-				alturaGarfo);
-		this.add(jGarfoD);
-
-		this.jGarfoE.setBounds(espacoX + 66, espacoY + 33, larguraGarfo,
-				alturaGarfo);
-		this.add(jGarfoE);
+		for (int i = 0; i < this.jGarfos.length; i++) {
+			this.jGarfos[i].setBounds(espacoX + POSICOES_GARFOS[i][0], espacoY
+					+ POSICOES_GARFOS[i][1], larguraGarfo, alturaGarfo);
+			this.add(this.jGarfos[i]);
+		}
 	}
 
 	/**
 	 * Este mtodo percorre a lista que contm as threads e as inicia.
 	 */
 	public void iniciaThreads() {
-		for (Filosofo filosofo : getFilosofos()) {
-			filosofo.start();
+		if (this.reprodutor != null) {
+			this.exibidorLog.inicia();
+			this.iniciaRenderizador();
+			Thread thread = new Thread(this.reprodutor, "Reproduo");
+			thread.setDaemon(true);
+			thread.start();
+			this.jantarIniciado = true;
+			return;
+		}
+		if (this.mesa == null) {
+			this.criaThreads();
 		}
+		this.exibidorLog.inicia();
+		this.iniciaRenderizador();
+		this.mesa.inicia();
 		this.jantarIniciado = true;
 	}
 
 	/**
-	 * Este mtodo percorre a lista que contm as threads e as reinicia.<br/>
-	 *  um modo depreciado, ou seja, pode deixar de existir na proxima verso
-	 * do programa.
+	 * Este mtodo retoma a mesa pausada, liberando todos os filsofos juntos.
 	 */
-	@Deprecated
 	public void reiniciaThreads() {
-		for (Filosofo filosofo : getFilosofos()) {
-			filosofo.resume();
+		if (this.reprodutor != null) {
+			this.reprodutor.retoma();
+			return;
 		}
+		this.mesa.retoma();
 	}
 
 	/**
-	 * Este mtodo percorre a lista que contm as threads e as pausa.<br/>
-	 *  um modo depreciado, ou seja, pode deixar de existir na proxima verso
-	 * do programa.
+	 * Este mtodo pausa a mesa. Os filsofos param apenas em pontos seguros,
+	 * sem segurar garfos, portanto nenhum vizinho fica bloqueado. Quando todos
+	 * tiverem parado, a latncia da pausa  exibida no log.
 	 */
-	@Deprecated
 	public void pausaThreads() {
-		for (Filosofo filosofo : getFilosofos()) {
-			filosofo.suspend();
+		if (this.reprodutor != null) {
+			this.reprodutor.pausa();
+			return;
 		}
+		final ControlePausa controle = this.mesa.getControlePausa();
+		controle.pausa();
+		Thread espera = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					final long latencia = controle.aguardaPausa(
+							TEMPO_LIMITE_PAUSA, TimeUnit.SECONDS);
+					if (latencia < 0L) {
+						return;
+					}
+					SwingUtilities.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							txtLog.append(String.format(
+									" Mesa pausada em %.1f ms. \n",
+									latencia / 1000000.0));
+						}
+					});
+				} catch (InterruptedException excecao) {
+					// Nada a exibir.
+				}
+			}
+		}, "Espera-pausa");
+		espera.setDaemon(true);
+		espera.start();
 	}
 
 	/**
 	 * Mtodo principal da classe,  ele que  chamado quando roda o sistema.
-	 * Neste mtodo  onde a tela  criada.
+	 * Neste mtodo  onde a tela  criada. O primeiro argumento, opcional,
+	 * indica o {@link TipoGarfo} utilizado (MONITOR, ATOMICO ou TABELADO) ou
+	 * um arquivo de propriedades da {@link ConfiguracaoMesa}, com os perfis de
+	 * tempo e, opcionalmente, a porta do {@link ServidorMetricas} e a taxa de
+	 * quadros do {@link RenderizadorMesa} (tela.quadros).<br/>
+	 * Com "-reproduz arquivo [velocidade]" a tela reproduz um dirio gravado
+	 * pela simulao ( {@link DiarioEventos} ) em vez de executar a mesa.
 	 */
-	public static void main(String[] args) {
-		final JPrincipal pnlPrincipal = new JPrincipal();
+	public static void main(String[] args) throws IOException {
+		ConfiguracaoMesa configuracao = new ConfiguracaoMesa();
+		int portaMetricas = -1;
+		int quadrosPorSegundo = RenderizadorMesa.QUADROS_POR_SEGUNDO;
+		LeitorDiario diario = null;
+		double velocidade = 1.0;
+		if (args.length > 0) {
+			if (ARGUMENTO_REPRODUCAO.equals(args[0]) && args.length > 1) {
+				diario = new LeitorDiario(new File(args[1]));
+				if (args.length > 2) {
+					velocidade = Double.parseDouble(args[2]);
+				}
+			} else if (new File(args[0]).isFile()) {
+				Properties propriedades = new Properties();
+				InputStream arquivo = new FileInputStream(args[0]);
+				try {
+					propriedades.load(arquivo);
+				} finally {
+					arquivo.close();
+				}
+				configuracao = ConfiguracaoMesa.carrega(propriedades);
+				portaMetricas = Integer.parseInt(propriedades.getProperty(
+						ServidorMetricas.CHAVE_PORTA, "-1").trim());
+				quadrosPorSegundo = Integer.parseInt(propriedades.getProperty(
+						RenderizadorMesa.CHAVE_QUADROS,
+						String.valueOf(quadrosPorSegundo)).trim());
+			} else {
+				configuracao.setTipoGarfo(TipoGarfo.valueOf(args[0]
+						.toUpperCase()));
+			}
+		}
+		final JPrincipal pnlPrincipal = new JPrincipal(configuracao);
+		pnlPrincipal.setPortaMetricas(portaMetricas);
+		pnlPrincipal.setQuadrosPorSegundo(quadrosPorSegundo);
+		if (diario != null) {
+			pnlPrincipal.defineReproducao(diario, velocidade);
+		}
 		pnlPrincipal.setSize(725, 480);
 		pnlPrincipal.setVisible(true);
 		pnlPrincipal.setLocationRelativeTo(null);
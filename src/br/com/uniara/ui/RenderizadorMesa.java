@@ -0,0 +1,113 @@
+package br.com.uniara.ui;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+import br.com.uniara.ui.componente.JFilosofo;
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Redesenha a mesa em uma taxa limitada de quadros: a cada quadro amostra o
+ * estado dos filsofos e dos garfos e pede a repintura apenas dos componentes
+ * que mudaram desde o quadro anterior.<br/>
+ * <br/>
+ * As threads dos filsofos (ou a reproduo de um dirio) apenas alteram os
+ * campos dos componentes e nunca chamam repaint(). O trabalho  feito por um
+ * {@link Timer} do Swing, na EDT, como o {@link ExibidorLog}; as repinturas
+ * pedidas no mesmo quadro so reunidas pelo RepaintManager em uma nica
+ * pintura, limitada s regies sujas. Assim a quantidade de pinturas no
+ * depende da velocidade da mesa, e mudanas mais rpidas que um quadro
+ * aparecem apenas pelo seu ltimo estado.
+ */
+public class RenderizadorMesa implements ActionListener {
+
+	public static final int QUADROS_POR_SEGUNDO = 30;
+	/**
+	 * Chave da taxa de quadros nas propriedades da tela.
+	 */
+	public static final String CHAVE_QUADROS = "tela.quadros";
+
+	private final JFilosofo[] jFilosofos;
+	private final JGarfo[] jGarfos;
+	private final Timer timer;
+
+	private long quadros = 0L;
+	private long repinturas = 0L;
+
+	/**
+	 * Construtor do renderizador.
+	 *
+	 * @param jFilosofos
+	 *            {@link JFilosofo}[] - Componentes dos filsofos.
+	 * @param jGarfos
+	 *            {@link JGarfo}[] - Componentes dos garfos.
+	 * @param quadrosPorSegundo
+	 *            int - Taxa mxima de quadros.
+	 */
+	public RenderizadorMesa(JFilosofo[] jFilosofos, JGarfo[] jGarfos,
+			int quadrosPorSegundo) {
+		if (quadrosPorSegundo < 1 || quadrosPorSegundo > 1000) {
+			throw new IllegalArgumentException(
+					"Taxa de quadros invlida: " + quadrosPorSegundo);
+		}
+		this.jFilosofos = jFilosofos.clone();
+		this.jGarfos = jGarfos.clone();
+		this.timer = new Timer(1000 / quadrosPorSegundo, this);
+		this.timer.setCoalesce(true);
+	}
+
+	/**
+	 * Comea a redesenhar a mesa.
+	 */
+	public void inicia() {
+		this.timer.start();
+	}
+
+	/**
+	 * Para de redesenhar a mesa.
+	 */
+	public void para() {
+		this.timer.stop();
+	}
+
+	/**
+	 * Executado pelo {@link Timer} na EDT a cada quadro.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent evento) {
+		this.quadros++;
+		for (JFilosofo jFilosofo : this.jFilosofos) {
+			if (jFilosofo.atualizaQuadro()) {
+				jFilosofo.repaint();
+				this.repinturas++;
+			}
+		}
+		for (JGarfo jGarfo : this.jGarfos) {
+			if (jGarfo.atualizaQuadro()) {
+				jGarfo.repaint();
+				this.repinturas++;
+			}
+		}
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de quadros. Deve ser lido na EDT.
+	 *
+	 * @return long - Quadros processados desde o incio.
+	 */
+	public long getQuadros() {
+		return quadros;
+	}
+
+	/**
+	 * Mtodo acessor da quantidade de repinturas pedidas. Deve ser lido na
+	 * EDT.
+	 *
+	 * @return long - Componentes redesenhados desde o incio.
+	 */
+	public long getRepinturas() {
+		return repinturas;
+	}
+}
@@ -0,0 +1,174 @@
+package br.com.uniara.ui;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import br.com.uniara.constante.Estado;
+import br.com.uniara.constante.TipoEvento;
+import br.com.uniara.constante.TipoRegistro;
+import br.com.uniara.registro.LeitorDiario;
+import br.com.uniara.registro.RegistroEventos;
+import br.com.uniara.ui.componente.JFilosofo;
+import br.com.uniara.ui.componente.JGarfo;
+
+/**
+ * Reproduz um dirio gravado ( {@link LeitorDiario} ) nos componentes da tela,
+ * no lugar das threads dos filsofos.<br/>
+ * <br/>
+ * Os registros apenas alteram os componentes; eles so redesenhados pelo
+ * {@link RenderizadorMesa} da tela.<br/>
+ * <br/>
+ * Os registros so aplicados na ordem do arquivo, respeitando os intervalos
+ * gravados multiplicados pela velocidade: 1 reproduz no tempo original, 10
+ * dez vezes mais rpido e zero (ou negativo) sem esperar. As alteraes de
+ * estado tambm vo para o {@link RegistroEventos}, assim o log  exibido
+ * como em uma execuo normal. A reproduo pode ser pausada; o tempo
+ * pausado no conta.
+ */
+public class ReprodutorDiario implements Runnable, LeitorDiario.Consumidor {
+
+	private static final Estado[] ESTADOS = Estado.values();
+	/**
+	 * Adiantamento mnimo, em nanossegundos, para que a thread espere.
+	 */
+	private static final long ESPERA_MINIMA = TimeUnit.MILLISECONDS.toNanos(1L);
+
+	private final LeitorDiario leitor;
+	private final JFilosofo[] jFilosofos;
+	private final JGarfo[] jGarfos;
+	private final RegistroEventos registro;
+	private final double velocidade;
+
+	private volatile boolean pausado = false;
+	private volatile Thread thread;
+	/**
+	 * Instante, em System.nanoTime(), que corresponde ao incio do dirio.
+	 * S  alterado pela thread da reproduo.
+	 */
+	private long base;
+
+	/**
+	 * Construtor do reprodutor.
+	 *
+	 * @param leitor
+	 *            {@link LeitorDiario} - Dirio reproduzido.
+	 * @param jFilosofos
+	 *            {@link JFilosofo}[] - Componentes dos filsofos.
+	 * @param jGarfos
+	 *            {@link JGarfo}[] - Componentes dos garfos.
+	 * @param registro
+	 *            {@link RegistroEventos} - Buffer do log, pode ser nulo.
+	 * @param velocidade
+	 *            double - Multiplicador da velocidade, zero para no esperar.
+	 */
+	public ReprodutorDiario(LeitorDiario leitor, JFilosofo[] jFilosofos,
+			JGarfo[] jGarfos, RegistroEventos registro, double velocidade) {
+		if (jFilosofos.length != leitor.getQuantidade()
+				|| jGarfos.length != leitor.getQuantidade()) {
+			throw new IllegalArgumentException(String.format(
+					"O dirio tem %d filsofos, a tela tem %d.",
+					leitor.getQuantidade(), jFilosofos.length));
+		}
+		this.leitor = leitor;
+		this.jFilosofos = jFilosofos;
+		this.jGarfos = jGarfos;
+		this.registro = registro;
+		this.velocidade = velocidade;
+	}
+
+	/**
+	 * Percorre o dirio at o fim ou at a thread ser interrompida.
+	 */
+	@Override
+	public void run() {
+		this.thread = Thread.currentThread();
+		this.base = System.nanoTime();
+		try {
+			this.leitor.percorre(this);
+		} catch (IOException excecao) {
+			throw new IllegalStateException("Falha ao ler o dirio.", excecao);
+		} finally {
+			try {
+				this.leitor.close();
+			} catch (IOException excecao) {
+				// Apenas leitura: nada a perder.
+			}
+		}
+	}
+
+	@Override
+	public boolean consome(TipoRegistro tipo, int filosofo, int valor,
+			long instante) {
+		if (Thread.currentThread().isInterrupted()) {
+			// Encerrada: a leitura dos registros restantes  interrompida.
+			return false;
+		}
+		aguarda(instante);
+		switch (tipo) {
+		case ESTADO:
+			Estado estado = ESTADOS[valor];
+			this.jFilosofos[filosofo].setEstado(estado);
+			if (this.registro != null) {
+				this.registro.registra(TipoEvento.ALTERACAO_ESTADO, filosofo,
+						estado);
+			}
+			break;
+		case GARFO_PEGO:
+		case GARFO_SOLTO:
+			this.jGarfos[valor].setOcupado(tipo == TipoRegistro.GARFO_PEGO);
+			break;
+		default:
+			break;
+		}
+		return true;
+	}
+
+	/**
+	 * Aguarda o momento de aplicar o registro, parando enquanto a reproduo
+	 * estiver pausada.
+	 */
+	private void aguarda(long instante) {
+		while (true) {
+			if (this.pausado) {
+				long inicioPausa = System.nanoTime();
+				while (this.pausado && !Thread.currentThread().isInterrupted()) {
+					LockSupport.park(this);
+				}
+				this.base += System.nanoTime() - inicioPausa;
+			}
+			if (this.velocidade <= 0.0) {
+				return;
+			}
+			long adiantamento = this.base + (long) (instante / this.velocidade)
+					- System.nanoTime();
+			if (adiantamento < ESPERA_MINIMA
+					|| Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			LockSupport.parkNanos(this, adiantamento);
+		}
+	}
+
+	/**
+	 * Pausa a reproduo antes do prximo registro.
+	 */
+	public void pausa() {
+		this.pausado = true;
+		Thread atual = this.thread;
+		if (atual != null) {
+			LockSupport.unpark(atual);
+		}
+	}
+
+	/**
+	 * Retoma a reproduo pausada.
+	 */
+	public void retoma() {
+		this.pausado = false;
+		Thread atual = this.thread;
+		if (atual != null) {
+			LockSupport.unpark(atual);
+		}
+	}
+}
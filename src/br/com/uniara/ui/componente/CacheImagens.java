@@ -0,0 +1,151 @@
+package br.com.uniara.ui.componente;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import br.com.uniara.constante.Estado;
+
+/**
+ * Classe que mantm as imagens dos filsofos e dos garfos j decodificadas e
+ * redimensionadas para o tamanho em que so desenhadas.<br/>
+ * <br/>
+ * As imagens so carregadas uma nica vez, na primeira utilizao da classe,
+ * portanto os mtodos paintComponent de {@link JFilosofo} e {@link JGarfo}
+ * no fazem acesso ao classpath nem decodificam PNG a cada repaint.
+ */
+public final class CacheImagens {
+
+	public static final int LARGURA_FILOSOFO = 70;
+	public static final int ALTURA_FILOSOFO = 50;
+	public static final int LARGURA_GARFO = 50;
+	public static final int ALTURA_GARFO = 31;
+
+	private static final Map<Estado, BufferedImage> FILOSOFOS = new EnumMap<Estado, BufferedImage>(
+			Estado.class);
+	private static final BufferedImage GARFO_LIVRE;
+	private static final BufferedImage GARFO_OCUPADO;
+
+	static {
+		for (Estado estado : Estado.values()) {
+			FILOSOFOS.put(estado, carrega(getCaminhoImagem(estado),
+					LARGURA_FILOSOFO, ALTURA_FILOSOFO));
+		}
+		GARFO_LIVRE = carrega("imagens/prato-garfo.png", LARGURA_GARFO,
+				ALTURA_GARFO);
+		GARFO_OCUPADO = carrega("imagens/prato.png", LARGURA_GARFO,
+				ALTURA_GARFO);
+	}
+
+	/**
+	 * Classe utilitria, no deve ser instanciada.
+	 */
+	private CacheImagens() {
+	}
+
+	/**
+	 * Mtodo que retorna o caminho da imagem de acordo com o estado do
+	 * filsofo.
+	 *
+	 * @param estado
+	 *            {@link Estado} - Estado do filsofo.
+	 * @return {@link String} - Caminho da imagem no classpath.
+	 */
+	private static String getCaminhoImagem(Estado estado) {
+		String retorno = "";
+		switch (estado) {
+		case COMENDO:
+			retorno = "imagens/filosofo-comendo.png";
+			break;
+		case FAMINTO_COM_GARFO:
+			retorno = "imagens/filosofo-faminto-garfo.png";
+			break;
+		case FAMINTO_SEM_GARFOS:
+			retorno = "imagens/filosofo-faminto.png";
+			break;
+		case PENSANDO:
+		default:
+			retorno = "imagens/filosofo-pensando.png";
+			break;
+		}
+		return retorno;
+	}
+
+	/**
+	 * L a imagem do classpath e a redimensiona para o tamanho informado, em
+	 * um formato compatvel com a tela quando ela existir.
+	 *
+	 * @param caminho
+	 *            {@link String} - Caminho da imagem no classpath.
+	 * @param largura
+	 *            int - Largura em que a imagem ser desenhada.
+	 * @param altura
+	 *            int - Altura em que a imagem ser desenhada.
+	 * @return {@link BufferedImage} - A imagem pronta para ser desenhada, ou
+	 *         nulo caso no possa ser lida.
+	 */
+	private static BufferedImage carrega(String caminho, int largura,
+			int altura) {
+		try {
+			URL recurso = CacheImagens.class.getClassLoader().getResource(
+					caminho);
+			if (recurso == null) {
+				System.err.println("Imagem no encontrada: " + caminho);
+				return null;
+			}
+			BufferedImage original = ImageIO.read(recurso);
+			BufferedImage imagem;
+			if (GraphicsEnvironment.isHeadless()) {
+				imagem = new BufferedImage(largura, altura,
+						BufferedImage.TYPE_INT_ARGB);
+			} else {
+				imagem = GraphicsEnvironment.getLocalGraphicsEnvironment()
+						.getDefaultScreenDevice().getDefaultConfiguration()
+						.createCompatibleImage(largura, altura,
+								Transparency.TRANSLUCENT);
+			}
+			Graphics2D grafico = imagem.createGraphics();
+			try {
+				grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+						RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				grafico.drawImage(original, 0, 0, largura, altura, null);
+			} finally {
+				grafico.dispose();
+			}
+			return imagem;
+		} catch (IOException excecao) {
+			System.err.println(excecao);
+			return null;
+		}
+	}
+
+	/**
+	 * Retorna a imagem do filsofo no estado informado.
+	 *
+	 * @param estado
+	 *            {@link Estado} - Estado do filsofo.
+	 * @return {@link BufferedImage} - Imagem de 70x50 pixels.
+	 */
+	public static BufferedImage getImagemFilosofo(Estado estado) {
+		return FILOSOFOS.get(estado);
+	}
+
+	/**
+	 * Retorna a imagem do garfo de acordo com a disponibilidade.
+	 *
+	 * @param ocupado
+	 *            boolean - Indica se o garfo est em uso.
+	 * @return {@link BufferedImage} - Imagem de 50x31 pixels.
+	 */
+	public static BufferedImage getImagemGarfo(boolean ocupado) {
+		return ocupado ? GARFO_OCUPADO : GARFO_LIVRE;
+	}
+}
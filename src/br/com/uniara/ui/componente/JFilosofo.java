@@ -1,9 +1,9 @@
 package br.com.uniara.ui.componente;
 
 import java.awt.Graphics;
-import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
 
-import javax.swing.ImageIcon;
 import javax.swing.JPanel;
 
 import br.com.uniara.constante.Estado;
@@ -16,35 +16,28 @@ import br.com.uniara.constante.Estado;
 public class JFilosofo extends JPanel {
 
 	private static final long serialVersionUID = 1L;
-	private String nome;
-	private Estado estado;
 
 	/**
-	 * Mtodo que retorna o caminho da imagem de acordo com o estado do
-	 * filsofo.
-	 * 
-	 * @return {@link String} - Caminho absoluto da imagem.
+	 * Texto exibido abaixo da imagem para cada estado, j convertido para o
+	 * formato usado em drawChars.
 	 */
-	private String getCaminhoImagem() {
-		String retorno = "";
-		switch (this.getEstado()) {
-		case COMENDO:
-			retorno = "imagens/filosofo-comendo.png";
-			break;
-		case FAMINTO_COM_GARFO:
-			retorno = "imagens/filosofo-faminto-garfo.png";
-			break;
-		case FAMINTO_SEM_GARFOS:
-			retorno = "imagens/filosofo-faminto.png";
-			break;
-		case PENSANDO:
-		default:
-			retorno = "imagens/filosofo-pensando.png";
-			break;
+	private static final Map<Estado, char[]> TEXTOS_ESTADO = new EnumMap<Estado, char[]>(
+			Estado.class);
+
+	static {
+		for (Estado estado : Estado.values()) {
+			TEXTOS_ESTADO.put(estado, estado.toString().toCharArray());
 		}
-		return retorno;
 	}
 
+	private String nome;
+	private char[] caracteresNome;
+	private volatile Estado estado;
+	/**
+	 * Estado desenhado no quadro atual. S  usado pela EDT.
+	 */
+	private Estado estadoExibido;
+
 	/**
 	 * Mtodo acessor que recupera o nome do filsofo.
 	 */
@@ -60,7 +53,9 @@ public class JFilosofo extends JPanel {
 	}
 
 	/**
-	 * Mtodo acessor que modifica o Enum com o estado do filsofo.
+	 * Mtodo acessor que modifica o Enum com o estado do filsofo. Pode ser
+	 * chamado por qualquer thread; a tela s muda no prximo quadro (
+	 * {@link #atualizaQuadro()} ).
 	 * 
 	 * @param estado
 	 *            {@link Estado} - Enum que indica o estado atual do filsofo.
@@ -69,6 +64,21 @@ public class JFilosofo extends JPanel {
 		this.estado = estado;
 	}
 
+	/**
+	 * Amostra o estado atual para o prximo quadro. Deve ser chamado na EDT.
+	 * 
+	 * @return boolean - "true" caso o estado tenha mudado desde o ltimo
+	 *         quadro e o componente precise ser redesenhado.
+	 */
+	public boolean atualizaQuadro() {
+		Estado atual = this.estado;
+		if (atual == this.estadoExibido) {
+			return false;
+		}
+		this.estadoExibido = atual;
+		return true;
+	}
+
 	/**
 	 * Construtor que recebe dois parametros e os atribui s propriedades da
 	 * classe.
@@ -80,27 +90,33 @@ public class JFilosofo extends JPanel {
 	 */
 	public JFilosofo(Estado estado, String nome) {
 		this.estado = estado;
+		this.estadoExibido = estado;
 		this.nome = nome;
+		this.caracteresNome = nome.toCharArray();
 	}
 
 	/**
 	 * Sobreescrita do mtodo que desenha o componente. Nele foi especializada a
-	 * maneira de desenhar o componente.
+	 * maneira de desenhar o componente.<br/>
+	 * A imagem vem do {@link CacheImagens} j no tamanho final e os textos so
+	 * mantidos como vetores de caracteres, portanto o desenho no faz leitura
+	 * de arquivos nem alocaes. O estado desenhado  o amostrado no ltimo
+	 * quadro.
 	 */
 	@Override
 	protected void paintComponent(Graphics grafico) {
 		try {
-			ClassLoader classLoader = this.getClass().getClassLoader();
-			URL caminhoImagem = classLoader
-					.getResource(this.getCaminhoImagem());
+			Estado estado = this.estadoExibido;
 			grafico.clearRect(0, 0, 75, 100);
-			ImageIcon icon = new ImageIcon(caminhoImagem);
-			grafico.drawImage(icon.getImage(), 0, 0, 70, 50, null);
-			grafico.drawChars(this.getNome().toCharArray(), 0, this.getNome()
-					.length(), 5, 70);
-			String estado = this.getEstado().toString();
-			grafico.drawChars(estado.toCharArray(), 0, estado.length(),
-					estado.equals("FAMINTO") ? 10 : 3, 85);
+			grafico.drawImage(CacheImagens.getImagemFilosofo(estado), 0, 0,
+					null);
+			grafico.drawChars(this.caracteresNome, 0,
+					this.caracteresNome.length, 5, 70);
+			char[] textoEstado = TEXTOS_ESTADO.get(estado);
+			grafico.drawChars(textoEstado, 0, textoEstado.length,
+					estado == Estado.FAMINTO_COM_GARFO
+							|| estado == Estado.FAMINTO_SEM_GARFOS ? 10 : 3,
+					85);
 		} catch (Exception execao) {
 			System.err.println(execao);
 		}
@@ -1,9 +1,7 @@
 package br.com.uniara.ui.componente;
 
 import java.awt.Graphics;
-import java.net.URL;
 
-import javax.swing.ImageIcon;
 import javax.swing.JPanel;
 
 /**
@@ -14,17 +12,11 @@ import javax.swing.JPanel;
 public class JGarfo extends JPanel {
 
 	private static final long serialVersionUID = 2L;
-	private boolean ocupado = false;
-
+	private volatile boolean ocupado = false;
 	/**
-	 * Mtodo que retorna o caminho da imagem de acordo com a disponibilidade do
-	 * garfo, disponibilidade essa determinada pela propriedade ocupado.
-	 * 
-	 * @return caminho absoluto da imagem.
+	 * Disponibilidade desenhada no quadro atual. S  usada pela EDT.
 	 */
-	private String getCaminhoImagem() {
-		return this.ocupado ? "imagens/prato.png" : "imagens/prato-garfo.png";
-	}
+	private boolean ocupadoExibido = false;
 
 	/**
 	 * Mtodo acessor que recupera o valor da propriedade ocupado.
@@ -34,7 +26,9 @@ public class JGarfo extends JPanel {
 	}
 
 	/**
-	 * Mtodo acessor que modifica o valor da propriedade ocupado.
+	 * Mtodo acessor que modifica o valor da propriedade ocupado. Pode ser
+	 * chamado por qualquer thread; a tela s muda no prximo quadro (
+	 * {@link #atualizaQuadro()} ).
 	 * 
 	 * @param ocupado
 	 *            indica a disponibilidade do garfo.
@@ -43,18 +37,34 @@ public class JGarfo extends JPanel {
 		this.ocupado = ocupado;
 	}
 
+	/**
+	 * Amostra a disponibilidade atual para o prximo quadro. Deve ser chamado
+	 * na EDT.
+	 * 
+	 * @return boolean - "true" caso a disponibilidade tenha mudado desde o
+	 *         ltimo quadro e o componente precise ser redesenhado.
+	 */
+	public boolean atualizaQuadro() {
+		boolean atual = this.ocupado;
+		if (atual == this.ocupadoExibido) {
+			return false;
+		}
+		this.ocupadoExibido = atual;
+		return true;
+	}
+
 	/**
 	 * Sobreescrita do mtodo que desenha o componente. Nele foi especializada a
-	 * maneira de desenhar o componente.
+	 * maneira de desenhar o componente.<br/>
+	 * A imagem vem do {@link CacheImagens} j no tamanho final e a
+	 * disponibilidade desenhada  a amostrada no ltimo quadro.
 	 */
 	@Override
 	protected void paintComponent(Graphics grafico) {
 		try {
-			ClassLoader classLoader = this.getClass().getClassLoader();
-			URL res = classLoader.getResource(this.getCaminhoImagem());
 			grafico.clearRect(0, 0, 70, 60);
-			ImageIcon icon = new ImageIcon(res);
-			grafico.drawImage(icon.getImage(), 15, 20, 50, 31, null);
+			grafico.drawImage(CacheImagens.getImagemGarfo(this.ocupadoExibido), 15,
+					20, null);
 		} catch (Exception execao) {
 			System.err.println(execao);
 		}